@@ -0,0 +1,22 @@
+package com.example.android.data
+
+/**
+ * 관리자 세션 (관리자 로그인 응답의 토큰)
+ */
+object AdminSession {
+    var adminId: Long = 0L
+    var username: String = ""
+    var token: String = ""  // admin/** 요청에 Authorization 헤더로 전달
+
+    fun update(adminId: Long, username: String, token: String?) {
+        this.adminId = adminId
+        this.username = username
+        this.token = token ?: ""
+    }
+
+    fun clear() {
+        adminId = 0L
+        username = ""
+        token = ""
+    }
+}
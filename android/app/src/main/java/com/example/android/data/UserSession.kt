@@ -12,13 +12,19 @@ object UserSession {
     var userName: String = ""
     var userEmail: String = ""
     var dailyCalorieGoal: Int = 2000
+    var token: String = ""  // 세션 토큰 (RetrofitInstance가 Authorization 헤더로 전달)
+
+    // 마지막 쓰기 응답의 데이터 버전 (X-Data-Version), 다른 서버로 가는 읽기에도 방금 쓴 내용이 보이도록 전달
+    var lastDataVersion: Long = 0L
+    var lastDataVersionAt: Long = 0L
     
-    fun updateUserInfo(userId: Long, uniqueCode: String, name: String, email: String, goal: Int) {
+    fun updateUserInfo(userId: Long, uniqueCode: String, name: String, email: String, goal: Int, token: String? = null) {
         this.userId = userId
         this.uniqueCode = uniqueCode
         this.userName = name
         this.userEmail = email
         this.dailyCalorieGoal = goal
+        this.token = token ?: ""
     }
     
     fun clear() {
@@ -27,6 +33,16 @@ object UserSession {
         userName = ""
         userEmail = ""
         dailyCalorieGoal = 2000
+        token = ""
+        lastDataVersion = 0L
+        lastDataVersionAt = 0L
+    }
+
+    fun updateDataVersion(version: Long) {
+        if (version > lastDataVersion) {
+            lastDataVersion = version
+        }
+        lastDataVersionAt = System.currentTimeMillis()
     }
 }
 
@@ -79,7 +79,11 @@ interface CheckFoodApi {
     suspend fun adminLogin(@Body request: AdminLoginRequest): ApiResponse<AdminLoginResponse>
 
     @GET("admin/users")
-    suspend fun getAllUsers(): ApiResponse<List<UserManagementResponse>>
+    suspend fun getUsers(
+        @Query("cursor") cursor: String? = null,
+        @Query("limit") limit: Int = 50,
+        @Query("q") query: String? = null
+    ): ApiResponse<UserPageResponse>
 
     @PUT("admin/users/{userId}/reset-password")
     suspend fun resetUserPassword(
@@ -1,5 +1,8 @@
 package com.example.android.data.api
 
+import com.example.android.data.AdminSession
+import com.example.android.data.UserSession
+import okhttp3.Interceptor
 import okhttp3.OkHttpClient
 import okhttp3.logging.HttpLoggingInterceptor
 import retrofit2.Retrofit
@@ -18,7 +21,44 @@ object RetrofitInstance {
         level = HttpLoggingInterceptor.Level.BODY
     }
 
+    // 쓰기 후 이 시간 동안은 받은 데이터 버전을 읽기 요청에 함께 보냄 (서버 read-your-writes window보다 길게)
+    private const val DATA_VERSION_SEND_MILLIS = 60_000L
+
+    private val dataVersionInterceptor = Interceptor { chain ->
+        val request = chain.request()
+        val sendVersion = UserSession.lastDataVersion > 0 &&
+            System.currentTimeMillis() - UserSession.lastDataVersionAt < DATA_VERSION_SEND_MILLIS
+        val response = chain.proceed(
+            if (sendVersion) {
+                request.newBuilder()
+                    .header("X-Min-Data-Version", UserSession.lastDataVersion.toString())
+                    .build()
+            } else {
+                request
+            }
+        )
+        response.header("X-Data-Version")?.toLongOrNull()?.let { UserSession.updateDataVersion(it) }
+        response
+    }
+
+    // 로그인 응답의 토큰을 Authorization: Bearer 로 전달 (관리자 API는 관리자 토큰)
+    private val authInterceptor = Interceptor { chain ->
+        val request = chain.request()
+        val token = if (request.url.encodedPath.contains("/admin/")) AdminSession.token else UserSession.token
+        chain.proceed(
+            if (token.isNotBlank() && request.header("Authorization") == null) {
+                request.newBuilder()
+                    .header("Authorization", "Bearer $token")
+                    .build()
+            } else {
+                request
+            }
+        )
+    }
+
     private val client = OkHttpClient.Builder()
+        .addInterceptor(authInterceptor)
+        .addInterceptor(dataVersionInterceptor)
         .addInterceptor(loggingInterceptor)
         .connectTimeout(30, TimeUnit.SECONDS)
         .readTimeout(30, TimeUnit.SECONDS)
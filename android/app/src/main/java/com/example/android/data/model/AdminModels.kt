@@ -12,7 +12,8 @@ data class AdminLoginRequest(
 data class AdminLoginResponse(
     val adminId: Long,
     val username: String,
-    val message: String
+    val message: String,
+    val token: String? = null  // 관리자 토큰 (admin/** 요청에 Authorization: Bearer 로 전달)
 )
 
 // 회원 관리 응답
@@ -25,6 +26,13 @@ data class UserManagementResponse(
     val createdAt: String
 )
 
+// 회원 목록 한 페이지 (다음 페이지는 nextCursor로 요청)
+data class UserPageResponse(
+    val users: List<UserManagementResponse>,
+    val nextCursor: String?,
+    val hasMore: Boolean
+)
+
 // 비밀번호 재설정 요청
 data class ResetPasswordRequest(
     val newPassword: String
@@ -20,5 +20,6 @@ data class AuthResponse(
     val name: String,
     val email: String,
     val dailyCalorieGoal: Int,
-    val message: String
+    val message: String,
+    val token: String? = null  // 세션 토큰 (Authorization: Bearer 로 전달)
 )
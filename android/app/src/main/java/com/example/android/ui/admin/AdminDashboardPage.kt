@@ -15,6 +15,7 @@ import androidx.compose.ui.text.font.FontWeight
 import androidx.compose.ui.unit.dp
 import androidx.compose.ui.unit.sp
 import androidx.navigation.NavController
+import com.example.android.data.AdminSession
 
 @OptIn(ExperimentalMaterial3Api::class)
 @Composable
@@ -25,6 +26,7 @@ fun AdminDashboardPage(navController: NavController) {
                 title = { Text("관리자 대시보드") },
                 actions = {
                     IconButton(onClick = {
+                        AdminSession.clear()
                         navController.navigate("admin_login") {
                             popUpTo("admin_dashboard") { inclusive = true }
                         }
@@ -18,6 +18,7 @@ import androidx.compose.ui.text.input.PasswordVisualTransformation
 import androidx.compose.ui.unit.dp
 import androidx.compose.ui.unit.sp
 import androidx.navigation.NavController
+import com.example.android.data.AdminSession
 import com.example.android.data.api.RetrofitInstance
 import com.example.android.data.model.AdminLoginRequest
 import kotlinx.coroutines.launch
@@ -135,6 +136,8 @@ fun AdminLoginPage(navController: NavController) {
                         )
 
                         if (response.success && response.data != null) {
+                            // 관리자 토큰 저장 (이후 관리자 API 요청에 사용)
+                            AdminSession.update(response.data.adminId, response.data.username, response.data.token)
                             // 로그인 성공 - 대시보드로 이동
                             navController.navigate("admin_dashboard") {
                                 popUpTo("admin_login") { inclusive = true }
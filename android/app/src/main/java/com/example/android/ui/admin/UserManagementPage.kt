@@ -28,6 +28,11 @@ import kotlinx.coroutines.launch
 @Composable
 fun UserManagementPage(navController: NavController) {
     var users by remember { mutableStateOf<List<UserManagementResponse>>(emptyList()) }
+    var nextCursor by remember { mutableStateOf<String?>(null) }
+    var searchQuery by remember { mutableStateOf("") }
+    // 현재 목록(과 nextCursor)을 만든 검색어, "더 보기"는 입력창이 아니라 이 값으로 이어서 조회
+    var activeQuery by remember { mutableStateOf<String?>(null) }
+    var isLoadingMore by remember { mutableStateOf(false) }
     var isLoading by remember { mutableStateOf(true) }
     var errorMessage by remember { mutableStateOf<String?>(null) }
     var showResetPasswordDialog by remember { mutableStateOf<UserManagementResponse?>(null) }
@@ -35,25 +40,40 @@ fun UserManagementPage(navController: NavController) {
 
     val scope = rememberCoroutineScope()
 
-    // 사용자 목록 로드
-    LaunchedEffect(Unit) {
+    // 사용자 목록 로드 (cursor가 null이면 첫 페이지부터 다시, 아니면 activeQuery로 이어서)
+    fun loadUsers(cursor: String?) {
+        val query = activeQuery
         scope.launch {
             try {
-                val response = RetrofitInstance.api.getAllUsers()
+                if (cursor == null) isLoading = true else isLoadingMore = true
+                val response = RetrofitInstance.api.getUsers(
+                    cursor = cursor,
+                    query = query
+                )
+                // 응답을 기다리는 동안 새 검색을 시작했으면 이전 검색 결과는 버림
+                if (query != activeQuery) return@launch
                 if (response.success && response.data != null) {
-                    users = response.data
+                    users = if (cursor == null) response.data.users else users + response.data.users
+                    nextCursor = if (response.data.hasMore) response.data.nextCursor else null
                 } else {
                     errorMessage = response.message ?: "사용자 목록을 불러올 수 없습니다"
                 }
             } catch (e: Exception) {
-                errorMessage = "네트워크 오류: ${e.message}"
+                if (query == activeQuery) errorMessage = "네트워크 오류: ${e.message}"
                 e.printStackTrace()
             } finally {
-                isLoading = false
+                if (query == activeQuery) {
+                    isLoading = false
+                    isLoadingMore = false
+                }
             }
         }
     }
 
+    LaunchedEffect(Unit) {
+        loadUsers(null)
+    }
+
     Scaffold(
         topBar = {
             TopAppBar(
@@ -66,58 +86,103 @@ fun UserManagementPage(navController: NavController) {
             )
         }
     ) { paddingValues ->
-        Box(
+        Column(
             modifier = Modifier
                 .fillMaxSize()
                 .background(Color(0xFFF5F5F5))
                 .padding(paddingValues)
         ) {
-            when {
-                isLoading -> {
-                    CircularProgressIndicator(
-                        modifier = Modifier.align(Alignment.Center)
-                    )
+            // 이름/이메일/코드 접두어 검색
+            Row(
+                modifier = Modifier
+                    .fillMaxWidth()
+                    .padding(start = 16.dp, end = 16.dp, top = 16.dp),
+                verticalAlignment = Alignment.CenterVertically
+            ) {
+                OutlinedTextField(
+                    value = searchQuery,
+                    onValueChange = { searchQuery = it },
+                    modifier = Modifier.weight(1f),
+                    placeholder = { Text("이름, 이메일, 코드 검색") },
+                    singleLine = true
+                )
+                Spacer(modifier = Modifier.width(8.dp))
+                Button(onClick = {
+                    activeQuery = searchQuery.trim().ifEmpty { null }
+                    errorMessage = null
+                    nextCursor = null
+                    loadUsers(null)
+                }) {
+                    Text("검색")
                 }
-                errorMessage != null -> {
-                    Column(
-                        modifier = Modifier
-                            .align(Alignment.Center)
-                            .padding(24.dp),
-                        horizontalAlignment = Alignment.CenterHorizontally
-                    ) {
-                        Text(
-                            text = errorMessage ?: "",
-                            color = Color.Red,
-                            fontSize = 16.sp
+            }
+            Box(
+                modifier = Modifier.fillMaxSize()
+            ) {
+                when {
+                    isLoading -> {
+                        CircularProgressIndicator(
+                            modifier = Modifier.align(Alignment.Center)
                         )
-                        Spacer(modifier = Modifier.height(16.dp))
-                        Button(onClick = {
-                            navController.popBackStack()
-                        }) {
-                            Text("뒤로가기")
-                        }
                     }
-                }
-                users.isEmpty() -> {
-                    Text(
-                        text = "등록된 회원이 없습니다",
-                        modifier = Modifier.align(Alignment.Center),
-                        fontSize = 16.sp,
-                        color = Color.Gray
-                    )
-                }
-                else -> {
-                    LazyColumn(
-                        modifier = Modifier.fillMaxSize(),
-                        contentPadding = PaddingValues(16.dp),
-                        verticalArrangement = Arrangement.spacedBy(12.dp)
-                    ) {
-                        items(users) { user ->
-                            UserCard(
-                                user = user,
-                                onResetPassword = { showResetPasswordDialog = user },
-                                onDeleteUser = { showDeleteConfirmDialog = user }
+                    errorMessage != null -> {
+                        Column(
+                            modifier = Modifier
+                                .align(Alignment.Center)
+                                .padding(24.dp),
+                            horizontalAlignment = Alignment.CenterHorizontally
+                        ) {
+                            Text(
+                                text = errorMessage ?: "",
+                                color = Color.Red,
+                                fontSize = 16.sp
                             )
+                            Spacer(modifier = Modifier.height(16.dp))
+                            Button(onClick = {
+                                navController.popBackStack()
+                            }) {
+                                Text("뒤로가기")
+                            }
+                        }
+                    }
+                    users.isEmpty() -> {
+                        Text(
+                            text = "등록된 회원이 없습니다",
+                            modifier = Modifier.align(Alignment.Center),
+                            fontSize = 16.sp,
+                            color = Color.Gray
+                        )
+                    }
+                    else -> {
+                        LazyColumn(
+                            modifier = Modifier.fillMaxSize(),
+                            contentPadding = PaddingValues(16.dp),
+                            verticalArrangement = Arrangement.spacedBy(12.dp)
+                        ) {
+                            items(users) { user ->
+                                UserCard(
+                                    user = user,
+                                    onResetPassword = { showResetPasswordDialog = user },
+                                    onDeleteUser = { showDeleteConfirmDialog = user }
+                                )
+                            }
+                            // 다음 페이지
+                            if (nextCursor != null) {
+                                item {
+                                    Box(
+                                        modifier = Modifier.fillMaxWidth(),
+                                        contentAlignment = Alignment.Center
+                                    ) {
+                                        if (isLoadingMore) {
+                                            CircularProgressIndicator()
+                                        } else {
+                                            TextButton(onClick = { loadUsers(nextCursor) }) {
+                                                Text("더 보기")
+                                            }
+                                        }
+                                    }
+                                }
+                            }
                         }
                     }
                 }
@@ -93,7 +93,8 @@ fun SignUpPage(
                         uniqueCode = response.data.uniqueCode,
                         name = response.data.name,
                         email = response.data.email,
-                        goal = response.data.dailyCalorieGoal
+                        goal = response.data.dailyCalorieGoal,
+                        token = response.data.token
                     )
                     // 캘린더로 이동
                     navController?.navigate("calendar") {
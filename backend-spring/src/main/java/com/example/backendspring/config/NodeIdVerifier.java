@@ -0,0 +1,36 @@
+package com.example.backendspring.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 시작 시 서버 인스턴스 ID(app.node-id) 확인
+ *
+ * 스케치 체크포인트(인기 음식, 활성 회원)는 node-id별로 저장하고 재시작 시 같은 node-id의 행을 복원합니다.
+ * APP_NODE_ID 없이 HOSTNAME(컨테이너 ID)으로 정해지면 재시작마다 ID가 바뀌어 복원되지 않고,
+ * 이전 ID의 행은 조회 때마다 계속 병합됩니다. app.node-id.required=true면 시작을 중단합니다.
+ */
+@Slf4j
+@Component
+public class NodeIdVerifier {
+
+    public NodeIdVerifier(@Value("${app.node-id:local}") String nodeId,
+                          @Value("${app.node-id.required:false}") boolean required) {
+        if ("merged".equals(nodeId)) {
+            // 저장이 멈춘 서버들의 체크포인트를 합친 행의 node_id
+            throw new IllegalStateException("app.node-id에 'merged'는 사용할 수 없습니다");
+        }
+        String explicit = System.getenv("APP_NODE_ID");
+        boolean fallback = (explicit == null || explicit.isBlank())
+                && (nodeId.equals(System.getenv("HOSTNAME")) || "local".equals(nodeId));
+        if (!fallback) {
+            return;
+        }
+        if (required) {
+            throw new IllegalStateException("APP_NODE_ID가 설정되지 않았습니다 (서버마다 고정된 값 필요)");
+        }
+        log.warn("APP_NODE_ID 미설정 - node-id '{}' 사용. 재시작 시 값이 바뀌면 스케치 체크포인트를 복원하지 못하므로 "
+                + "서버마다 고정된 APP_NODE_ID를 지정하세요", nodeId);
+    }
+}
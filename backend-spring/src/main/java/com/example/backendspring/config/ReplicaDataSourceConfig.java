@@ -0,0 +1,154 @@
+package com.example.backendspring.config;
+
+import com.example.backendspring.service.ReadYourWritesTracker;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 읽기 복제본(read replica) 라우팅 설정
+ *
+ * datasource.replica.enabled=true 일 때만 활성화되며, 비활성화 시에는
+ * Spring Boot 기본 DataSource(단일 primary)가 그대로 사용됩니다.
+ */
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "datasource.replica.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig implements WebMvcConfigurer {
+
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    @Value("${datasource.replica.urls}")
+    private List<String> replicaUrls;
+
+    @Value("${datasource.replica.username:${spring.datasource.username}}")
+    private String replicaUsername;
+
+    @Value("${datasource.replica.password:${spring.datasource.password}}")
+    private String replicaPassword;
+
+    @Value("${datasource.replica.maximum-pool-size:10}")
+    private int replicaMaximumPoolSize;
+
+    @Value("${datasource.replica.max-lag-seconds:5}")
+    private long maxLagSeconds;
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties properties,
+                                                             ObjectProvider<MeterRegistry> meterRegistry) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        primary.setPoolName("primary");
+        meterRegistry.ifAvailable(primary::setMetricRegistry);
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + i);
+            replica.setJdbcUrl(replicaUrls.get(i).trim());
+            replica.setUsername(replicaUsername);
+            replica.setPassword(replicaPassword);
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setMaximumPoolSize(replicaMaximumPoolSize);
+            replica.setReadOnly(true);
+            meterRegistry.ifAvailable(replica::setMetricRegistry);
+            replicas.put(replica.getPoolName(), replica);
+        }
+
+        log.info("replica 라우팅 활성화 - replica {}개", replicas.size());
+        return new ReplicaRoutingDataSource(primary, replicas);
+    }
+
+    /**
+     * JPA가 사용하는 DataSource
+     * 실제 커넥션은 첫 SQL 실행 시점(readOnly 플래그 설정 이후)에 라우팅됩니다.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(ReplicaRoutingDataSource replicaRoutingDataSource,
+                                               ObjectProvider<MeterRegistry> meterRegistry) {
+        return new ReplicaLagMonitor(replicaRoutingDataSource, maxLagSeconds, meterRegistry.getIfAvailable());
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ReadYourWritesInterceptor(readYourWritesTracker));
+    }
+
+    /**
+     * 경로에 {uniqueCode}가 있는 요청에서, 해당 유저가 방금 쓰기를 했다면 읽기를 primary로 고정
+     * (다른 서버에서 한 쓰기는 클라이언트가 보낸 X-Min-Data-Version으로 확인)
+     */
+    @RequiredArgsConstructor
+    static class ReadYourWritesInterceptor implements AsyncHandlerInterceptor {
+
+        static final String MIN_VERSION_HEADER = "X-Min-Data-Version";
+
+        private final ReadYourWritesTracker tracker;
+
+        @Override
+        public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+            @SuppressWarnings("unchecked")
+            Map<String, String> pathVariables =
+                    (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+            if (pathVariables != null) {
+                String uniqueCode = pathVariables.get("uniqueCode");
+                if (uniqueCode != null) {
+                    observeClientVersion(uniqueCode, request.getHeader(MIN_VERSION_HEADER));
+                }
+                if (uniqueCode != null && tracker.isWithinWindow(uniqueCode)) {
+                    ReplicaRoutingDataSource.pinPrimary();
+                }
+            }
+            return true;
+        }
+
+        private void observeClientVersion(String uniqueCode, String header) {
+            if (header == null) {
+                return;
+            }
+            try {
+                tracker.observeVersion(uniqueCode, Long.parseLong(header.trim()));
+            } catch (NumberFormatException e) {
+                // 잘못된 헤더는 무시 (이 서버의 쓰기 기록만 사용)
+            }
+        }
+
+        @Override
+        public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+            ReplicaRoutingDataSource.clearPrimaryPin();
+        }
+
+        @Override
+        public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+            ReplicaRoutingDataSource.clearPrimaryPin();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.backendspring.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * replica 복제 지연 감시
+ *
+ * 주기적으로 SHOW REPLICA STATUS를 조회하여 허용 지연을 넘거나
+ * 복제가 멈춘 replica를 라우팅에서 제외하고, 회복되면 다시 포함합니다.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private static final long UNKNOWN_LAG = -1L;
+
+    private final ReplicaRoutingDataSource routingDataSource;
+    private final long maxLagSeconds;
+    private final Map<String, AtomicLong> lagSeconds = new ConcurrentHashMap<>();
+
+    public ReplicaLagMonitor(ReplicaRoutingDataSource routingDataSource, long maxLagSeconds, MeterRegistry meterRegistry) {
+        this.routingDataSource = routingDataSource;
+        this.maxLagSeconds = maxLagSeconds;
+
+        for (String replicaKey : routingDataSource.getReplicas().keySet()) {
+            AtomicLong lag = lagSeconds.computeIfAbsent(replicaKey, key -> new AtomicLong(UNKNOWN_LAG));
+            if (meterRegistry != null) {
+                Gauge.builder("datasource.replica.lag.seconds", lag, AtomicLong::get)
+                        .tag("replica", replicaKey)
+                        .register(meterRegistry);
+                Gauge.builder("datasource.replica.available", routingDataSource,
+                                routing -> routing.isAvailable(replicaKey) ? 1 : 0)
+                        .tag("replica", replicaKey)
+                        .register(meterRegistry);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.lag-check-interval-ms:5000}")
+    public void checkReplicationLag() {
+        routingDataSource.getReplicas().forEach(this::checkReplica);
+    }
+
+    private void checkReplica(String replicaKey, DataSource dataSource) {
+        AtomicLong lag = lagSeconds.get(replicaKey);
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SHOW REPLICA STATUS")) {
+
+            if (!resultSet.next()) {
+                // 복제 설정이 없는 서버 (예: 개발 환경에서 primary를 replica로 지정)
+                lag.set(0L);
+                routingDataSource.readmit(replicaKey);
+                return;
+            }
+
+            Object secondsBehind = resultSet.getObject("Seconds_Behind_Source");
+            if (secondsBehind == null) {
+                lag.set(UNKNOWN_LAG);
+                routingDataSource.eject(replicaKey, "복제 중단");
+                return;
+            }
+
+            long seconds = ((Number) secondsBehind).longValue();
+            lag.set(seconds);
+            if (seconds > maxLagSeconds) {
+                routingDataSource.eject(replicaKey, "복제 지연 " + seconds + "초");
+            } else {
+                routingDataSource.readmit(replicaKey);
+            }
+        } catch (SQLException e) {
+            lag.set(UNKNOWN_LAG);
+            routingDataSource.eject(replicaKey, "상태 조회 실패: " + e.getMessage());
+        }
+    }
+}
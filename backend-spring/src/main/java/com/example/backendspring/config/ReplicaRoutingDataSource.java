@@ -0,0 +1,122 @@
+package com.example.backendspring.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 읽기 전용 트랜잭션을 복제본(replica)으로 보내는 라우팅 DataSource
+ *
+ * - 쓰기 트랜잭션, 트랜잭션 밖의 호출 → primary
+ * - @Transactional(readOnly = true) → 정상 상태의 replica (라운드로빈)
+ * - 현재 스레드가 primary에 고정된 경우(read-your-writes) → primary
+ *
+ * 트랜잭션의 readOnly 플래그는 커넥션 획득 이후에 설정되므로
+ * 반드시 LazyConnectionDataSourceProxy로 감싸서 사용해야 합니다.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY_KEY = "primary";
+
+    private static final ThreadLocal<Boolean> PRIMARY_PINNED = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final Map<String, DataSource> replicas;
+    private final List<String> replicaKeys;
+    private final Set<String> ejectedReplicas = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger counter = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas) {
+        this.primary = primary;
+        this.replicas = Map.copyOf(replicas);
+        this.replicaKeys = List.copyOf(replicas.keySet());
+
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY_KEY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    /**
+     * 현재 스레드의 읽기를 primary로 고정 (방금 쓴 데이터를 바로 읽어야 하는 경우)
+     */
+    public static void pinPrimary() {
+        PRIMARY_PINNED.set(Boolean.TRUE);
+    }
+
+    public static void clearPrimaryPin() {
+        PRIMARY_PINNED.remove();
+    }
+
+    public static boolean isPrimaryPinned() {
+        return Boolean.TRUE.equals(PRIMARY_PINNED.get());
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || isPrimaryPinned()) {
+            return PRIMARY_KEY;
+        }
+
+        int size = replicaKeys.size();
+        int start = Math.floorMod(counter.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            String key = replicaKeys.get((start + i) % size);
+            if (!ejectedReplicas.contains(key)) {
+                return key;
+            }
+        }
+        // 사용 가능한 replica가 없으면 primary로 대체
+        return PRIMARY_KEY;
+    }
+
+    public Map<String, DataSource> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * replica를 라우팅 대상에서 제외 (복제 지연 초과, 복제 중단, 접속 실패)
+     */
+    public void eject(String replicaKey, String reason) {
+        if (ejectedReplicas.add(replicaKey)) {
+            log.warn("replica 제외: {} ({})", replicaKey, reason);
+        }
+    }
+
+    /**
+     * 회복된 replica를 라우팅 대상에 다시 포함
+     */
+    public void readmit(String replicaKey) {
+        if (ejectedReplicas.remove(replicaKey)) {
+            log.info("replica 복귀: {}", replicaKey);
+        }
+    }
+
+    public boolean isAvailable(String replicaKey) {
+        return !ejectedReplicas.contains(replicaKey);
+    }
+
+    /**
+     * 컨텍스트 종료 시 커넥션 풀 정리 (@Bean destroy 메서드로 자동 호출)
+     */
+    public void close() {
+        replicas.values().forEach(ReplicaRoutingDataSource::closePool);
+        closePool(primary);
+    }
+
+    private static void closePool(DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource hikari) {
+            hikari.close();
+        }
+    }
+}
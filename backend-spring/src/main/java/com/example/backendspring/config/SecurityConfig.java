@@ -1,11 +1,17 @@
 package com.example.backendspring.config;
 
+import com.example.backendspring.service.SessionTokenService;
+import org.springframework.beans.factory.annotation.Value;
+import jakarta.servlet.DispatcherType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -18,13 +24,19 @@ import java.util.Arrays;
 @EnableWebSecurity
 public class SecurityConfig {
     
+    /**
+     * BCrypt 강도(work factor)는 설정으로 조정
+     * 저장된 해시가 더 약하면 로그인 성공 시 새 강도로 재해시됩니다 (PasswordHashingService)
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${password-hashing.bcrypt-strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
     
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http,
+                                           SessionTokenService sessionTokenService,
+                                           @Value("${auth.token.required:false}") boolean tokenRequired) throws Exception {
         http
             // CSRF 비활성화 (REST API이므로)
             .csrf(csrf -> csrf.disable())
@@ -36,11 +48,26 @@ public class SecurityConfig {
             .sessionManagement(session -> 
                 session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             
-            // 모든 요청 허용 (인증 없이)
-            // TODO: 실제 프로덕션에서는 JWT 등으로 인증 구현 필요
-            .authorizeHttpRequests(auth -> auth
-                .anyRequest().permitAll()
-            );
+            // 세션 토큰(Bearer) 검증 - 서명만 확인하므로 DB 조회 없음
+            .addFilterBefore(new SessionTokenFilter(sessionTokenService),
+                UsernamePasswordAuthenticationFilter.class)
+            .exceptionHandling(exceptions -> exceptions
+                .authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)));
+        
+        http.authorizeHttpRequests(auth -> {
+            // 스트리밍 응답의 async dispatch와 오류 페이지는 원 요청에서 이미 인가됨
+            auth.dispatcherTypeMatchers(DispatcherType.ASYNC, DispatcherType.ERROR).permitAll();
+            // 관리자 API는 설정과 관계없이 관리자 토큰 필수 (로그인 제외)
+            auth.requestMatchers("/admin/login").permitAll();
+            auth.requestMatchers("/admin/**").hasRole("ADMIN");
+            if (tokenRequired) {
+                // 유저 데이터 API는 유저 토큰 필수 (기존 클라이언트 호환을 위해 기본값은 비활성화)
+                auth.requestMatchers("/calories/**", "/meals/**", "/dashboard/**", "/auth/users/**",
+                    "/food/recognize", "/training/**").hasRole("USER");
+            }
+            // 나머지는 허용 (토큰이 있으면 유저 확인에만 사용)
+            auth.anyRequest().permitAll();
+        });
         
         return http.build();
     }
@@ -0,0 +1,44 @@
+package com.example.backendspring.config;
+
+import com.example.backendspring.dto.auth.UserSummary;
+import com.example.backendspring.service.SessionTokenService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * 토큰 인증이 필수일 때 경로/파라미터의 유저 코드가 토큰의 유저와 같은지 확인 (다르면 403)
+ */
+@RequiredArgsConstructor
+public class SessionOwnershipInterceptor implements HandlerInterceptor {
+    
+    private final SessionTokenService sessionTokenService;
+    
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        UserSummary user = sessionTokenService.currentUser();
+        if (user == null) {
+            // 인증 여부는 SecurityFilterChain에서 확인
+            return true;
+        }
+        
+        String requested = null;
+        Object variables = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (variables instanceof Map<?, ?> map && map.get("uniqueCode") instanceof String code) {
+            requested = code;
+        } else if (request.getParameter("userUniqueCode") != null) {
+            requested = request.getParameter("userUniqueCode");
+        }
+        
+        if (requested != null && !requested.equals(user.getUniqueCode())) {
+            response.sendError(HttpStatus.FORBIDDEN.value(), "다른 사용자의 데이터에는 접근할 수 없습니다");
+            return false;
+        }
+        return true;
+    }
+}
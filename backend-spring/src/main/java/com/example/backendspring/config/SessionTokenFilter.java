@@ -0,0 +1,51 @@
+package com.example.backendspring.config;
+
+import com.example.backendspring.dto.auth.UserSummary;
+import com.example.backendspring.service.SessionTokenService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Authorization: Bearer 세션 토큰을 메모리에서 검증해 SecurityContext에 유저 요약(ROLE_USER)
+ * 또는 관리자(ROLE_ADMIN)를 설정 (DB 조회 없음, 유효하지 않은 토큰은 무시하고 익명 요청으로 처리)
+ */
+@RequiredArgsConstructor
+public class SessionTokenFilter extends OncePerRequestFilter {
+    
+    private static final String BEARER_PREFIX = "Bearer ";
+    
+    private final SessionTokenService sessionTokenService;
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.startsWith(BEARER_PREFIX)) {
+            String token = header.substring(BEARER_PREFIX.length()).trim();
+            UserSummary user = sessionTokenService.verify(token);
+            if (user != null) {
+                UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                        user, null, AuthorityUtils.createAuthorityList("ROLE_USER"));
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            } else {
+                SessionTokenService.AdminPrincipal admin = sessionTokenService.verifyAdmin(token);
+                if (admin != null) {
+                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                            admin, null, AuthorityUtils.createAuthorityList("ROLE_ADMIN"));
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+}
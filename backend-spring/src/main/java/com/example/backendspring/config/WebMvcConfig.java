@@ -0,0 +1,22 @@
+package com.example.backendspring.config;
+
+import com.example.backendspring.service.SessionTokenService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebMvcConfig implements WebMvcConfigurer {
+    
+    private final SessionTokenService sessionTokenService;
+    
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // 유저 코드가 경로/파라미터에 있는 API는 토큰의 유저만 접근 가능
+        registry.addInterceptor(new SessionOwnershipInterceptor(sessionTokenService))
+                .addPathPatterns("/calories/**", "/meals/**", "/dashboard/**", "/auth/users/**",
+                        "/food/recognize", "/training/**");
+    }
+}
@@ -1,18 +1,35 @@
 package com.example.backendspring.controller;
 
+import com.example.backendspring.dto.admin.ActiveUsersResponse;
 import com.example.backendspring.dto.admin.AdminLoginRequest;
 import com.example.backendspring.dto.admin.AdminLoginResponse;
+import com.example.backendspring.dto.admin.CohortCalorieStatsResponse;
+import com.example.backendspring.dto.admin.FoodUsersResponse;
 import com.example.backendspring.dto.admin.ResetPasswordRequest;
-import com.example.backendspring.dto.admin.UserManagementResponse;
+import com.example.backendspring.dto.admin.TopFoodsResponse;
+import com.example.backendspring.dto.admin.TrainingExportResponse;
+import com.example.backendspring.dto.admin.UserPageResponse;
+import com.example.backendspring.dto.admin.UserPurgeJobResponse;
 import com.example.backendspring.dto.common.ApiResponse;
 import com.example.backendspring.service.AdminService;
+import com.example.backendspring.service.FoodTrendService;
+import com.example.backendspring.service.MealExportService;
+import com.example.backendspring.service.SessionTokenService;
+import com.example.backendspring.service.TrainingDatasetExportService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.channels.Channels;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/admin")
@@ -33,6 +50,9 @@ public class AdminController {
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(ApiResponse.error(e.getMessage()));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(ApiResponse.error("요청이 많아 잠시 후 다시 시도해주세요"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(ApiResponse.error("로그인 중 오류가 발생했습니다"));
@@ -40,20 +60,116 @@ public class AdminController {
     }
 
     /**
-     * 전체 회원 목록 조회
-     * GET /api/admin/users
+     * 회원 목록 조회 (keyset 페이지네이션)
+     * GET /api/admin/users?cursor=&limit=50&q=&sort=newest|oldest|name|email
+     *
+     * 다음 페이지는 응답의 nextCursor를 cursor로 전달합니다. q는 이름/이메일/고유 코드 접두어 검색입니다.
      */
     @GetMapping("/users")
-    public ResponseEntity<ApiResponse<List<UserManagementResponse>>> getAllUsers() {
+    public ResponseEntity<ApiResponse<UserPageResponse>> getUsers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String sort) {
         try {
-            List<UserManagementResponse> users = adminService.getAllUsers();
+            UserPageResponse users = adminService.getUsers(cursor, limit, q, sort);
             return ResponseEntity.ok(ApiResponse.success(users));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(ApiResponse.error("회원 목록 조회 중 오류가 발생했습니다"));
         }
     }
 
+    /**
+     * 회원 목록 전체 내보내기 (스트리밍)
+     * GET /api/admin/users/export?format=ndjson|csv&q=
+     *
+     * 관리자 토큰 필수 (SecurityConfig), 보안 설정이 바뀌어도 관리자 없이 내보내지 않도록 여기서도 확인
+     */
+    @GetMapping("/users/export")
+    public ResponseEntity<?> exportUsers(
+            @AuthenticationPrincipal SessionTokenService.AdminPrincipal admin,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) String q) {
+        if (admin == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error("관리자 인증이 필요합니다"));
+        }
+        try {
+            MealExportService.Format exportFormat = MealExportService.Format.from(format);
+            StreamingResponseBody body = outputStream -> adminService.exportUsers(admin, q, exportFormat, outputStream);
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.CONTENT_TYPE, exportFormat.getContentType())
+                    .header(HttpHeaders.CONTENT_DISPOSITION,
+                            "attachment; filename=\"users." + exportFormat.getExtension() + "\"")
+                    .body(body);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    /**
+     * 학습 데이터셋 샤드 하나 내려받기 (WebDataset 형식 tar)
+     * GET /api/admin/training-data/shard?afterLogId=0&maxBytes=&maxSamples=
+     *
+     * 응답 헤더 X-Last-Log-Id를 다음 요청의 afterLogId로 넘기면 이어서 받을 수 있고,
+     * X-Export-Complete가 true면 마지막 샤드입니다.
+     */
+    @GetMapping("/training-data/shard")
+    public ResponseEntity<?> getTrainingDataShard(
+            @RequestParam(defaultValue = "0") long afterLogId,
+            @RequestParam(required = false) Long maxBytes,
+            @RequestParam(required = false) Integer maxSamples) {
+        try {
+            TrainingDatasetExportService.ShardPlan plan = adminService.planTrainingShard(afterLogId, maxBytes, maxSamples);
+            StreamingResponseBody body = outputStream ->
+                    adminService.writeTrainingShard(plan, Channels.newChannel(outputStream));
+            String fileName = String.format("shard-%012d-%012d.tar", plan.firstLogId(), plan.lastLogId());
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.CONTENT_TYPE, "application/x-tar")
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                    .header("X-Last-Log-Id", String.valueOf(plan.lastLogId()))
+                    .header("X-Export-Complete", String.valueOf(plan.complete()))
+                    .body(body);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    /**
+     * 학습 데이터셋을 서버 디스크에 샤드로 내보내기
+     * POST /api/admin/training-data/export?name=dataset&afterLogId=&maxBytes=&maxSamples=&maxShards=
+     *
+     * training.export.path/{name}/shard-{첫 log_id}-{마지막 log_id}.tar로 저장합니다.
+     * 한 번에 maxShards개까지 만들고, afterLogId를 생략하면 이미 만든 샤드 다음부터 이어서 내보냅니다.
+     */
+    @PostMapping("/training-data/export")
+    public ResponseEntity<ApiResponse<TrainingExportResponse>> exportTrainingDataset(
+            @RequestParam(defaultValue = "dataset") String name,
+            @RequestParam(required = false) Long afterLogId,
+            @RequestParam(required = false) Long maxBytes,
+            @RequestParam(required = false) Integer maxSamples,
+            @RequestParam(required = false) Integer maxShards) {
+        try {
+            TrainingExportResponse response = adminService.exportTrainingDataset(name, afterLogId, maxBytes, maxSamples, maxShards);
+            return ResponseEntity.ok(ApiResponse.success(response));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("학습 데이터셋 내보내기 중 오류가 발생했습니다"));
+        }
+    }
+
     /**
      * 회원 비밀번호 재설정
      * PUT /api/admin/users/{userId}/reset-password
@@ -68,6 +184,9 @@ public class AdminController {
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(ApiResponse.error(e.getMessage()));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(ApiResponse.error("요청이 많아 잠시 후 다시 시도해주세요"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(ApiResponse.error("비밀번호 재설정 중 오류가 발생했습니다"));
@@ -79,10 +198,12 @@ public class AdminController {
      * DELETE /api/admin/users/{userId}
      */
     @DeleteMapping("/users/{userId}")
-    public ResponseEntity<ApiResponse<String>> deleteUser(@PathVariable Long userId) {
+    public ResponseEntity<ApiResponse<Long>> deleteUser(@PathVariable Long userId) {
         try {
-            adminService.deleteUser(userId);
-            return ResponseEntity.ok(ApiResponse.success("회원이 영구 삭제되었습니다", null));
+            Long purgeJobId = adminService.deleteUser(userId);
+            // 식사/학습 데이터/이미지 정리는 백그라운드에서 진행 (진행 상황: /admin/users/purge-jobs/{jobId})
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body(ApiResponse.success("회원이 영구 삭제되었습니다", purgeJobId));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(ApiResponse.error(e.getMessage()));
@@ -91,4 +212,131 @@ public class AdminController {
                     .body(ApiResponse.error("회원 삭제 중 오류가 발생했습니다"));
         }
     }
+
+    /**
+     * 회원 데이터 정리 작업 진행 상황
+     * GET /api/admin/users/purge-jobs/{jobId}
+     */
+    @GetMapping("/users/purge-jobs/{jobId}")
+    public ResponseEntity<ApiResponse<UserPurgeJobResponse>> getPurgeJob(@PathVariable Long jobId) {
+        try {
+            UserPurgeJobResponse response = adminService.getPurgeJob(jobId);
+            return ResponseEntity.ok(ApiResponse.success(response));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("정리 작업 조회 중 오류가 발생했습니다"));
+        }
+    }
+
+    /**
+     * 일일 칼로리 집계 재구성
+     * POST /api/admin/maintenance/daily-summary/rebuild
+     */
+    @PostMapping("/maintenance/daily-summary/rebuild")
+    public ResponseEntity<ApiResponse<Integer>> rebuildDailyCalorieSummaries() {
+        try {
+            int rebuiltUsers = adminService.rebuildDailyCalorieSummaries();
+            return ResponseEntity.ok(ApiResponse.success("일일 칼로리 집계가 재구성되었습니다", rebuiltUsers));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("일일 칼로리 집계 재구성 중 오류가 발생했습니다"));
+        }
+    }
+
+    /**
+     * 전체 회원 칼로리 통계
+     * GET /api/admin/stats/calories?from=2025-01-01&to=2025-01-31
+     *
+     * 일별 기록 회원 수, 하루 섭취량 분포(p50/p90/p99), 목표 초과 비율, 식사 유형별 식사 수
+     */
+    @GetMapping("/stats/calories")
+    public ResponseEntity<ApiResponse<CohortCalorieStatsResponse>> getCohortCalorieStats(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            LocalDate endDate = to != null ? to : LocalDate.now();
+            LocalDate startDate = from != null ? from : endDate.minusDays(29);
+            CohortCalorieStatsResponse response = adminService.getCohortCalorieStats(startDate, endDate);
+            return ResponseEntity.ok(ApiResponse.success(response));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(ApiResponse.error("요청이 많아 잠시 후 다시 시도해주세요"));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("회원 칼로리 통계 조회 중 오류가 발생했습니다"));
+        }
+    }
+
+    /**
+     * 가장 많이 기록된 음식 (전체 회원)
+     * GET /api/admin/stats/top-foods?window=day|week|all&date=2025-01-15&limit=20
+     *
+     * 서버별 고정 크기 스케치 기반 추정치 (count와 최대 오차 maxError 함께 반환)
+     */
+    @GetMapping("/stats/top-foods")
+    public ResponseEntity<ApiResponse<TopFoodsResponse>> getTopFoods(
+            @RequestParam(defaultValue = "day") String window,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            TopFoodsResponse response = adminService.getTopFoods(
+                    FoodTrendService.Window.from(window), date != null ? date : LocalDate.now(), limit);
+            return ResponseEntity.ok(ApiResponse.success(response));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("인기 음식 조회 중 오류가 발생했습니다"));
+        }
+    }
+
+    /**
+     * 식사를 기록한 활성 회원 수 (HyperLogLog 추정)
+     * GET /api/admin/stats/active-users?date=2025-01-31&from=2025-01-01&to=2025-01-31
+     *
+     * 기준일(date, 기본 오늘)의 DAU/WAU/MAU, from/to 지정 시 해당 구간 고유 회원 수
+     */
+    @GetMapping("/stats/active-users")
+    public ResponseEntity<ApiResponse<ActiveUsersResponse>> getActiveUsers(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        try {
+            ActiveUsersResponse response = adminService.getActiveUsers(
+                    date != null ? date : LocalDate.now(), from, to);
+            return ResponseEntity.ok(ApiResponse.success(response));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("활성 회원 수 조회 중 오류가 발생했습니다"));
+        }
+    }
+
+    /**
+     * 음식별 기록한 고유 회원 수 (HyperLogLog 추정)
+     * GET /api/admin/stats/food-users?limit=20
+     */
+    @GetMapping("/stats/food-users")
+    public ResponseEntity<ApiResponse<List<FoodUsersResponse>>> getFoodUsers(
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            List<FoodUsersResponse> response = adminService.getFoodUsers(limit);
+            return ResponseEntity.ok(ApiResponse.success(response));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("음식별 회원 수 조회 중 오류가 발생했습니다"));
+        }
+    }
 }
@@ -11,6 +11,8 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.RejectedExecutionException;
+
 @RestController
 @RequestMapping("/auth")
 @RequiredArgsConstructor
@@ -31,6 +33,9 @@ public class AuthController {
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(ApiResponse.error(e.getMessage()));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(ApiResponse.error("요청이 많아 잠시 후 다시 시도해주세요"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(ApiResponse.error("회원가입 중 오류가 발생했습니다"));
@@ -49,6 +54,9 @@ public class AuthController {
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(ApiResponse.error(e.getMessage()));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(ApiResponse.error("요청이 많아 잠시 후 다시 시도해주세요"));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(ApiResponse.error("로그인 중 오류가 발생했습니다"));
@@ -58,14 +66,16 @@ public class AuthController {
     /**
      * 목표 칼로리 설정
      * PUT /api/auth/users/{uniqueCode}/goal
+     * 응답 data: 새 세션 토큰
      */
     @PutMapping("/users/{uniqueCode}/goal")
     public ResponseEntity<ApiResponse<String>> updateDailyCalorieGoal(
             @PathVariable String uniqueCode,
             @RequestParam Integer dailyCalorieGoal) {
         try {
-            authService.updateDailyCalorieGoal(uniqueCode, dailyCalorieGoal);
-            return ResponseEntity.ok(ApiResponse.success("목표 칼로리가 업데이트되었습니다", null));
+            // 새 목표 칼로리가 담긴 세션 토큰 (이전 토큰 대신 사용)
+            String token = authService.updateDailyCalorieGoal(uniqueCode, dailyCalorieGoal);
+            return ResponseEntity.ok(ApiResponse.success("목표 칼로리가 업데이트되었습니다", token));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(ApiResponse.error(e.getMessage()));
@@ -1,15 +1,26 @@
 package com.example.backendspring.controller;
 
+import com.example.backendspring.dto.calorie.CalorieStatsResponse;
 import com.example.backendspring.dto.calorie.DailyCalorieResponse;
+import com.example.backendspring.dto.calorie.MonthlyCalorieDenseResponse;
 import com.example.backendspring.dto.calorie.MonthlyCalorieResponse;
 import com.example.backendspring.dto.common.ApiResponse;
 import com.example.backendspring.service.CalorieService;
+import com.example.backendspring.service.CalorieStatsService;
+import com.example.backendspring.service.LiveCalorieService;
+import com.example.backendspring.service.UserDataVersionService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.DateTimeException;
 import java.time.LocalDate;
 
 @RestController
@@ -18,6 +29,12 @@ import java.time.LocalDate;
 public class CalorieController {
     
     private final CalorieService calorieService;
+    private final CalorieStatsService calorieStatsService;
+    private final UserDataVersionService userDataVersionService;
+    private final LiveCalorieService liveCalorieService;
+    
+    // 월별 칼로리 dense 형식 (Accept 헤더로 요청 가능)
+    public static final String DENSE_CALENDAR_MEDIA_TYPE = "application/vnd.checkfood.calendar-dense+json";
     
     /**
      * 일일 칼로리 조회
@@ -26,12 +43,19 @@ public class CalorieController {
      * Android에서 PersonalCaloriePage에서 사용
      */
     @GetMapping("/daily/{uniqueCode}/{date}")
-    public ResponseEntity<ApiResponse<DailyCalorieResponse>> getDailyCalories(
+    public ResponseEntity<?> getDailyCalories(
             @PathVariable String uniqueCode,
-            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            WebRequest webRequest) {
         try {
-            DailyCalorieResponse response = calorieService.getDailyCalories(uniqueCode, date);
-            return ResponseEntity.ok(ApiResponse.success(response));
+            String etag = userDataVersionService.etag(uniqueCode, "daily");
+            if (etag != null && webRequest.checkNotModified(etag)) {
+                return null; // checkNotModified가 304와 ETag를 이미 설정
+            }
+            UserDataVersionService.Versioned<DailyCalorieResponse> response = userDataVersionService.read(uniqueCode,
+                    () -> calorieService.getDailyCalories(uniqueCode, date));
+            return conditional(userDataVersionService.etag(uniqueCode, response.version(), "daily"))
+                    .body(ApiResponse.success(response.value()));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(ApiResponse.error(e.getMessage()));
@@ -46,16 +70,35 @@ public class CalorieController {
      * GET /api/calories/monthly/{uniqueCode}/{year}/{month}
      * 
      * Android에서 CalendarPage에서 사용
+     * ?format=dense 또는 Accept: application/vnd.checkfood.calendar-dense+json 이면
+     * 날짜 키 맵 대신 시작일 + 일별 int 배열로 응답
      */
     @GetMapping("/monthly/{uniqueCode}/{year}/{month}")
-    public ResponseEntity<ApiResponse<MonthlyCalorieResponse>> getMonthlyCalories(
+    public ResponseEntity<?> getMonthlyCalories(
             @PathVariable String uniqueCode,
             @PathVariable Integer year,
-            @PathVariable Integer month) {
+            @PathVariable Integer month,
+            @RequestParam(required = false) String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            WebRequest webRequest) {
         try {
-            MonthlyCalorieResponse response = calorieService.getMonthlyCalories(uniqueCode, year, month);
-            return ResponseEntity.ok(ApiResponse.success(response));
-        } catch (IllegalArgumentException e) {
+            boolean dense = isDenseRequested(format, accept);
+            String etag = userDataVersionService.etag(uniqueCode, dense ? "dense" : "map");
+            if (etag != null && webRequest.checkNotModified(etag)) {
+                return null; // checkNotModified가 304와 ETag를 이미 설정
+            }
+            if (dense) {
+                UserDataVersionService.Versioned<MonthlyCalorieDenseResponse> response = userDataVersionService.read(
+                        uniqueCode, () -> calorieService.getMonthlyCaloriesDense(uniqueCode, year, month));
+                return conditional(userDataVersionService.etag(uniqueCode, response.version(), "dense"))
+                        .contentType(MediaType.parseMediaType(DENSE_CALENDAR_MEDIA_TYPE))
+                        .body(ApiResponse.success(response.value()));
+            }
+            UserDataVersionService.Versioned<MonthlyCalorieResponse> response = userDataVersionService.read(
+                    uniqueCode, () -> calorieService.getMonthlyCalories(uniqueCode, year, month));
+            return conditional(userDataVersionService.etag(uniqueCode, response.version(), "map"))
+                    .body(ApiResponse.success(response.value()));
+        } catch (IllegalArgumentException | DateTimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(ApiResponse.error(e.getMessage()));
         } catch (Exception e) {
@@ -63,4 +106,73 @@ public class CalorieController {
                     .body(ApiResponse.error("월별 칼로리 조회 중 오류가 발생했습니다"));
         }
     }
+    
+    /**
+     * 실시간 칼로리 스트림 (Server-Sent Events)
+     * GET /api/calories/live/{uniqueCode}
+     * 
+     * 연결 직후 오늘 합계를, 이후 식사/목표 변경이 커밋될 때마다 해당 날짜의
+     * 합계와 목표 대비 초과량을 calorie 이벤트로 전송 (데이터는 ApiResponse 형식)
+     * 유저가 없으면 error 이벤트 후 종료
+     */
+    @GetMapping(value = "/live/{uniqueCode}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamLiveCalories(@PathVariable String uniqueCode) {
+        return liveCalorieService.subscribe(uniqueCode);
+    }
+    
+    /**
+     * 유저 데이터 버전 ETag를 붙인 응답 (캐시는 하되 매번 If-None-Match로 재검증)
+     */
+    private ResponseEntity.BodyBuilder conditional(String etag) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT)
+                .cacheControl(CacheControl.noCache());
+        return etag != null ? builder.eTag(etag) : builder;
+    }
+    
+    /**
+     * dense 형식 요청 여부 (?format=dense 또는 Accept: application/vnd.checkfood.calendar-dense+json)
+     */
+    private boolean isDenseRequested(String format, String accept) {
+        if (format != null) {
+            return "dense".equalsIgnoreCase(format);
+        }
+        return accept != null && accept.contains(DENSE_CALENDAR_MEDIA_TYPE);
+    }
+    
+    /**
+     * 장기간 칼로리 통계 조회
+     * GET /api/calories/stats/{uniqueCode}?from=2025-01-01&to=2025-12-31&granularity=week|month|year
+     * 
+     * 기간별 합계/평균, 목표 초과 일수, 목표 이하 최장 연속 기록, 7/30일 이동 평균
+     */
+    @GetMapping("/stats/{uniqueCode}")
+    public ResponseEntity<?> getCalorieStats(
+            @PathVariable String uniqueCode,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "month") String granularity,
+            WebRequest webRequest) {
+        try {
+            LocalDate endDate = to != null ? to : LocalDate.now();
+            LocalDate startDate = from != null ? from : endDate.minusYears(1).plusDays(1);
+            // 기본 기간은 날짜에 따라 달라지므로 실제 기간을 ETag에 포함
+            String representation = "stats-" + startDate + "-" + endDate;
+            String etag = userDataVersionService.etag(uniqueCode, representation);
+            if (etag != null && webRequest.checkNotModified(etag)) {
+                return null; // checkNotModified가 304와 ETag를 이미 설정
+            }
+            CalorieStatsService.Granularity unit = CalorieStatsService.Granularity.from(granularity);
+            UserDataVersionService.Versioned<CalorieStatsResponse> response = userDataVersionService.read(uniqueCode,
+                    () -> calorieStatsService.getStats(uniqueCode, startDate, endDate, unit));
+            return conditional(userDataVersionService.etag(uniqueCode, response.version(), representation))
+                    .body(ApiResponse.success(response.value()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("칼로리 통계 조회 중 오류가 발생했습니다"));
+        }
+    }
 }
@@ -0,0 +1,59 @@
+package com.example.backendspring.controller;
+
+import com.example.backendspring.dto.common.ApiResponse;
+import com.example.backendspring.dto.dashboard.DashboardResponse;
+import com.example.backendspring.service.DashboardService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/dashboard")
+@RequiredArgsConstructor
+public class DashboardController {
+    
+    private final DashboardService dashboardService;
+    
+    /**
+     * 홈 화면 대시보드 조회 (오늘 상세 + 이번 달 달력 + 목표 칼로리)
+     * GET /api/dashboard/{uniqueCode}?date=2025-01-15
+     * 
+     * 앱 실행 시 일일/식사/월별 API를 따로 호출하던 것을 한 번으로 대체
+     * 조회별 소요 시간은 Server-Timing 헤더로 전달
+     */
+    @GetMapping("/{uniqueCode}")
+    public ResponseEntity<ApiResponse<DashboardResponse>> getDashboard(
+            @PathVariable String uniqueCode,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        try {
+            DashboardService.DashboardResult result =
+                    dashboardService.getDashboard(uniqueCode, date != null ? date : LocalDate.now());
+            return ResponseEntity.ok()
+                    .header("Server-Timing", toServerTiming(result.timings()))
+                    .body(ApiResponse.success(result.response()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(ApiResponse.error("요청이 많아 잠시 후 다시 시도해주세요"));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("대시보드 조회 중 오류가 발생했습니다"));
+        }
+    }
+    
+    private String toServerTiming(Map<String, Double> timings) {
+        return timings.entrySet().stream()
+                .map(entry -> String.format(Locale.ROOT, "%s;dur=%.2f", entry.getKey(), entry.getValue()))
+                .collect(Collectors.joining(", "));
+    }
+}
@@ -1,25 +1,37 @@
 package com.example.backendspring.controller;
 
 import com.example.backendspring.dto.common.ApiResponse;
+import com.example.backendspring.dto.meal.FavoriteFoodRequest;
+import com.example.backendspring.dto.meal.FoodShortcutResponse;
 import com.example.backendspring.dto.meal.MealRequest;
 import com.example.backendspring.dto.meal.MealResponse;
+import com.example.backendspring.dto.meal.MealSearchResponse;
+import com.example.backendspring.service.MealExportService;
 import com.example.backendspring.service.MealService;
+import com.example.backendspring.service.RecentFoodService;
+import com.example.backendspring.service.SessionTokenService;
 import com.example.backendspring.service.TrainingDataService;
+import com.example.backendspring.service.UserDataVersionService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 @Slf4j
 @RestController
@@ -28,7 +40,11 @@ import java.util.Map;
 public class MealController {
 
     private final MealService mealService;
+    private final MealExportService mealExportService;
+    private final RecentFoodService recentFoodService;
     private final TrainingDataService trainingDataService;
+    private final UserDataVersionService userDataVersionService;
+    private final SessionTokenService sessionTokenService;
     private final ObjectMapper objectMapper;
     
     /**
@@ -37,6 +53,9 @@ public class MealController {
      */
     @PostMapping
     public ResponseEntity<ApiResponse<MealResponse>> createMeal(@Valid @RequestBody MealRequest request) {
+        if (!sessionTokenService.canAccess(request.getUserUniqueCode())) {
+            return forbidden();
+        }
         try {
             MealResponse response = mealService.createMeal(request);
             return ResponseEntity.status(HttpStatus.CREATED)
@@ -55,6 +74,7 @@ public class MealController {
      * POST /api/meals/with-training-data
      *
      * 카메라로 음식을 촬영하여 Meal을 저장할 때 자동으로 학습 데이터를 수집합니다.
+     * 학습 데이터는 접수만 하고 Meal 커밋 직후 응답합니다 (저장은 TrainingDataPipeline).
      *
      * @param image 원본 이미지 파일
      * @param aiPredictionJson AI 모델의 예측 결과 (JSON 문자열)
@@ -73,49 +93,17 @@ public class MealController {
             // JSON 파싱
             MealRequest mealRequest = objectMapper.readValue(mealRequestJson, MealRequest.class);
             Map<String, Object> aiPrediction = objectMapper.readValue(aiPredictionJson, Map.class);
+            if (!sessionTokenService.canAccess(mealRequest.getUserUniqueCode())) {
+                return forbidden();
+            }
 
             // 1. Meal 생성
             MealResponse mealResponse = mealService.createMeal(mealRequest);
             log.info("Meal 생성 완료 - ID: {}", mealResponse.getId());
 
-            // 2. 사용자가 수정한 최종 데이터 (Ground Truth)
-            Map<String, Object> userCorrectedData = new HashMap<>();
-            userCorrectedData.put("food_count", mealRequest.getFoodCount());
-
-            if (mealRequest.getFood1Name() != null) {
-                Map<String, Object> food1 = new HashMap<>();
-                food1.put("name", mealRequest.getFood1Name());
-                food1.put("calories", mealRequest.getFood1Calories());
-                userCorrectedData.put("food1", food1);
-            }
-
-            if (mealRequest.getFood2Name() != null) {
-                Map<String, Object> food2 = new HashMap<>();
-                food2.put("name", mealRequest.getFood2Name());
-                food2.put("calories", mealRequest.getFood2Calories());
-                userCorrectedData.put("food2", food2);
-            }
-
-            if (mealRequest.getFood3Name() != null) {
-                Map<String, Object> food3 = new HashMap<>();
-                food3.put("name", mealRequest.getFood3Name());
-                food3.put("calories", mealRequest.getFood3Calories());
-                userCorrectedData.put("food3", food3);
-            }
-
-            // 3. 학습 데이터 저장 (비동기 처리로 실패해도 Meal은 저장됨)
-            try {
-                Long logId = trainingDataService.saveTrainingData(
-                    image,
-                    mealRequest.getUserUniqueCode(),
-                    mealResponse.getId(),
-                    aiPrediction,
-                    userCorrectedData
-                );
-                log.info("학습 데이터 수집 완료 - Log ID: {}", logId);
-            } catch (Exception e) {
-                log.error("학습 데이터 수집 실패 (Meal은 저장됨) - Meal ID: {}", mealResponse.getId(), e);
-            }
+            // 2. 학습 데이터는 접수만 하고 바로 응답 (이미지 저장/INSERT는 백그라운드, 실패해도 Meal은 저장됨)
+            String captureId = trainingDataService.submitFromMeal(image, mealRequest, mealResponse.getId(), aiPrediction);
+            log.info("학습 데이터 수집 접수 - Meal ID: {}, 캡처: {}", mealResponse.getId(), captureId);
 
             return ResponseEntity.status(HttpStatus.CREATED)
                 .body(ApiResponse.success("식사가 추가되었습니다", mealResponse));
@@ -141,6 +129,8 @@ public class MealController {
         try {
             MealResponse response = mealService.updateMeal(mealId, request);
             return ResponseEntity.ok(ApiResponse.success("식사가 수정되었습니다", response));
+        } catch (AccessDeniedException e) {
+            return forbidden();
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(ApiResponse.error(e.getMessage()));
@@ -159,6 +149,8 @@ public class MealController {
         try {
             mealService.deleteMeal(mealId);
             return ResponseEntity.ok(ApiResponse.success("식사가 삭제되었습니다", null));
+        } catch (AccessDeniedException e) {
+            return forbidden();
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(ApiResponse.error(e.getMessage()));
@@ -177,6 +169,8 @@ public class MealController {
         try {
             MealResponse response = mealService.getMealById(mealId);
             return ResponseEntity.ok(ApiResponse.success(response));
+        } catch (AccessDeniedException e) {
+            return forbidden();
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(ApiResponse.error(e.getMessage()));
@@ -191,15 +185,179 @@ public class MealController {
      * GET /api/meals/user/{uniqueCode}/date/{date}
      */
     @GetMapping("/user/{uniqueCode}/date/{date}")
-    public ResponseEntity<ApiResponse<List<MealResponse>>> getMealsByDate(
+    public ResponseEntity<?> getMealsByDate(
             @PathVariable String uniqueCode,
-            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            WebRequest webRequest) {
         try {
-            List<MealResponse> response = mealService.getMealsByUserCodeAndDate(uniqueCode, date);
-            return ResponseEntity.ok(ApiResponse.success(response));
+            String etag = userDataVersionService.etag(uniqueCode, "meals");
+            if (etag != null && webRequest.checkNotModified(etag)) {
+                return null; // checkNotModified가 304와 ETag를 이미 설정
+            }
+            UserDataVersionService.Versioned<List<MealResponse>> response = userDataVersionService.read(uniqueCode,
+                    () -> mealService.getMealsByUserCodeAndDate(uniqueCode, date));
+            return conditional(userDataVersionService.etag(uniqueCode, response.version(), "meals"))
+                    .body(ApiResponse.success(response.value()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(ApiResponse.error("식사 조회 중 오류가 발생했습니다"));
         }
     }
+
+    /**
+     * 최근 기록한 음식 조회 (한 번에 다시 기록하기용)
+     * GET /api/meals/user/{uniqueCode}/recent-foods?limit=20
+     */
+    @GetMapping("/user/{uniqueCode}/recent-foods")
+    public ResponseEntity<ApiResponse<List<FoodShortcutResponse>>> getRecentFoods(
+            @PathVariable String uniqueCode,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            List<FoodShortcutResponse> response = recentFoodService.getRecentFoods(uniqueCode, limit);
+            return ResponseEntity.ok(ApiResponse.success(response));
+        } catch (Exception e) {
+            log.error("최근 음식 조회 중 오류 발생 - 유저: {}", uniqueCode, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("최근 음식 조회 중 오류가 발생했습니다"));
+        }
+    }
+    
+    /**
+     * 즐겨찾기 음식 조회
+     * GET /api/meals/user/{uniqueCode}/favorite-foods
+     */
+    @GetMapping("/user/{uniqueCode}/favorite-foods")
+    public ResponseEntity<ApiResponse<List<FoodShortcutResponse>>> getFavoriteFoods(@PathVariable String uniqueCode) {
+        try {
+            List<FoodShortcutResponse> response = recentFoodService.getFavoriteFoods(uniqueCode);
+            return ResponseEntity.ok(ApiResponse.success(response));
+        } catch (Exception e) {
+            log.error("즐겨찾기 음식 조회 중 오류 발생 - 유저: {}", uniqueCode, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("즐겨찾기 음식 조회 중 오류가 발생했습니다"));
+        }
+    }
+    
+    /**
+     * 즐겨찾기 음식 추가
+     * PUT /api/meals/user/{uniqueCode}/favorite-foods
+     */
+    @PutMapping("/user/{uniqueCode}/favorite-foods")
+    public ResponseEntity<ApiResponse<String>> addFavoriteFood(
+            @PathVariable String uniqueCode,
+            @Valid @RequestBody FavoriteFoodRequest request) {
+        try {
+            recentFoodService.addFavoriteFood(uniqueCode, request.getFoodName(), request.getCalories());
+            return ResponseEntity.ok(ApiResponse.success("즐겨찾기에 추가되었습니다", null));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("즐겨찾기 추가 중 오류가 발생했습니다"));
+        }
+    }
+    
+    /**
+     * 즐겨찾기 음식 해제
+     * DELETE /api/meals/user/{uniqueCode}/favorite-foods?foodName={음식이름}
+     */
+    @DeleteMapping("/user/{uniqueCode}/favorite-foods")
+    public ResponseEntity<ApiResponse<String>> removeFavoriteFood(
+            @PathVariable String uniqueCode,
+            @RequestParam String foodName) {
+        try {
+            recentFoodService.removeFavoriteFood(uniqueCode, foodName);
+            return ResponseEntity.ok(ApiResponse.success("즐겨찾기에서 삭제되었습니다", null));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("즐겨찾기 삭제 중 오류가 발생했습니다"));
+        }
+    }
+    
+    /**
+     * 음식명으로 식사 기록 검색
+     * GET /api/meals/user/{uniqueCode}/search?q={음식이름}&page=0&size=20
+     */
+    @GetMapping("/user/{uniqueCode}/search")
+    public ResponseEntity<?> searchMeals(
+            @PathVariable String uniqueCode,
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            WebRequest webRequest) {
+        try {
+            String etag = userDataVersionService.etag(uniqueCode, "search");
+            if (etag != null && webRequest.checkNotModified(etag)) {
+                return null; // checkNotModified가 304와 ETag를 이미 설정
+            }
+            UserDataVersionService.Versioned<MealSearchResponse> response = userDataVersionService.read(uniqueCode,
+                    () -> mealService.searchMealsByFoodName(uniqueCode, query, page, size));
+            return conditional(userDataVersionService.etag(uniqueCode, response.version(), "search"))
+                    .body(ApiResponse.success(response.value()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            log.error("식사 검색 중 오류 발생 - 유저: {}", uniqueCode, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("식사 검색 중 오류가 발생했습니다"));
+        }
+    }
+    
+    /**
+     * 전체 식사 기록 내보내기 (스트리밍)
+     * GET /api/meals/user/{uniqueCode}/export?format=ndjson|csv&gzip=true|false
+     *
+     * 기록 전체를 메모리에 올리지 않고 DB 커서에서 응답 스트림으로 바로 씁니다.
+     */
+    @GetMapping("/user/{uniqueCode}/export")
+    public ResponseEntity<?> exportMeals(
+            @PathVariable String uniqueCode,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        try {
+            MealExportService.Format exportFormat = MealExportService.Format.from(format);
+            mealExportService.checkExportable(uniqueCode);
+
+            StreamingResponseBody body = outputStream -> {
+                if (gzip) {
+                    GZIPOutputStream gzipStream = new GZIPOutputStream(outputStream, 64 * 1024);
+                    mealExportService.exportMeals(uniqueCode, exportFormat, gzipStream);
+                    gzipStream.finish();
+                } else {
+                    mealExportService.exportMeals(uniqueCode, exportFormat, outputStream);
+                }
+            };
+
+            ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                    .header(HttpHeaders.CONTENT_TYPE, exportFormat.getContentType())
+                    .header(HttpHeaders.CONTENT_DISPOSITION,
+                            "attachment; filename=\"meals-" + uniqueCode + "." + exportFormat.getExtension() + "\"");
+            if (gzip) {
+                builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+            }
+            return builder.body(body);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            log.error("식사 내보내기 중 오류 발생 - 유저: {}", uniqueCode, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("식사 내보내기 중 오류가 발생했습니다"));
+        }
+    }
+
+    /**
+     * 유저 데이터 버전 ETag를 붙인 응답 (캐시는 하되 매번 If-None-Match로 재검증)
+     */
+    private ResponseEntity.BodyBuilder conditional(String etag) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().cacheControl(CacheControl.noCache());
+        return etag != null ? builder.eTag(etag) : builder;
+    }
+
+    private static <T> ResponseEntity<ApiResponse<T>> forbidden() {
+        return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                .body(ApiResponse.error("다른 사용자의 데이터에는 접근할 수 없습니다"));
+    }
 }
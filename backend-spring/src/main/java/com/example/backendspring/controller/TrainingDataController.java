@@ -2,7 +2,6 @@ package com.example.backendspring.controller;
 
 import com.example.backendspring.dto.common.ApiResponse;
 import com.example.backendspring.service.TrainingDataService;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -11,7 +10,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @Slf4j
 @RestController
@@ -20,23 +19,23 @@ import java.util.Map;
 public class TrainingDataController {
 
     private final TrainingDataService trainingDataService;
-    private final ObjectMapper objectMapper;
 
     /**
      * 학습 데이터 수집 API
      * POST /api/training/collect
      *
      * Android에서 Meal 저장 시 자동으로 호출되어 학습 데이터를 수집합니다.
+     * 접수 후 바로 202를 응답하고, 이미지 저장과 DB 기록은 백그라운드에서 처리합니다.
      *
      * @param image 원본 이미지 파일
      * @param userUniqueCode 유저 고유 코드
      * @param mealId 저장된 Meal ID
      * @param aiPredictionJson AI 모델의 예측 결과 (JSON)
      * @param userCorrectedJson 사용자가 수정한 최종 데이터 (JSON)
-     * @return 저장된 Training Data Log ID
+     * @return 캡처 ID (training_data_log.capture_id)
      */
     @PostMapping(value = "/collect", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public ResponseEntity<ApiResponse<Long>> collectTrainingData(
+    public ResponseEntity<ApiResponse<String>> collectTrainingData(
         @RequestParam("image") MultipartFile image,
         @RequestParam("userUniqueCode") String userUniqueCode,
         @RequestParam("mealId") Long mealId,
@@ -52,23 +51,23 @@ public class TrainingDataController {
                     .body(ApiResponse.error("이미지 파일이 비어있습니다"));
             }
 
-            // JSON 문자열을 Map으로 변환
-            Map<String, Object> aiPrediction = objectMapper.readValue(aiPredictionJson, Map.class);
-            Map<String, Object> userCorrected = objectMapper.readValue(userCorrectedJson, Map.class);
-
-            // 학습 데이터 저장
-            Long logId = trainingDataService.saveTrainingData(
+            String captureId = trainingDataService.submitTrainingData(
                 image,
                 userUniqueCode,
                 mealId,
-                aiPrediction,
-                userCorrected
+                aiPredictionJson,
+                userCorrectedJson
             );
 
-            log.info("학습 데이터 수집 완료 - Log ID: {}", logId);
-
-            return ResponseEntity.ok(ApiResponse.success("학습 데이터 수집 완료", logId));
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(ApiResponse.success("학습 데이터 수집 접수 완료", captureId));
 
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(ApiResponse.error(e.getMessage()));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(ApiResponse.error(e.getMessage()));
         } catch (Exception e) {
             log.error("학습 데이터 수집 중 오류 발생", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
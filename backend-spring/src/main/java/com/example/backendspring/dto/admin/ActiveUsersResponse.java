@@ -0,0 +1,26 @@
+package com.example.backendspring.dto.admin;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * 식사를 기록한 활성 회원 수 (HyperLogLog 추정치, 관리자용)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActiveUsersResponse {
+    
+    private LocalDate date;             // DAU/WAU/MAU 기준일
+    private Long dailyActiveUsers;      // 기준일 하루
+    private Long weeklyActiveUsers;     // 기준일 포함 최근 7일
+    private Long monthlyActiveUsers;    // 기준일 포함 최근 30일
+    private LocalDate from;             // 요청 구간 (from/to 지정 시)
+    private LocalDate to;
+    private Long rangeActiveUsers;
+}
@@ -13,4 +13,5 @@ public class AdminLoginResponse {
     private Long adminId;
     private String username;
     private String message;
+    private String token;       // 관리자 토큰 (/admin/** 요청에 Authorization: Bearer 로 전달)
 }
@@ -0,0 +1,42 @@
+package com.example.backendspring.dto.admin;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 전체 회원 칼로리 통계 (관리자용)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CohortCalorieStatsResponse {
+    
+    private LocalDate from;
+    private LocalDate to;
+    private Long activeUsers;                  // 기간 내 한 번이라도 기록한 회원 수
+    private Long loggedUserDays;               // (회원, 날짜) 기록 수
+    private List<DailyActiveLoggers> dailyActiveLoggers;
+    private Integer intakeP50;                 // 하루 섭취 칼로리 분포 (회원-일 기준, 10kcal 단위 근사)
+    private Integer intakeP90;
+    private Integer intakeP99;
+    private Double overGoalShare;              // 목표를 초과한 회원-일 비율
+    private Map<String, Long> mealsByType;     // 식사 유형별 식사 수
+    private LocalDateTime computedAt;
+    private Long elapsedMillis;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DailyActiveLoggers {
+        private LocalDate date;
+        private Integer users;
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.backendspring.dto.admin;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 음식별 기록한 고유 회원 수 (HyperLogLog 추정치, 관리자용)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FoodUsersResponse {
+    
+    private String foodName;
+    private Long distinctUsers;
+}
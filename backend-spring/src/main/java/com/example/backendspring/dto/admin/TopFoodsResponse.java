@@ -0,0 +1,33 @@
+package com.example.backendspring.dto.admin;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 가장 많이 기록된 음식 (관리자용)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TopFoodsResponse {
+    
+    private String window;     // day, week, all
+    private LocalDate from;    // all이면 null
+    private LocalDate to;
+    private List<TopFood> foods;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TopFood {
+        private String foodName;
+        private Long count;    // 추정 기록 수 (실제 값은 count - maxError 이상 count 이하)
+        private Long maxError;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.backendspring.dto.admin;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 학습 데이터셋 샤드 내보내기 결과 (로컬 디스크)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrainingExportResponse {
+    private String directory;
+    private List<String> shards;     // 이번 호출에서 만든 샤드 파일명
+    private long samples;
+    private long skippedSamples;     // 이미지 파일이 없어 건너뛴 로그 수
+    private Long lastLogId;          // 다음 호출은 이 ID 다음부터 이어서 내보냄
+    private boolean complete;        // 더 내보낼 로그가 없는지 여부
+}
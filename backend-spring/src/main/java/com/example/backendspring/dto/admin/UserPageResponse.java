@@ -0,0 +1,21 @@
+package com.example.backendspring.dto.admin;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 회원 목록 한 페이지 (keyset 페이지네이션)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserPageResponse {
+    private List<UserManagementResponse> users;
+    private String nextCursor;  // 다음 페이지 요청 시 cursor로 전달 (마지막 페이지면 null)
+    private boolean hasMore;
+}
@@ -0,0 +1,32 @@
+package com.example.backendspring.dto.admin;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 회원 데이터 정리 작업 진행 상황
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserPurgeJobResponse {
+    private Long jobId;
+    private Long userId;
+    private String uniqueCode;
+    private String status;      // PENDING, RUNNING, COMPLETED, FAILED
+    private String phase;       // MEALS, TRAINING_LOGS, DAILY_SUMMARIES, FOOD_STATS, IMAGES, DONE
+    private long deletedMeals;
+    private long deletedTrainingLogs;
+    private long deletedDailySummaries;
+    private long deletedFoodStats;
+    private long deletedFiles;
+    private int attempts;
+    private String lastError;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+}
@@ -17,5 +17,6 @@ public class AuthResponse {
     private String email;
     private Integer dailyCalorieGoal;
     private String message;
+    private String token;       // 세션 토큰 (Authorization: Bearer 로 전달)
 }
 
@@ -0,0 +1,24 @@
+package com.example.backendspring.dto.auth;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * 요청 처리에 필요한 최소 유저 정보 (세션 토큰/유저 요약 캐시에 담기는 불변 값, 비밀번호 해시 제외)
+ */
+@Value
+@Builder
+@AllArgsConstructor
+public class UserSummary {
+    
+    Long userId;
+    String uniqueCode;
+    String name;          // 세션 토큰에서 복원한 경우 null
+    Integer dailyCalorieGoal;
+    Long goalVersion;
+    
+    public int getTargetCalories() {
+        return dailyCalorieGoal != null ? dailyCalorieGoal : 2000;
+    }
+}
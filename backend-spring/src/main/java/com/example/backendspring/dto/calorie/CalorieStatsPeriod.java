@@ -0,0 +1,24 @@
+package com.example.backendspring.dto.calorie;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CalorieStatsPeriod {
+    
+    private LocalDate periodStart;
+    private LocalDate periodEnd;
+    private Long totalCalories;
+    private Integer loggedDays;
+    private Double averageCalories;
+    private Integer daysOverGoal;
+    private Double movingAverage7; // periodEnd 기준 최근 7일 평균 (기록한 날 기준)
+    private Double movingAverage30; // periodEnd 기준 최근 30일 평균 (기록한 날 기준)
+}
@@ -0,0 +1,31 @@
+package com.example.backendspring.dto.calorie;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CalorieStatsResponse {
+    
+    private LocalDate from;
+    private LocalDate to;
+    private String granularity; // week, month, year
+    private Integer targetCalories;
+    
+    private Long totalCalories;
+    private Integer loggedDays; // 식사를 기록한 날 수
+    private Double averageCalories; // 기록한 날 기준 일평균
+    private Integer daysOverGoal; // 목표 초과 일수
+    private Integer longestUnderGoalStreak; // 목표 이하로 연속 기록한 최장 일수
+    private Double movingAverage7; // 종료일(to) 기준 최근 7일 평균 (기록한 날 기준, 기간별 값은 periods)
+    private Double movingAverage30; // 종료일(to) 기준 최근 30일 평균 (기록한 날 기준, 기간별 값은 periods)
+    
+    private List<CalorieStatsPeriod> periods; // 기간별 집계
+}
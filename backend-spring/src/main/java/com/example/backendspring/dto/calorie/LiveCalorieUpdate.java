@@ -0,0 +1,23 @@
+package com.example.backendspring.dto.calorie;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * 실시간 칼로리 변경 알림 (SSE calorie 이벤트 데이터)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LiveCalorieUpdate {
+    
+    private LocalDate date;
+    private Integer targetCalories;
+    private Integer actualCalories;
+    private Integer exceededCalories; // 목표 대비 초과량 (음수면 남은 칼로리)
+}
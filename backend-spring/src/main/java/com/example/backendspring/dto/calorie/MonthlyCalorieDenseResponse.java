@@ -0,0 +1,26 @@
+package com.example.backendspring.dto.calorie;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * 월별 칼로리 조회 (dense 형식)
+ *
+ * dailyCalories[i] = startDate + i일의 총 칼로리 (기록 없는 날은 0)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MonthlyCalorieDenseResponse {
+    
+    private Integer year;
+    private Integer month;
+    private Integer targetCalories;
+    private LocalDate startDate;
+    private int[] dailyCalories;
+}
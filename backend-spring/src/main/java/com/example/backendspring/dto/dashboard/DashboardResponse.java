@@ -0,0 +1,25 @@
+package com.example.backendspring.dto.dashboard;
+
+import com.example.backendspring.dto.calorie.DailyCalorieResponse;
+import com.example.backendspring.dto.calorie.MonthlyCalorieResponse;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * 홈 화면 대시보드 (오늘 상세 + 이번 달 달력 + 목표 칼로리)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardResponse {
+    
+    private LocalDate date;
+    private Integer dailyCalorieGoal;
+    private DailyCalorieResponse today;
+    private MonthlyCalorieResponse month;
+}
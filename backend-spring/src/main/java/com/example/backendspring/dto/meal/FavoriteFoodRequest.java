@@ -0,0 +1,23 @@
+package com.example.backendspring.dto.meal;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FavoriteFoodRequest {
+    
+    @NotBlank(message = "음식명은 필수입니다")
+    private String foodName;
+    
+    @NotNull(message = "칼로리는 필수입니다")
+    @PositiveOrZero(message = "칼로리는 0 이상이어야 합니다")
+    private Integer calories;
+}
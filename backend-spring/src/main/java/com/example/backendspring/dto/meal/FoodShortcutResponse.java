@@ -0,0 +1,24 @@
+package com.example.backendspring.dto.meal;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 최근/즐겨찾기 음식 응답 DTO (한 번에 다시 기록하기용)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FoodShortcutResponse {
+    
+    private String foodName;
+    private Integer calories;
+    private Integer useCount;
+    private LocalDateTime lastUsedAt;
+    private Boolean favorite;
+}
@@ -0,0 +1,25 @@
+package com.example.backendspring.dto.meal;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 식사 기록 음식명 검색 응답 DTO (최신순, 페이지 단위)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MealSearchResponse {
+    
+    private String query;
+    private Integer page;
+    private Integer size;
+    private Long totalElements;
+    private Integer totalPages;
+    private List<MealResponse> meals;
+}
@@ -0,0 +1,40 @@
+package com.example.backendspring.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 유저별 일일 칼로리 집계 (식사 저장/수정/삭제와 같은 트랜잭션에서 증분 갱신)
+ */
+@Entity
+@Table(name = "daily_calorie_summary")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyCalorieSummary {
+    
+    @EmbeddedId
+    private DailyCalorieSummaryId id; // (유저 고유 코드, 날짜)
+    
+    @Column(name = "total_calories", nullable = false)
+    private Integer totalCalories; // 총 칼로리
+    
+    @Column(name = "meal_count", nullable = false)
+    private Integer mealCount; // 식사 수
+    
+    @Column(name = "breakfast_calories", nullable = false)
+    private Integer breakfastCalories;
+    
+    @Column(name = "lunch_calories", nullable = false)
+    private Integer lunchCalories;
+    
+    @Column(name = "dinner_calories", nullable = false)
+    private Integer dinnerCalories;
+    
+    @Column(name = "snack_calories", nullable = false)
+    private Integer snackCalories;
+}
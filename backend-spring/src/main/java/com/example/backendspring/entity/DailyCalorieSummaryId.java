@@ -0,0 +1,23 @@
+package com.example.backendspring.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyCalorieSummaryId implements Serializable {
+    
+    @Column(name = "user_unique_code", nullable = false, length = 10)
+    private String userUniqueCode; // 유저 고유 코드
+    
+    @Column(name = "summary_date", nullable = false)
+    private LocalDate summaryDate; // 집계 날짜
+}
@@ -0,0 +1,25 @@
+package com.example.backendspring.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 유저별 음식명 검색 역색인 (식사 저장/수정/삭제와 같은 트랜잭션에서 갱신)
+ *
+ * 검색은 (유저, 토큰) 범위만 읽으므로 다른 유저의 기록 수와 무관합니다.
+ */
+@Entity
+@Table(name = "meal_search_tokens", indexes = {
+    @Index(name = "idx_meal_search_user_token", columnList = "user_unique_code, token"),
+    @Index(name = "idx_meal_search_meal", columnList = "meal_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MealSearchToken {
+    
+    @EmbeddedId
+    private MealSearchTokenId id; // (유저 고유 코드, 토큰, 식사 ID)
+}
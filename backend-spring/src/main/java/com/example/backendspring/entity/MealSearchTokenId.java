@@ -0,0 +1,25 @@
+package com.example.backendspring.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MealSearchTokenId implements Serializable {
+    
+    @Column(name = "user_unique_code", nullable = false, length = 10)
+    private String userUniqueCode; // 유저 고유 코드
+    
+    @Column(name = "token", nullable = false, length = 8)
+    private String token; // 음식명 2글자 토큰 (소문자)
+    
+    @Column(name = "meal_id", nullable = false)
+    private Long mealId; // 식사 ID
+}
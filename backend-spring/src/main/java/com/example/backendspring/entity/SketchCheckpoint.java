@@ -0,0 +1,30 @@
+package com.example.backendspring.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 서버 인스턴스별 메모리 스케치 체크포인트 (재시작 복구 및 서버 간 병합용)
+ */
+@Entity
+@Table(name = "sketch_checkpoints")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SketchCheckpoint {
+    
+    @EmbeddedId
+    private SketchCheckpointId id; // (스케치 종류, 서버, 구간)
+    
+    @Column(name = "payload", nullable = false, columnDefinition = "MEDIUMTEXT")
+    private String payload; // 직렬화된 스케치
+    
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,25 @@
+package com.example.backendspring.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SketchCheckpointId implements Serializable {
+    
+    @Column(name = "sketch_name", nullable = false, length = 50)
+    private String sketchName; // 스케치 종류 (예: top-foods)
+    
+    @Column(name = "node_id", nullable = false, length = 64)
+    private String nodeId; // 스케치를 저장한 서버 인스턴스
+    
+    @Column(name = "window_key", nullable = false, length = 20)
+    private String windowKey; // 집계 구간 (날짜 yyyy-MM-dd 또는 all)
+}
@@ -13,7 +13,10 @@ import java.time.LocalDateTime;
 @Table(name = "training_data_log", indexes = {
     @Index(name = "idx_user_code", columnList = "user_unique_code"),
     @Index(name = "idx_meal_id", columnList = "meal_id"),
-    @Index(name = "idx_created_at", columnList = "created_at")
+    @Index(name = "idx_created_at", columnList = "created_at"),
+    @Index(name = "idx_image_sha256", columnList = "image_sha256")
+}, uniqueConstraints = {
+    @UniqueConstraint(name = "uk_capture_id", columnNames = "capture_id")
 })
 @Data
 @Builder
@@ -26,6 +29,9 @@ public class TrainingDataLog {
     @Column(name = "log_id")
     private Long logId;
 
+    @Column(name = "capture_id", length = 36)
+    private String captureId; // 수집 파이프라인 캡처 ID (spool 재처리 시 중복 방지)
+
     @Column(name = "user_unique_code", nullable = false, length = 10)
     private String userUniqueCode;
 
@@ -35,6 +41,9 @@ public class TrainingDataLog {
     @Column(name = "image_path", nullable = false, length = 512)
     private String imagePath;
 
+    @Column(name = "image_sha256", length = 64)
+    private String imageSha256; // 내용 주소 저장소 키 (이전 방식으로 저장된 이미지는 null)
+
     @Column(name = "ai_prediction", columnDefinition = "JSON")
     private String aiPrediction; // JSON 문자열로 저장
 
@@ -43,5 +52,9 @@ public class TrainingDataLog {
 
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
-    private LocalDateTime createdAt;
+    private LocalDateTime createdAt; // 수집 시각 (spool에 기록한 시각)
+
+    @Column(name = "inserted_at", insertable = false, updatable = false,
+            columnDefinition = "TIMESTAMP DEFAULT CURRENT_TIMESTAMP")
+    private LocalDateTime insertedAt; // 실제 INSERT 시각 (데이터셋 내보내기 안전 구간 기준)
 }
@@ -13,7 +13,8 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "users", indexes = {
     @Index(name = "idx_unique_code", columnList = "unique_code", unique = true),
-    @Index(name = "idx_email", columnList = "email", unique = true)
+    @Index(name = "idx_email", columnList = "email", unique = true),
+    @Index(name = "idx_name", columnList = "name")
 })
 @Data
 @Builder
@@ -40,6 +41,16 @@ public class User {
     @Column(name = "daily_calorie_goal")
     private Integer dailyCalorieGoal; // 일일 목표 칼로리
     
+    // 식사/목표 변경 시마다 증가하는 데이터 버전 (ETag 용, 엔티티 저장으로는 변경하지 않음)
+    @Builder.Default
+    @Column(name = "data_version", nullable = false, updatable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private Long dataVersion = 0L;
+    
+    // 목표 칼로리 변경 시마다 증가 (세션 토큰에 담긴 목표 칼로리의 유효성 확인용)
+    @Builder.Default
+    @Column(name = "goal_version", nullable = false, updatable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private Long goalVersion = 0L;
+    
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
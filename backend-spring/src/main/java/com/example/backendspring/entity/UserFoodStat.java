@@ -0,0 +1,46 @@
+package com.example.backendspring.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "user_food_stats",
+    uniqueConstraints = {
+        @UniqueConstraint(name = "uk_user_food", columnNames = {"user_unique_code", "food_name"})
+    },
+    indexes = {
+        @Index(name = "idx_user_food_last_used", columnList = "user_unique_code, last_used_at")
+    })
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserFoodStat {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "user_unique_code", nullable = false, length = 10)
+    private String userUniqueCode; // 유저 고유 코드
+    
+    @Column(name = "food_name", nullable = false, length = 255)
+    private String foodName; // 음식명
+    
+    @Column(name = "calories")
+    private Integer calories; // 마지막으로 기록한 칼로리
+    
+    @Column(name = "use_count", nullable = false)
+    private Integer useCount; // 기록 횟수
+    
+    @Column(name = "favorite", nullable = false)
+    private Boolean favorite; // 즐겨찾기 여부
+    
+    @Column(name = "last_used_at")
+    private LocalDateTime lastUsedAt; // 마지막 기록 시각
+}
@@ -0,0 +1,98 @@
+package com.example.backendspring.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * 회원 삭제 후 남은 데이터 정리 작업 (단계와 삭제 건수를 배치마다 저장하므로 재시작 후 이어서 진행)
+ */
+@Entity
+@Table(name = "user_purge_jobs", indexes = {
+    @Index(name = "idx_purge_status", columnList = "status")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserPurgeJob {
+    
+    public enum Status {
+        PENDING, RUNNING, COMPLETED, FAILED
+    }
+    
+    /**
+     * 정리 단계 (순서대로 진행)
+     * 학습 로그를 먼저 지워 식사 삭제 시 meal_id SET NULL 갱신이 생기지 않게 함
+     */
+    public enum Phase {
+        TRAINING_LOGS, SEARCH_TOKENS, MEALS, DAILY_SUMMARIES, FOOD_STATS, IMAGES, DONE;
+        
+        public Phase next() {
+            return values()[Math.min(ordinal() + 1, DONE.ordinal())];
+        }
+    }
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    @Column(name = "user_unique_code", nullable = false, length = 10)
+    private String userUniqueCode;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Phase phase;
+    
+    @Builder.Default
+    @Column(name = "deleted_meals", nullable = false)
+    private Long deletedMeals = 0L;
+    
+    @Builder.Default
+    @Column(name = "deleted_training_logs", nullable = false)
+    private Long deletedTrainingLogs = 0L;
+    
+    @Builder.Default
+    @Column(name = "deleted_daily_summaries", nullable = false)
+    private Long deletedDailySummaries = 0L;
+    
+    @Builder.Default
+    @Column(name = "deleted_food_stats", nullable = false)
+    private Long deletedFoodStats = 0L;
+    
+    @Builder.Default
+    @Column(name = "deleted_files", nullable = false)
+    private Long deletedFiles = 0L;
+    
+    @Builder.Default
+    @Column(nullable = false)
+    private Integer attempts = 0;
+    
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+    
+    @Column(name = "owner_node", length = 100)
+    private String ownerNode; // 실행 중인 서버
+    
+    @Column(name = "heartbeat_at")
+    private LocalDateTime heartbeatAt; // 오래 갱신되지 않으면 다른 서버가 이어받음
+    
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+}
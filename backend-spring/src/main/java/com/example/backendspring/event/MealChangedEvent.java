@@ -0,0 +1,43 @@
+package com.example.backendspring.event;
+
+import com.example.backendspring.entity.Meal;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * 식사 생성/수정/삭제 이벤트
+ *
+ * MealService가 쓰기 트랜잭션 안에서 발행하며, 캐시·통계 등 부가 처리는
+ * @TransactionalEventListener(AFTER_COMMIT)로 커밋된 변경만 반영합니다.
+ */
+@Getter
+@RequiredArgsConstructor
+public class MealChangedEvent {
+
+    public enum ChangeType {
+        CREATED, UPDATED, DELETED
+    }
+
+    private final ChangeType changeType;
+    private final String userUniqueCode;
+    private final Meal previous; // 수정/삭제 전 상태 (생성 시 null)
+    private final Meal current;  // 생성/수정 후 상태 (삭제 시 null)
+
+    /**
+     * 변경으로 칼로리가 달라진 날짜 (수정으로 날짜가 바뀐 경우 두 날짜 모두)
+     */
+    public Set<LocalDate> getAffectedDates() {
+        Set<LocalDate> dates = new LinkedHashSet<>();
+        if (previous != null) {
+            dates.add(previous.getMealDate());
+        }
+        if (current != null) {
+            dates.add(current.getMealDate());
+        }
+        return dates;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.backendspring.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 회원 삭제 이벤트 (AdminService.deleteUser에서 발행, 커밋 후 캐시 정리 및 데이터 정리 작업 시작)
+ */
+@Getter
+@RequiredArgsConstructor
+public class UserDeletedEvent {
+
+    private final Long userId;
+    private final String userUniqueCode;
+    private final Long purgeJobId;
+}
@@ -0,0 +1,16 @@
+package com.example.backendspring.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 유저 목표 칼로리 변경 이벤트 (AuthService.updateDailyCalorieGoal에서 발행)
+ */
+@Getter
+@RequiredArgsConstructor
+public class UserGoalChangedEvent {
+
+    private final String userUniqueCode;
+    private final Integer dailyCalorieGoal;
+    private final Long goalVersion; // 변경 후 목표 칼로리 버전
+}
@@ -0,0 +1,81 @@
+package com.example.backendspring.repository;
+
+import com.example.backendspring.entity.DailyCalorieSummary;
+import com.example.backendspring.entity.DailyCalorieSummaryId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface DailyCalorieSummaryRepository extends JpaRepository<DailyCalorieSummary, DailyCalorieSummaryId> {
+    
+    // 특정 기간의 날짜별 총 칼로리만 조회 (엔티티 대신 projection)
+    @Query("SELECT s.id.summaryDate AS date, s.totalCalories AS totalCalories FROM DailyCalorieSummary s " +
+           "WHERE s.id.userUniqueCode = :userUniqueCode AND s.id.summaryDate BETWEEN :startDate AND :endDate " +
+           "AND s.mealCount > 0 ORDER BY s.id.summaryDate")
+    List<DailyCalorieTotal> findDailyTotals(@Param("userUniqueCode") String userUniqueCode,
+                                            @Param("startDate") LocalDate startDate,
+                                            @Param("endDate") LocalDate endDate);
+    
+    // 일일 집계 증분 반영 (원자적 upsert)
+    @Modifying
+    @Query(value = "INSERT INTO daily_calorie_summary " +
+                   "(user_unique_code, summary_date, total_calories, meal_count, " +
+                   "breakfast_calories, lunch_calories, dinner_calories, snack_calories) " +
+                   "VALUES (:userUniqueCode, :summaryDate, :totalCalories, :mealCount, " +
+                   ":breakfastCalories, :lunchCalories, :dinnerCalories, :snackCalories) " +
+                   "ON DUPLICATE KEY UPDATE " +
+                   "total_calories = total_calories + VALUES(total_calories), " +
+                   "meal_count = meal_count + VALUES(meal_count), " +
+                   "breakfast_calories = breakfast_calories + VALUES(breakfast_calories), " +
+                   "lunch_calories = lunch_calories + VALUES(lunch_calories), " +
+                   "dinner_calories = dinner_calories + VALUES(dinner_calories), " +
+                   "snack_calories = snack_calories + VALUES(snack_calories)",
+           nativeQuery = true)
+    int upsertDelta(@Param("userUniqueCode") String userUniqueCode,
+                    @Param("summaryDate") LocalDate summaryDate,
+                    @Param("totalCalories") int totalCalories,
+                    @Param("mealCount") int mealCount,
+                    @Param("breakfastCalories") int breakfastCalories,
+                    @Param("lunchCalories") int lunchCalories,
+                    @Param("dinnerCalories") int dinnerCalories,
+                    @Param("snackCalories") int snackCalories);
+    
+    // 식사가 모두 삭제된 날짜의 집계 제거
+    @Modifying
+    @Query(value = "DELETE FROM daily_calorie_summary " +
+                   "WHERE user_unique_code = :userUniqueCode AND summary_date = :summaryDate AND meal_count <= 0",
+           nativeQuery = true)
+    int deleteIfEmpty(@Param("userUniqueCode") String userUniqueCode, @Param("summaryDate") LocalDate summaryDate);
+    
+    // 집계 재구성: 대상 유저의 기존 집계 삭제
+    @Modifying
+    @Query(value = "DELETE FROM daily_calorie_summary WHERE user_unique_code IN (:userUniqueCodes)", nativeQuery = true)
+    int deleteByUserCodes(@Param("userUniqueCodes") Collection<String> userUniqueCodes);
+    
+    // 집계 재구성: 식사 원본에서 다시 집계
+    @Modifying
+    @Query(value = "INSERT INTO daily_calorie_summary " +
+                   "(user_unique_code, summary_date, total_calories, meal_count, " +
+                   "breakfast_calories, lunch_calories, dinner_calories, snack_calories) " +
+                   "SELECT m.user_unique_code, m.meal_date, SUM(COALESCE(m.total_calories, 0)), COUNT(*), " +
+                   "SUM(CASE WHEN m.meal_type = 'BREAKFAST' THEN COALESCE(m.total_calories, 0) ELSE 0 END), " +
+                   "SUM(CASE WHEN m.meal_type = 'LUNCH' THEN COALESCE(m.total_calories, 0) ELSE 0 END), " +
+                   "SUM(CASE WHEN m.meal_type = 'DINNER' THEN COALESCE(m.total_calories, 0) ELSE 0 END), " +
+                   "SUM(CASE WHEN m.meal_type = 'SNACK' THEN COALESCE(m.total_calories, 0) ELSE 0 END) " +
+                   "FROM meals m WHERE m.user_unique_code IN (:userUniqueCodes) " +
+                   "GROUP BY m.user_unique_code, m.meal_date",
+           nativeQuery = true)
+    int rebuildFromMeals(@Param("userUniqueCodes") Collection<String> userUniqueCodes);
+
+    // 회원 정리용 배치 삭제 (긴 잠금을 피하도록 LIMIT 단위)
+    @Modifying
+    @Query(value = "DELETE FROM daily_calorie_summary WHERE user_unique_code = :userUniqueCode LIMIT :batchSize", nativeQuery = true)
+    int deleteBatchByUserUniqueCode(@Param("userUniqueCode") String userUniqueCode, @Param("batchSize") int batchSize);
+}
@@ -0,0 +1,13 @@
+package com.example.backendspring.repository;
+
+import java.time.LocalDate;
+
+/**
+ * 날짜별 칼로리 합계 projection (Object[] 대신 타입이 있는 조회 결과)
+ */
+public interface DailyCalorieTotal {
+    
+    LocalDate getDate();
+    
+    Integer getTotalCalories();
+}
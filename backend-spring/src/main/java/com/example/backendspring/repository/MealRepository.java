@@ -2,13 +2,19 @@ package com.example.backendspring.repository;
 
 import com.example.backendspring.entity.Meal;
 import com.example.backendspring.entity.MealType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface MealRepository extends JpaRepository<Meal, Long> {
@@ -26,12 +32,28 @@ public interface MealRepository extends JpaRepository<Meal, Long> {
     @Query("SELECT SUM(m.totalCalories) FROM Meal m WHERE m.userUniqueCode = :userUniqueCode AND m.mealDate = :mealDate")
     Integer getTotalCaloriesByUserCodeAndDate(@Param("userUniqueCode") String userUniqueCode, @Param("mealDate") LocalDate mealDate);
     
-    // 특정 월의 날짜별 칼로리 합계
-    @Query("SELECT m.mealDate, SUM(m.totalCalories) FROM Meal m " +
-           "WHERE m.userUniqueCode = :userUniqueCode AND m.mealDate BETWEEN :startDate AND :endDate " +
-           "GROUP BY m.mealDate ORDER BY m.mealDate")
-    List<Object[]> getDailyCaloriesSummary(@Param("userUniqueCode") String userUniqueCode, 
-                                            @Param("startDate") LocalDate startDate, 
-                                            @Param("endDate") LocalDate endDate);
+    // 특정 사용자의 전체 식사 스트리밍 조회 (내보내기용, MySQL 행 단위 스트리밍)
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.fetchSize", value = "" + Integer.MIN_VALUE),
+        @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("SELECT m FROM Meal m WHERE m.userUniqueCode = :userUniqueCode ORDER BY m.mealDate, m.mealTime, m.id")
+    Stream<Meal> streamByUserUniqueCode(@Param("userUniqueCode") String userUniqueCode);
+    
+    // 음식명 부분 일치 검색 (검색 토큰보다 짧은 한 글자 검색어용, 유저 인덱스 범위)
+    @Query("SELECT m FROM Meal m WHERE m.userUniqueCode = :userUniqueCode " +
+           "AND (m.food1Name LIKE %:keyword% OR m.food2Name LIKE %:keyword% OR m.food3Name LIKE %:keyword%) " +
+           "ORDER BY m.mealDate DESC, m.mealTime DESC")
+    Page<Meal> searchByFoodNameLike(@Param("userUniqueCode") String userUniqueCode,
+                                    @Param("keyword") String keyword,
+                                    Pageable pageable);
+    
+    // 식사 기록이 있는 전체 유저 코드 (집계 재구성용)
+    @Query("SELECT DISTINCT m.userUniqueCode FROM Meal m ORDER BY m.userUniqueCode")
+    List<String> findDistinctUserUniqueCodes();
+    
+    // 회원 정리용 배치 삭제 (긴 잠금을 피하도록 LIMIT 단위)
+    @Modifying
+    @Query(value = "DELETE FROM meals WHERE user_unique_code = :userUniqueCode LIMIT :batchSize", nativeQuery = true)
+    int deleteBatchByUserUniqueCode(@Param("userUniqueCode") String userUniqueCode, @Param("batchSize") int batchSize);
 }
-
@@ -0,0 +1,23 @@
+package com.example.backendspring.repository;
+
+import com.example.backendspring.entity.MealSearchToken;
+import com.example.backendspring.entity.MealSearchTokenId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface MealSearchTokenRepository extends JpaRepository<MealSearchToken, MealSearchTokenId> {
+    
+    // 식사 하나의 토큰 제거 (수정/삭제 시)
+    @Modifying
+    @Query(value = "DELETE FROM meal_search_tokens WHERE meal_id = :mealId", nativeQuery = true)
+    int deleteByMealId(@Param("mealId") Long mealId);
+    
+    // 회원 정리용 배치 삭제 (긴 잠금을 피하도록 LIMIT 단위)
+    @Modifying
+    @Query(value = "DELETE FROM meal_search_tokens WHERE user_unique_code = :userUniqueCode LIMIT :batchSize", nativeQuery = true)
+    int deleteBatchByUserUniqueCode(@Param("userUniqueCode") String userUniqueCode, @Param("batchSize") int batchSize);
+}
@@ -0,0 +1,63 @@
+package com.example.backendspring.repository;
+
+import com.example.backendspring.entity.SketchCheckpoint;
+import com.example.backendspring.entity.SketchCheckpointId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SketchCheckpointRepository extends JpaRepository<SketchCheckpoint, SketchCheckpointId> {
+    
+    // 특정 서버의 체크포인트 조회 (재시작 복구)
+    List<SketchCheckpoint> findByIdSketchNameAndIdNodeId(String sketchName, String nodeId);
+    
+    // 여러 구간의 전체 서버 체크포인트 조회 (서버 간 병합)
+    List<SketchCheckpoint> findByIdSketchNameAndIdWindowKeyIn(String sketchName, Collection<String> windowKeys);
+    
+    // 체크포인트 저장 (서버/구간별 덮어쓰기)
+    @Modifying
+    @Query(value = "INSERT INTO sketch_checkpoints (sketch_name, node_id, window_key, payload, updated_at) " +
+                   "VALUES (:sketchName, :nodeId, :windowKey, :payload, :updatedAt) " +
+                   "ON DUPLICATE KEY UPDATE payload = VALUES(payload), updated_at = VALUES(updated_at)",
+           nativeQuery = true)
+    int upsert(@Param("sketchName") String sketchName,
+               @Param("nodeId") String nodeId,
+               @Param("windowKey") String windowKey,
+               @Param("payload") String payload,
+               @Param("updatedAt") LocalDateTime updatedAt);
+    
+    // 마지막 저장이 before보다 오래된 서버 ID (내려간 서버, HOSTNAME이 바뀐 이전 컨테이너)
+    @Query(value = "SELECT node_id FROM sketch_checkpoints " +
+                   "WHERE sketch_name = :sketchName AND node_id NOT IN (:excludedNodeIds) " +
+                   "GROUP BY node_id HAVING MAX(updated_at) < :before",
+           nativeQuery = true)
+    List<String> findStaleNodeIds(@Param("sketchName") String sketchName,
+                                  @Param("excludedNodeIds") Collection<String> excludedNodeIds,
+                                  @Param("before") LocalDateTime before);
+    
+    // 서버들의 체크포인트를 잠그고 최신 값으로 조회 (병합 행 갱신을 여러 서버가 동시에 하지 않도록)
+    @Query(value = "SELECT * FROM sketch_checkpoints WHERE sketch_name = :sketchName AND node_id IN (:nodeIds) FOR UPDATE",
+           nativeQuery = true)
+    List<SketchCheckpoint> lockByNodeIds(@Param("sketchName") String sketchName,
+                                         @Param("nodeIds") Collection<String> nodeIds);
+    
+    // 병합이 끝난 서버의 체크포인트 삭제
+    @Modifying
+    @Query(value = "DELETE FROM sketch_checkpoints WHERE sketch_name = :sketchName AND node_id IN (:nodeIds)",
+           nativeQuery = true)
+    int deleteByNodeIds(@Param("sketchName") String sketchName, @Param("nodeIds") Collection<String> nodeIds);
+    
+    // 보관 기간이 지난 날짜 구간 삭제 (날짜 키는 yyyy-MM-dd라 문자열 비교가 날짜 순서와 같음)
+    @Modifying
+    @Query(value = "DELETE FROM sketch_checkpoints " +
+                   "WHERE sketch_name = :sketchName AND window_key <> 'all' AND window_key < :oldestWindowKey",
+           nativeQuery = true)
+    int deleteExpired(@Param("sketchName") String sketchName, @Param("oldestWindowKey") String oldestWindowKey);
+}
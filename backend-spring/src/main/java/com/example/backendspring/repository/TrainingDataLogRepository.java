@@ -1,7 +1,11 @@
 package com.example.backendspring.repository;
 
 import com.example.backendspring.entity.TrainingDataLog;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -21,4 +25,18 @@ public interface TrainingDataLogRepository extends JpaRepository<TrainingDataLog
 
     // 최근 N개의 학습 데이터 조회 (관리자용)
     List<TrainingDataLog> findTop100ByOrderByCreatedAtDesc();
+
+    // 회원 정리용 배치 조회 (삭제할 로그와 참조 중인 이미지)
+    @Query("SELECT t.logId AS logId, t.imageSha256 AS imageSha256, t.imagePath AS imagePath " +
+           "FROM TrainingDataLog t WHERE t.userUniqueCode = :userUniqueCode")
+    List<TrainingImageRef> findImageRefsByUserUniqueCode(@Param("userUniqueCode") String userUniqueCode, Pageable pageable);
+
+    // 회원 정리용 배치 삭제
+    @Modifying
+    @Query("DELETE FROM TrainingDataLog t WHERE t.logId IN :logIds")
+    int deleteByLogIdIn(@Param("logIds") List<Long> logIds);
+
+    // 내용 주소 이미지를 참조하는 로그 수 (0이면 파일 삭제 가능)
+    @Query("SELECT COUNT(t) FROM TrainingDataLog t WHERE t.imageSha256 = :imageSha256 AND t.imagePath = :imagePath")
+    long countImageReferences(@Param("imageSha256") String imageSha256, @Param("imagePath") String imagePath);
 }
@@ -0,0 +1,13 @@
+package com.example.backendspring.repository;
+
+/**
+ * 학습 데이터 로그가 참조하는 이미지 projection (회원 데이터 정리용)
+ */
+public interface TrainingImageRef {
+
+    Long getLogId();
+
+    String getImageSha256();
+
+    String getImagePath();
+}
@@ -0,0 +1,11 @@
+package com.example.backendspring.repository;
+
+/**
+ * 유저 고유 코드별 데이터 버전 projection (실시간 스트림의 다른 서버 변경 감지용)
+ */
+public interface UserDataVersion {
+    
+    String getUniqueCode();
+    
+    Long getDataVersion();
+}
@@ -0,0 +1,52 @@
+package com.example.backendspring.repository;
+
+import com.example.backendspring.entity.UserFoodStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface UserFoodStatRepository extends JpaRepository<UserFoodStat, Long> {
+    
+    // 최근 기록한 음식 조회
+    List<UserFoodStat> findTop50ByUserUniqueCodeOrderByLastUsedAtDesc(String userUniqueCode);
+    
+    // 즐겨찾기 음식 조회
+    List<UserFoodStat> findByUserUniqueCodeAndFavoriteTrue(String userUniqueCode);
+    
+    // 기록 횟수/마지막 기록 누적 (다른 서버의 누적분과 합산되도록 증분 upsert)
+    @Modifying
+    @Query(value = "INSERT INTO user_food_stats (user_unique_code, food_name, calories, use_count, favorite, last_used_at) " +
+                   "VALUES (:userUniqueCode, :foodName, :calories, :useCount, FALSE, :lastUsedAt) " +
+                   "ON DUPLICATE KEY UPDATE " +
+                   "calories = IF(VALUES(last_used_at) >= last_used_at OR last_used_at IS NULL, VALUES(calories), calories), " +
+                   "use_count = use_count + VALUES(use_count), " +
+                   "last_used_at = GREATEST(COALESCE(last_used_at, VALUES(last_used_at)), VALUES(last_used_at))",
+           nativeQuery = true)
+    int upsertUsage(@Param("userUniqueCode") String userUniqueCode,
+                    @Param("foodName") String foodName,
+                    @Param("calories") Integer calories,
+                    @Param("useCount") int useCount,
+                    @Param("lastUsedAt") LocalDateTime lastUsedAt);
+    
+    // 즐겨찾기 설정/해제
+    @Modifying
+    @Query(value = "INSERT INTO user_food_stats (user_unique_code, food_name, calories, use_count, favorite, last_used_at) " +
+                   "VALUES (:userUniqueCode, :foodName, :calories, 0, :favorite, NULL) " +
+                   "ON DUPLICATE KEY UPDATE favorite = VALUES(favorite), calories = COALESCE(VALUES(calories), calories)",
+           nativeQuery = true)
+    int upsertFavorite(@Param("userUniqueCode") String userUniqueCode,
+                       @Param("foodName") String foodName,
+                       @Param("calories") Integer calories,
+                       @Param("favorite") boolean favorite);
+
+    // 회원 정리용 배치 삭제 (긴 잠금을 피하도록 LIMIT 단위)
+    @Modifying
+    @Query(value = "DELETE FROM user_food_stats WHERE user_unique_code = :userUniqueCode LIMIT :batchSize", nativeQuery = true)
+    int deleteBatchByUserUniqueCode(@Param("userUniqueCode") String userUniqueCode, @Param("batchSize") int batchSize);
+}
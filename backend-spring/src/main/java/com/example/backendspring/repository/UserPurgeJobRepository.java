@@ -0,0 +1,36 @@
+package com.example.backendspring.repository;
+
+import com.example.backendspring.entity.UserPurgeJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface UserPurgeJobRepository extends JpaRepository<UserPurgeJob, Long> {
+    
+    // 실행할 작업 (등록 후 시작 지연이 지난 대기 작업이거나, 실행 중이지만 하트비트가 끊긴 작업)
+    @Query("SELECT j.id FROM UserPurgeJob j WHERE (j.status = :pending AND j.createdAt < :readyBefore) " +
+           "OR (j.status = :running AND (j.heartbeatAt < :staleBefore OR j.ownerNode = :node)) ORDER BY j.id")
+    List<Long> findRunnableIds(@Param("pending") UserPurgeJob.Status pending,
+                               @Param("running") UserPurgeJob.Status running,
+                               @Param("readyBefore") LocalDateTime readyBefore,
+                               @Param("staleBefore") LocalDateTime staleBefore,
+                               @Param("node") String node);
+    
+    // 작업 선점 (다른 서버가 먼저 가져갔으면 0)
+    @Modifying
+    @Query("UPDATE UserPurgeJob j SET j.status = :running, j.ownerNode = :node, j.heartbeatAt = :now, " +
+           "j.attempts = j.attempts + 1 WHERE j.id = :id AND (j.status = :pending " +
+           "OR (j.status = :running AND (j.heartbeatAt < :staleBefore OR j.ownerNode = :node)))")
+    int claim(@Param("id") Long id,
+              @Param("pending") UserPurgeJob.Status pending,
+              @Param("running") UserPurgeJob.Status running,
+              @Param("node") String node,
+              @Param("now") LocalDateTime now,
+              @Param("staleBefore") LocalDateTime staleBefore);
+}
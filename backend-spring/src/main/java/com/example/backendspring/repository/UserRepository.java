@@ -1,9 +1,15 @@
 package com.example.backendspring.repository;
 
+import com.example.backendspring.dto.auth.UserSummary;
 import com.example.backendspring.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -16,5 +22,42 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmail(String email);
     
     boolean existsByUniqueCode(String uniqueCode);
+    
+    // 유저 데이터 버전 조회 (ETag 용)
+    @Query("SELECT u.dataVersion FROM User u WHERE u.uniqueCode = :uniqueCode")
+    Optional<Long> findDataVersionByUniqueCode(@Param("uniqueCode") String uniqueCode);
+    
+    // 여러 유저의 데이터 버전 조회 (삭제된 유저는 결과에 없음)
+    @Query("SELECT u.uniqueCode AS uniqueCode, u.dataVersion AS dataVersion FROM User u WHERE u.uniqueCode IN :uniqueCodes")
+    List<UserDataVersion> findDataVersionsByUniqueCodeIn(@Param("uniqueCodes") Collection<String> uniqueCodes);
+    
+    // 유저 데이터 버전 증가 (원자적)
+    @Modifying
+    @Query("UPDATE User u SET u.dataVersion = u.dataVersion + 1 WHERE u.uniqueCode = :uniqueCode")
+    int incrementDataVersion(@Param("uniqueCode") String uniqueCode);
+    
+    // 유저 요약 조회 (비밀번호 해시 등 나머지 컬럼은 읽지 않음)
+    @Query("SELECT new com.example.backendspring.dto.auth.UserSummary(u.id, u.uniqueCode, u.name, u.dailyCalorieGoal, u.goalVersion) " +
+           "FROM User u WHERE u.uniqueCode = :uniqueCode")
+    Optional<UserSummary> findSummaryByUniqueCode(@Param("uniqueCode") String uniqueCode);
+    
+    // 목표 칼로리 버전 조회
+    @Query("SELECT u.goalVersion FROM User u WHERE u.uniqueCode = :uniqueCode")
+    Optional<Long> findGoalVersionByUniqueCode(@Param("uniqueCode") String uniqueCode);
+    
+    // 목표 칼로리 변경 + 목표 버전 증가 (원자적, 유저 행을 읽지 않음)
+    @Modifying
+    @Query("UPDATE User u SET u.dailyCalorieGoal = :dailyCalorieGoal, u.goalVersion = u.goalVersion + 1, " +
+           "u.updatedAt = CURRENT_TIMESTAMP WHERE u.uniqueCode = :uniqueCode")
+    int updateDailyCalorieGoal(@Param("uniqueCode") String uniqueCode,
+                               @Param("dailyCalorieGoal") Integer dailyCalorieGoal);
+    
+    // 비밀번호 해시 교체 (읽은 뒤 다른 곳에서 바뀌었으면 0, 재해시가 재설정을 덮어쓰지 않도록)
+    @Modifying
+    @Query("UPDATE User u SET u.password = :newPassword, u.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE u.id = :id AND u.password = :oldPassword")
+    int replacePassword(@Param("id") Long id,
+                        @Param("oldPassword") String oldPassword,
+                        @Param("newPassword") String newPassword);
 }
 
@@ -0,0 +1,377 @@
+package com.example.backendspring.service;
+
+import com.example.backendspring.dto.admin.ActiveUsersResponse;
+import com.example.backendspring.dto.admin.FoodUsersResponse;
+import com.example.backendspring.entity.Meal;
+import com.example.backendspring.entity.SketchCheckpoint;
+import com.example.backendspring.entity.SketchCheckpointId;
+import com.example.backendspring.event.MealChangedEvent;
+import com.example.backendspring.repository.SketchCheckpointRepository;
+import com.example.backendspring.util.HyperLogLog;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 활성 회원 수(DAU/WAU/MAU)와 음식별 고유 회원 수 추정
+ *
+ * 식사 생성 커밋마다 유저 코드를 HyperLogLog에 넣습니다.
+ * - active-users: 날짜별 스케치, 서버별로 sketch_checkpoints에 날짜 단위 저장
+ * - food-users: 음식별 전체 기간 스케치 (추적 음식 수 상한 있음)
+ * 레지스터 최댓값 병합은 멱등이므로 체크포인트는 저장된 값과 병합 후 덮어쓰고,
+ * 구간 조회는 모든 서버의 날짜별 스케치를 병합해 COUNT(DISTINCT) 스캔 없이 계산합니다.
+ * stale-node-days 동안 저장이 없는 서버(내려간 서버, node-id가 바뀐 이전 컨테이너)의 행은
+ * 병합 행(node_id = merged)으로 합칩니다 (멱등 병합이라 그 서버가 다시 저장해도 중복 집계 없음).
+ */
+@Slf4j
+@Service
+public class ActiveUserService {
+
+    private static final String ACTIVE_USERS_SKETCH = "active-users";
+    private static final String FOOD_USERS_SKETCH = "food-users";
+    private static final String ALL_TIME_KEY = "all";
+    private static final int MAX_RANGE_DAYS = 366;
+    private static final String MERGED_NODE_ID = "merged";
+
+    private final SketchCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final String nodeId;
+    private final int precision;
+    private final int foodPrecision;
+    private final int maxTrackedFoods;
+    private final int retainedDays;
+    private final int staleNodeDays;
+
+    // 아래 상태는 모두 this로 동기화 (체크포인트 전까지의 이 서버 누적분)
+    private final TreeMap<LocalDate, HyperLogLog> pendingDays = new TreeMap<>();
+    private final Map<String, HyperLogLog> pendingFoods = new HashMap<>();
+    private final Set<String> trackedFoods = new LinkedHashSet<>();
+
+    private final AtomicLong dailyActiveUsers = new AtomicLong();
+    private final AtomicLong weeklyActiveUsers = new AtomicLong();
+    private final AtomicLong monthlyActiveUsers = new AtomicLong();
+
+    public ActiveUserService(SketchCheckpointRepository checkpointRepository,
+                             PlatformTransactionManager transactionManager,
+                             ObjectMapper objectMapper,
+                             ObjectProvider<MeterRegistry> meterRegistryProvider,
+                             @Value("${app.node-id:local}") String nodeId,
+                             @Value("${active-users.precision:14}") int precision,
+                             @Value("${active-users.food-precision:10}") int foodPrecision,
+                             @Value("${active-users.max-tracked-foods:2000}") int maxTrackedFoods,
+                             @Value("${active-users.retained-days:400}") int retainedDays,
+                             @Value("${active-users.stale-node-days:3}") int staleNodeDays) {
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.nodeId = nodeId;
+        this.precision = precision;
+        this.foodPrecision = foodPrecision;
+        this.maxTrackedFoods = maxTrackedFoods;
+        this.retainedDays = retainedDays;
+        this.staleNodeDays = staleNodeDays;
+
+        meterRegistryProvider.ifAvailable(registry -> {
+            Gauge.builder("active.users", dailyActiveUsers, AtomicLong::get).tag("window", "day").register(registry);
+            Gauge.builder("active.users", weeklyActiveUsers, AtomicLong::get).tag("window", "week").register(registry);
+            Gauge.builder("active.users", monthlyActiveUsers, AtomicLong::get).tag("window", "month").register(registry);
+        });
+    }
+
+    /**
+     * 식사 생성 커밋 후 유저/음식 반영
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onMealChanged(MealChangedEvent event) {
+        if (event.getChangeType() != MealChangedEvent.ChangeType.CREATED) {
+            return;
+        }
+        String userUniqueCode = event.getUserUniqueCode();
+        Meal meal = event.getCurrent();
+        LocalDate today = LocalDate.now();
+
+        synchronized (this) {
+            pendingDays.computeIfAbsent(today, date -> new HyperLogLog(precision)).offer(userUniqueCode);
+            for (String food : new String[]{meal.getFood1Name(), meal.getFood2Name(), meal.getFood3Name()}) {
+                if (food == null || food.isBlank()) {
+                    continue;
+                }
+                String foodName = food.trim();
+                if (!trackedFoods.contains(foodName) && trackedFoods.size() >= maxTrackedFoods) {
+                    continue; // 추적 음식 수 상한 (메모리 고정)
+                }
+                trackedFoods.add(foodName);
+                pendingFoods.computeIfAbsent(foodName, name -> new HyperLogLog(foodPrecision)).offer(userUniqueCode);
+            }
+        }
+    }
+
+    /**
+     * 기준일의 DAU/WAU/MAU, from/to가 있으면 해당 구간 고유 회원 수도 함께
+     */
+    public ActiveUsersResponse getActiveUsers(LocalDate date, LocalDate from, LocalDate to) {
+        ActiveUsersResponse.ActiveUsersResponseBuilder builder = ActiveUsersResponse.builder()
+                .date(date)
+                .dailyActiveUsers(countDistinctUsers(date, date))
+                .weeklyActiveUsers(countDistinctUsers(date.minusDays(6), date))
+                .monthlyActiveUsers(countDistinctUsers(date.minusDays(29), date));
+        if (from != null && to != null) {
+            builder.from(from).to(to).rangeActiveUsers(countDistinctUsers(from, to));
+        }
+        return builder.build();
+    }
+
+    /**
+     * 구간 [from, to]에 식사를 기록한 고유 회원 수 (모든 서버의 날짜별 스케치 병합)
+     */
+    public long countDistinctUsers(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("시작일이 종료일보다 늦을 수 없습니다");
+        }
+        if (ChronoUnit.DAYS.between(from, to) + 1 > MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("조회 기간은 최대 366일입니다");
+        }
+
+        List<String> windowKeys = new ArrayList<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            windowKeys.add(day.toString());
+        }
+
+        HyperLogLog merged = new HyperLogLog(precision);
+        synchronized (this) {
+            pendingDays.subMap(from, true, to, true).values().forEach(merged::merge);
+        }
+        for (SketchCheckpoint checkpoint : checkpointRepository.findByIdSketchNameAndIdWindowKeyIn(ACTIVE_USERS_SKETCH, windowKeys)) {
+            merged.merge(HyperLogLog.fromBase64(precision, checkpoint.getPayload()));
+        }
+        return merged.estimate();
+    }
+
+    /**
+     * 음식별 고유 회원 수 상위 limit개
+     */
+    public List<FoodUsersResponse> getFoodUsers(int limit) {
+        if (limit < 1 || limit > maxTrackedFoods) {
+            throw new IllegalArgumentException("limit은 1 이상 " + maxTrackedFoods + " 이하여야 합니다");
+        }
+
+        Map<String, HyperLogLog> merged = new HashMap<>();
+        synchronized (this) {
+            pendingFoods.forEach((food, sketch) -> merged.put(food, sketch.copy()));
+        }
+        for (SketchCheckpoint checkpoint : checkpointRepository.findByIdSketchNameAndIdWindowKeyIn(
+                FOOD_USERS_SKETCH, List.of(ALL_TIME_KEY))) {
+            decodeFoods(checkpoint.getPayload()).forEach((food, sketch) ->
+                    merged.merge(food, sketch, (current, loaded) -> {
+                        current.merge(loaded);
+                        return current;
+                    }));
+        }
+
+        return merged.entrySet().stream()
+                .map(entry -> new FoodUsersResponse(entry.getKey(), entry.getValue().estimate()))
+                .sorted(Comparator.comparingLong(FoodUsersResponse::getDistinctUsers).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * 이 서버 누적분을 저장된 체크포인트와 병합해 저장 (레지스터 최댓값 병합이라 재시도해도 안전)
+     */
+    @Scheduled(fixedDelayString = "${active-users.checkpoint-ms:60000}")
+    public void checkpoint() {
+        Map<LocalDate, HyperLogLog> days;
+        Map<String, HyperLogLog> foods;
+        synchronized (this) {
+            days = new TreeMap<>(pendingDays);
+            foods = new HashMap<>(pendingFoods);
+            pendingDays.clear();
+            pendingFoods.clear();
+        }
+        if (days.isEmpty() && foods.isEmpty()) {
+            return;
+        }
+
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            transactionTemplate.executeWithoutResult(status -> {
+                days.forEach((day, sketch) -> {
+                    HyperLogLog stored = loadOwn(ACTIVE_USERS_SKETCH, day.toString())
+                            .map(payload -> HyperLogLog.fromBase64(precision, payload))
+                            .orElseGet(() -> new HyperLogLog(precision));
+                    stored.merge(sketch);
+                    checkpointRepository.upsert(ACTIVE_USERS_SKETCH, nodeId, day.toString(), stored.toBase64(), now);
+                });
+                if (!foods.isEmpty()) {
+                    Map<String, HyperLogLog> stored = loadOwn(FOOD_USERS_SKETCH, ALL_TIME_KEY)
+                            .map(this::decodeFoods)
+                            .orElseGet(HashMap::new);
+                    foods.forEach((food, sketch) -> stored.merge(food, sketch, (current, added) -> {
+                        current.merge(added);
+                        return current;
+                    }));
+                    checkpointRepository.upsert(FOOD_USERS_SKETCH, nodeId, ALL_TIME_KEY, encodeFoods(stored), now);
+                }
+                checkpointRepository.deleteExpired(ACTIVE_USERS_SKETCH, LocalDate.now().minusDays(retainedDays).toString());
+            });
+        } catch (Exception e) {
+            // 저장 실패분은 다시 대기열로 (병합이 멱등이라 중복 반영되어도 안전)
+            synchronized (this) {
+                days.forEach((day, sketch) -> pendingDays.merge(day, sketch, (current, failed) -> {
+                    current.merge(failed);
+                    return current;
+                }));
+                foods.forEach((food, sketch) -> pendingFoods.merge(food, sketch, (current, failed) -> {
+                    current.merge(failed);
+                    return current;
+                }));
+            }
+            log.warn("활성 회원 스케치 체크포인트 저장 실패: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * DAU/WAU/MAU 게이지 갱신 (게이지 조회마다 DB를 읽지 않도록 주기적으로 계산)
+     */
+    @Scheduled(fixedDelayString = "${active-users.metrics-refresh-ms:300000}", initialDelay = 60000)
+    public void refreshMetrics() {
+        try {
+            LocalDate today = LocalDate.now();
+            dailyActiveUsers.set(countDistinctUsers(today, today));
+            weeklyActiveUsers.set(countDistinctUsers(today.minusDays(6), today));
+            monthlyActiveUsers.set(countDistinctUsers(today.minusDays(29), today));
+        } catch (Exception e) {
+            log.warn("활성 회원 지표 갱신 실패: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 오래 저장하지 않은 서버의 체크포인트를 병합 행으로 합침 (대상 행을 잠가 병합 행 갱신이 겹치지 않게 함)
+     */
+    @Scheduled(fixedDelayString = "${active-users.fold-stale-ms:3600000}", initialDelay = 300000)
+    public void foldStaleNodes() {
+        for (String sketchName : List.of(ACTIVE_USERS_SKETCH, FOOD_USERS_SKETCH)) {
+            try {
+                Set<String> folded = foldStaleNodes(sketchName, LocalDateTime.now().minusDays(staleNodeDays));
+                if (!folded.isEmpty()) {
+                    log.info("{} 스케치 - 저장이 멈춘 서버 {} 체크포인트를 병합 행으로 합침", sketchName, folded);
+                }
+            } catch (Exception e) {
+                log.warn("{} 스케치 병합 행 정리 실패: {}", sketchName, e.getMessage());
+            }
+        }
+    }
+
+    private Set<String> foldStaleNodes(String sketchName, LocalDateTime before) {
+        List<String> staleNodeIds = checkpointRepository.findStaleNodeIds(sketchName,
+                List.of(nodeId, MERGED_NODE_ID), before);
+        if (staleNodeIds.isEmpty()) {
+            return Set.of();
+        }
+        List<String> lockedNodeIds = new ArrayList<>(staleNodeIds);
+        lockedNodeIds.add(MERGED_NODE_ID);
+
+        return transactionTemplate.execute(status -> {
+            List<SketchCheckpoint> rows = checkpointRepository.lockByNodeIds(sketchName, lockedNodeIds);
+            // 조회 후 다시 저장한 서버(재시작 등)는 제외
+            Map<String, LocalDateTime> lastSaved = new HashMap<>();
+            rows.forEach(row -> lastSaved.merge(row.getId().getNodeId(), row.getUpdatedAt(),
+                    (current, other) -> current.isAfter(other) ? current : other));
+            Set<String> folding = new LinkedHashSet<>();
+            for (String staleNodeId : staleNodeIds) {
+                LocalDateTime saved = lastSaved.get(staleNodeId);
+                if (saved != null && saved.isBefore(before)) {
+                    folding.add(staleNodeId);
+                }
+            }
+            if (folding.isEmpty()) {
+                return folding;
+            }
+
+            Map<String, String> merged = new HashMap<>();
+            for (SketchCheckpoint row : rows) {
+                String rowNodeId = row.getId().getNodeId();
+                if (MERGED_NODE_ID.equals(rowNodeId) || folding.contains(rowNodeId)) {
+                    merged.merge(row.getId().getWindowKey(), row.getPayload(),
+                            (current, other) -> mergePayloads(sketchName, current, other));
+                }
+            }
+            LocalDateTime now = LocalDateTime.now();
+            merged.forEach((key, payload) -> checkpointRepository.upsert(sketchName, MERGED_NODE_ID, key, payload, now));
+            checkpointRepository.deleteByNodeIds(sketchName, folding);
+            return folding;
+        });
+    }
+
+    private String mergePayloads(String sketchName, String payload, String other) {
+        if (ACTIVE_USERS_SKETCH.equals(sketchName)) {
+            HyperLogLog sketch = HyperLogLog.fromBase64(precision, payload);
+            sketch.merge(HyperLogLog.fromBase64(precision, other));
+            return sketch.toBase64();
+        }
+        Map<String, HyperLogLog> foods = decodeFoods(payload);
+        decodeFoods(other).forEach((food, sketch) -> foods.merge(food, sketch, (current, added) -> {
+            current.merge(added);
+            return current;
+        }));
+        return encodeFoods(foods);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        checkpoint();
+    }
+
+    private Optional<String> loadOwn(String sketchName, String windowKey) {
+        return checkpointRepository.findById(new SketchCheckpointId(sketchName, nodeId, windowKey))
+                .map(SketchCheckpoint::getPayload);
+    }
+
+    private String encodeFoods(Map<String, HyperLogLog> foods) {
+        Map<String, String> encoded = new HashMap<>();
+        foods.forEach((food, sketch) -> encoded.put(food, sketch.toBase64()));
+        try {
+            return objectMapper.writeValueAsString(encoded);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("스케치 직렬화 실패", e);
+        }
+    }
+
+    private Map<String, HyperLogLog> decodeFoods(String payload) {
+        try {
+            Map<String, String> encoded = objectMapper.readValue(payload, new TypeReference<Map<String, String>>() { });
+            Map<String, HyperLogLog> foods = new HashMap<>();
+            encoded.forEach((food, registers) -> foods.put(food, HyperLogLog.fromBase64(foodPrecision, registers)));
+            return foods;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("스케치 역직렬화 실패", e);
+        }
+    }
+}
@@ -1,20 +1,32 @@
 package com.example.backendspring.service;
 
 import com.example.backendspring.dto.admin.AdminLoginRequest;
+import com.example.backendspring.dto.admin.ActiveUsersResponse;
 import com.example.backendspring.dto.admin.AdminLoginResponse;
-import com.example.backendspring.dto.admin.UserManagementResponse;
+import com.example.backendspring.dto.admin.CohortCalorieStatsResponse;
+import com.example.backendspring.dto.admin.FoodUsersResponse;
+import com.example.backendspring.dto.admin.TopFoodsResponse;
+import com.example.backendspring.dto.admin.TrainingExportResponse;
+import com.example.backendspring.dto.admin.UserPageResponse;
+import com.example.backendspring.dto.admin.UserPurgeJobResponse;
 import com.example.backendspring.entity.Admin;
 import com.example.backendspring.entity.User;
+import com.example.backendspring.event.UserDeletedEvent;
 import com.example.backendspring.repository.AdminRepository;
 import com.example.backendspring.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.WritableByteChannel;
+import java.time.LocalDate;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -23,7 +35,19 @@ public class AdminService {
 
     private final AdminRepository adminRepository;
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
+    private final DailyCalorieSummaryService dailyCalorieSummaryService;
+    private final UserDataVersionService userDataVersionService;
+    private final UserSummaryCache userSummaryCache;
+    private final UserDirectoryService userDirectoryService;
+    private final UserPurgeService userPurgeService;
+    private final TrainingDatasetExportService trainingDatasetExportService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CohortStatsService cohortStatsService;
+    private final FoodTrendService foodTrendService;
+    private final ActiveUserService activeUserService;
+    private final SessionTokenService sessionTokenService;
+    private final PlatformTransactionManager transactionManager;
 
     /**
      * 관리자 로그인
@@ -32,62 +56,149 @@ public class AdminService {
         Admin admin = adminRepository.findByUsername(request.getUsername())
                 .orElseThrow(() -> new IllegalArgumentException("관리자를 찾을 수 없습니다"));
 
-        if (!passwordEncoder.matches(request.getPassword(), admin.getPassword())) {
+        if (!passwordHashingService.matches(request.getPassword(), admin.getPassword())) {
             throw new IllegalArgumentException("비밀번호가 일치하지 않습니다");
         }
 
+        // 설정된 강도보다 약한 해시면 새 강도로 재해시
+        String rehashed = passwordHashingService.rehashIfNeeded(request.getPassword(), admin.getPassword());
+        if (rehashed != null) {
+            admin.setPassword(rehashed);
+            adminRepository.save(admin);
+        }
+
         log.info("관리자 로그인 성공: {}", admin.getUsername());
 
         return AdminLoginResponse.builder()
                 .adminId(admin.getId())
                 .username(admin.getUsername())
                 .message("로그인 성공")
+                .token(sessionTokenService.issueAdmin(admin))
                 .build();
     }
 
     /**
-     * 전체 회원 목록 조회
+     * 회원 목록 조회 (keyset 페이지네이션, 접두어 검색)
+     */
+    public UserPageResponse getUsers(String cursor, Integer limit, String query, String sort) {
+        return userDirectoryService.getUsers(cursor, limit, query, sort);
+    }
+
+    /**
+     * 회원 목록 내보내기 (스트리밍, 개인정보 일괄 조회이므로 요청한 관리자와 건수를 기록)
+     */
+    public long exportUsers(SessionTokenService.AdminPrincipal admin, String query,
+                            MealExportService.Format format, OutputStream out) throws IOException {
+        log.info("회원 목록 내보내기 시작: admin={}, q={}", admin.username(), query);
+        long exported = userDirectoryService.exportUsers(query, format, out);
+        log.info("회원 목록 내보내기 완료: admin={}, count={}", admin.username(), exported);
+        return exported;
+    }
+
+    /**
+     * 학습 데이터셋 샤드 계획 (HTTP로 샤드 하나를 내려받기 전 범위 확정)
      */
-    public List<UserManagementResponse> getAllUsers() {
-        List<User> users = userRepository.findAll();
-
-        return users.stream()
-                .map(user -> UserManagementResponse.builder()
-                        .userId(user.getId())
-                        .uniqueCode(user.getUniqueCode())
-                        .name(user.getName())
-                        .email(user.getEmail())
-                        .dailyCalorieGoal(user.getDailyCalorieGoal())
-                        .createdAt(user.getCreatedAt())
-                        .build())
-                .collect(Collectors.toList());
+    public TrainingDatasetExportService.ShardPlan planTrainingShard(long afterLogId, Long maxBytes, Integer maxSamples) {
+        return trainingDatasetExportService.planShard(afterLogId, maxBytes, maxSamples);
+    }
+
+    /**
+     * 학습 데이터셋 샤드 기록 (스트리밍)
+     */
+    public long writeTrainingShard(TrainingDatasetExportService.ShardPlan plan, WritableByteChannel out) throws IOException {
+        return trainingDatasetExportService.writeShard(plan, out);
+    }
+
+    /**
+     * 학습 데이터셋을 서버 디스크에 샤드로 내보내기 (이어서 내보내기 가능)
+     */
+    public TrainingExportResponse exportTrainingDataset(String name, Long afterLogId, Long maxBytes,
+                                                        Integer maxSamples, Integer maxShards) throws IOException {
+        return trainingDatasetExportService.exportToDisk(name, afterLogId, maxBytes, maxSamples, maxShards);
     }
 
     /**
      * 회원 비밀번호 재설정
+     *
+     * 해싱(전용 풀 대기 포함)을 먼저 하고, 저장만 짧은 트랜잭션으로 실행합니다.
      */
-    @Transactional
     public void resetUserPassword(Long userId, String newPassword) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new IllegalArgumentException("사용자를 찾을 수 없습니다"));
+        String encodedPassword = passwordHashingService.hash(newPassword);
 
-        user.setPassword(passwordEncoder.encode(newPassword));
-        userRepository.save(user);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            User user = userRepository.findById(userId)
+                    .orElseThrow(() -> new IllegalArgumentException("사용자를 찾을 수 없습니다"));
+            user.setPassword(encodedPassword);
+            userSummaryCache.invalidateAfterCommit(user.getUniqueCode());
+        });
 
         log.info("회원 비밀번호 재설정 완료: userId={}", userId);
     }
 
     /**
      * 회원 영구 삭제
+     *
+     * users 행을 삭제하고 식사/학습 데이터/이미지 정리 작업을 등록합니다 (정리는 커밋 후 백그라운드에서 진행).
+     *
+     * @return 정리 작업 ID (진행 상황 조회용)
      */
     @Transactional
-    public void deleteUser(Long userId) {
+    public Long deleteUser(Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new IllegalArgumentException("사용자를 찾을 수 없습니다"));
 
         userRepository.delete(user);
+        Long purgeJobId = userPurgeService.enqueue(user.getId(), user.getUniqueCode());
+        userDataVersionService.evict(user.getUniqueCode());
+        userSummaryCache.invalidateAfterCommit(user.getUniqueCode());
+        eventPublisher.publishEvent(new UserDeletedEvent(user.getId(), user.getUniqueCode(), purgeJobId));
+
+        log.info("회원 영구 삭제 완료: userId={}, uniqueCode={}, 정리 작업={}", userId, user.getUniqueCode(), purgeJobId);
+        return purgeJobId;
+    }
+
+    /**
+     * 회원 데이터 정리 작업 진행 상황
+     */
+    public UserPurgeJobResponse getPurgeJob(Long jobId) {
+        return userPurgeService.getJob(jobId);
+    }
+
+    /**
+     * 일일 칼로리 집계 재구성 (식사 원본 기준 정합성 복구)
+     *
+     * @return 재구성한 유저 수
+     */
+    public int rebuildDailyCalorieSummaries() {
+        return dailyCalorieSummaryService.rebuildAll();
+    }
 
-        log.info("회원 영구 삭제 완료: userId={}, uniqueCode={}", userId, user.getUniqueCode());
+    /**
+     * 전체 회원 칼로리 통계 (기간별, 짧은 TTL 캐시)
+     */
+    public CohortCalorieStatsResponse getCohortCalorieStats(LocalDate from, LocalDate to) {
+        return cohortStatsService.getStats(from, to);
+    }
+
+    /**
+     * 가장 많이 기록된 음식 (일/주/전체 기간)
+     */
+    public TopFoodsResponse getTopFoods(FoodTrendService.Window window, LocalDate date, int limit) {
+        return foodTrendService.getTopFoods(window, date, limit);
+    }
+
+    /**
+     * 식사를 기록한 활성 회원 수 (DAU/WAU/MAU, 선택 구간)
+     */
+    public ActiveUsersResponse getActiveUsers(LocalDate date, LocalDate from, LocalDate to) {
+        return activeUserService.getActiveUsers(date, from, to);
+    }
+
+    /**
+     * 음식별 기록한 고유 회원 수
+     */
+    public List<FoodUsersResponse> getFoodUsers(int limit) {
+        return activeUserService.getFoodUsers(limit);
     }
 
     /**
@@ -106,7 +217,7 @@ public class AdminService {
         if (!adminRepository.existsByUsername(adminUsername)) {
             Admin admin = Admin.builder()
                     .username(adminUsername)
-                    .password(passwordEncoder.encode(adminPassword))
+                    .password(passwordHashingService.hash(adminPassword))
                     .build();
 
             adminRepository.save(admin);
@@ -3,13 +3,22 @@ package com.example.backendspring.service;
 import com.example.backendspring.dto.auth.AuthResponse;
 import com.example.backendspring.dto.auth.LoginRequest;
 import com.example.backendspring.dto.auth.SignUpRequest;
+import com.example.backendspring.dto.auth.UserSummary;
 import com.example.backendspring.entity.User;
+import com.example.backendspring.event.UserGoalChangedEvent;
 import com.example.backendspring.repository.UserRepository;
 import com.example.backendspring.util.UniqueCodeGenerator;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Service
 @RequiredArgsConstructor
@@ -17,32 +26,62 @@ import org.springframework.transaction.annotation.Transactional;
 public class AuthService {
     
     private final UserRepository userRepository;
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final UserDataVersionService userDataVersionService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PasswordHashingService passwordHashingService;
+    private final SessionTokenService sessionTokenService;
+    private final UniqueCodeGenerator uniqueCodeGenerator;
+    private final RegisteredEmailFilter registeredEmailFilter;
+    private final UserSummaryCache userSummaryCache;
+    private final PlatformTransactionManager transactionManager;
     
-    @Transactional
+    private static final String DUPLICATE_EMAIL_MESSAGE = "이미 사용 중인 이메일입니다";
+    private static final Pattern DUPLICATE_KEY_PATTERN = Pattern.compile("for key '([^']+)'");
+    private static final int MAX_SIGNUP_ATTEMPTS = 3;
+    
+    /**
+     * 회원가입
+     *
+     * 트랜잭션 없이 INSERT 한 번으로 가입하고, 이메일/고유 코드 중복은 유니크 제약 위반으로 판별합니다.
+     * (동시 가입 경쟁도 제약이 막음) 이메일 블룸 필터에 없는 이메일은 사전 중복 확인 쿼리를 생략합니다.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AuthResponse signUp(SignUpRequest request) {
-        // 이메일 중복 체크
-        if (userRepository.existsByEmail(request.getEmail())) {
-            throw new IllegalArgumentException("이미 사용 중인 이메일입니다");
+        // 가입되었을 수 있는 이메일만 DB에서 미리 확인 (비밀번호 해싱 전에 명백한 중복 거절)
+        if (registeredEmailFilter.mightBeRegistered(request.getEmail())
+                && userRepository.existsByEmail(request.getEmail())) {
+            throw new IllegalArgumentException(DUPLICATE_EMAIL_MESSAGE);
         }
         
-        // 유저 고유 코드 생성 (중복 체크)
-        String uniqueCode = generateUniqueCode();
-        
         // 비밀번호 암호화
-        String encodedPassword = passwordEncoder.encode(request.getPassword());
-        
-        // 사용자 생성
-        User user = User.builder()
-                .uniqueCode(uniqueCode)
-                .name(request.getName())
-                .email(request.getEmail())
-                .password(encodedPassword)
-                .dailyCalorieGoal(request.getDailyCalorieGoal() != null ? 
-                        request.getDailyCalorieGoal() : 2000) // 기본값 2000kcal
-                .build();
+        String encodedPassword = passwordHashingService.hash(request.getPassword());
         
-        User savedUser = userRepository.save(user);
+        User savedUser = null;
+        for (int attempt = 1; savedUser == null; attempt++) {
+            // 사용자 생성 (고유 코드는 생성 방식상 유일하므로 중복 체크 쿼리 없음)
+            User user = User.builder()
+                    .uniqueCode(uniqueCodeGenerator.generate())
+                    .name(request.getName())
+                    .email(request.getEmail())
+                    .password(encodedPassword)
+                    .dailyCalorieGoal(request.getDailyCalorieGoal() != null ? 
+                            request.getDailyCalorieGoal() : 2000) // 기본값 2000kcal
+                    .build();
+            try {
+                savedUser = userRepository.save(user);
+            } catch (DataIntegrityViolationException e) {
+                if (isEmailConflict(e, request.getEmail())) {
+                    registeredEmailFilter.add(request.getEmail());
+                    throw new IllegalArgumentException(DUPLICATE_EMAIL_MESSAGE);
+                }
+                // 이전 방식(무작위)으로 발급된 코드와 겹친 경우에만 새 코드로 재시도
+                if (attempt >= MAX_SIGNUP_ATTEMPTS) {
+                    throw new RuntimeException("유저 고유 코드 생성 실패 (최대 시도 횟수 초과)", e);
+                }
+            }
+        }
+        registeredEmailFilter.add(savedUser.getEmail());
         
         return AuthResponse.builder()
                 .userId(savedUser.getId())
@@ -51,19 +90,55 @@ public class AuthService {
                 .email(savedUser.getEmail())
                 .dailyCalorieGoal(savedUser.getDailyCalorieGoal())
                 .message("회원가입이 완료되었습니다")
+                .token(sessionTokenService.issue(savedUser))
                 .build();
     }
     
+    /**
+     * 유니크 제약 위반이 이메일 때문인지 판별
+     * MySQL 메시지의 키 이름(idx_email/email, idx_unique_code/unique_code)으로 먼저 보고,
+     * ddl-auto가 만든 이름(UK...)처럼 알 수 없으면 primary에서 이메일 존재 여부로 확인
+     */
+    private boolean isEmailConflict(DataIntegrityViolationException e, String email) {
+        Matcher matcher = DUPLICATE_KEY_PATTERN.matcher(String.valueOf(e.getMostSpecificCause().getMessage()));
+        if (matcher.find()) {
+            String key = matcher.group(1);
+            if (key.contains("email")) {
+                return true;
+            }
+            if (key.contains("unique_code")) {
+                return false;
+            }
+        }
+        // readOnly가 아닌 트랜잭션이므로 primary로 라우팅 (방금 커밋된 다른 가입도 보임)
+        return Boolean.TRUE.equals(new TransactionTemplate(transactionManager)
+                .execute(status -> userRepository.existsByEmail(email)));
+    }
+    
+    /**
+     * 로그인
+     *
+     * BCrypt 검증은 전용 풀에서 대기할 수 있으므로 트랜잭션(DB 커넥션)을 잡은 채로 기다리지 않습니다.
+     * 조회와 재해시 저장은 각각 짧은 트랜잭션으로 실행합니다.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AuthResponse login(LoginRequest request) {
-        // 사용자 조회
-        User user = userRepository.findByEmail(request.getEmail())
+        // 가입 직후 로그인이 복제 지연으로 실패하지 않도록 primary에서 조회 (readOnly가 아닌 트랜잭션)
+        TransactionTemplate primary = new TransactionTemplate(transactionManager);
+        User user = primary.execute(status -> userRepository.findByEmail(request.getEmail()))
                 .orElseThrow(() -> new IllegalArgumentException("이메일 또는 비밀번호가 올바르지 않습니다"));
         
-        // 비밀번호 확인
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        // 비밀번호 확인 (커넥션 반납 후)
+        if (!passwordHashingService.matches(request.getPassword(), user.getPassword())) {
             throw new IllegalArgumentException("이메일 또는 비밀번호가 올바르지 않습니다");
         }
         
+        // 설정된 강도보다 약한 해시면 새 강도로 재해시 (그 사이 비밀번호가 바뀌었으면 저장하지 않음)
+        String rehashed = passwordHashingService.rehashIfNeeded(request.getPassword(), user.getPassword());
+        if (rehashed != null) {
+            primary.execute(status -> userRepository.replacePassword(user.getId(), user.getPassword(), rehashed));
+        }
+        
         return AuthResponse.builder()
                 .userId(user.getId())
                 .uniqueCode(user.getUniqueCode())
@@ -71,6 +146,7 @@ public class AuthService {
                 .email(user.getEmail())
                 .dailyCalorieGoal(user.getDailyCalorieGoal())
                 .message("로그인에 성공했습니다")
+                .token(sessionTokenService.issue(user))
                 .build();
     }
     
@@ -84,30 +160,32 @@ public class AuthService {
                 .orElseThrow(() -> new IllegalArgumentException("사용자를 찾을 수 없습니다"));
     }
     
-    @Transactional
-    public void updateDailyCalorieGoal(String uniqueCode, Integer dailyCalorieGoal) {
-        User user = getUserByUniqueCode(uniqueCode);
-        user.setDailyCalorieGoal(dailyCalorieGoal);
-        userRepository.save(user);
+    /**
+     * 요청 처리용 유저 요약
+     *
+     * 세션 토큰의 목표 칼로리는 발급 시점 값이므로 쓰지 않고, 항상 유저 요약 캐시에서 조회합니다.
+     * 캐시는 revalidate 주기마다 goal_version을 확인하므로 다른 서버의 목표 변경/회원 삭제도 반영됩니다.
+     */
+    public UserSummary getUserSummary(String uniqueCode) {
+        return userSummaryCache.get(uniqueCode)
+                .orElseThrow(() -> new IllegalArgumentException("사용자를 찾을 수 없습니다"));
     }
     
     /**
-     * 중복되지 않는 유저 고유 코드 생성
+     * 목표 칼로리 변경 (새 목표 칼로리가 담긴 세션 토큰 반환)
      */
-    private String generateUniqueCode() {
-        String uniqueCode;
-        int attempts = 0;
-        int maxAttempts = 10;
-        
-        do {
-            uniqueCode = UniqueCodeGenerator.generate();
-            attempts++;
-            
-            if (attempts > maxAttempts) {
-                throw new RuntimeException("유저 고유 코드 생성 실패 (최대 시도 횟수 초과)");
-            }
-        } while (userRepository.existsByUniqueCode(uniqueCode));
+    @Transactional
+    public String updateDailyCalorieGoal(String uniqueCode, Integer dailyCalorieGoal) {
+        if (userRepository.updateDailyCalorieGoal(uniqueCode, dailyCalorieGoal) == 0) {
+            throw new IllegalArgumentException("사용자를 찾을 수 없습니다");
+        }
+        UserSummary updated = userRepository.findSummaryByUniqueCode(uniqueCode)
+                .orElseThrow(() -> new IllegalArgumentException("사용자를 찾을 수 없습니다"));
+        userDataVersionService.bump(uniqueCode);
+        readYourWritesTracker.markWrite(uniqueCode);
+        // 커밋 후 유저 요약 캐시 무효화, 세션 토큰 목표 버전 갱신
+        eventPublisher.publishEvent(new UserGoalChangedEvent(uniqueCode, dailyCalorieGoal, updated.getGoalVersion()));
         
-        return uniqueCode;
+        return sessionTokenService.issue(updated);
     }
 }
@@ -1,13 +1,16 @@
 package com.example.backendspring.service;
 
 import com.example.backendspring.dto.calorie.DailyCalorieResponse;
+import com.example.backendspring.dto.calorie.MonthlyCalorieDenseResponse;
 import com.example.backendspring.dto.calorie.MonthlyCalorieResponse;
 import com.example.backendspring.dto.meal.MealResponse;
-import com.example.backendspring.entity.User;
-import com.example.backendspring.repository.MealRepository;
-import lombok.RequiredArgsConstructor;
+import com.example.backendspring.dto.auth.UserSummary;
+import com.example.backendspring.repository.DailyCalorieTotal;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.time.YearMonth;
@@ -16,27 +19,51 @@ import java.util.List;
 import java.util.Map;
 
 @Service
-@RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class CalorieService {
     
-    private final MealRepository mealRepository;
     private final MealService mealService;
+    private final DailyCalorieSummaryService dailyCalorieSummaryService;
+    private final MonthlyCalorieCache monthlyCalorieCache;
     private final AuthService authService;
+    private final UserDataVersionService userDataVersionService;
+    private final TransactionTemplate readOnlyTemplate;
+    
+    public CalorieService(MealService mealService,
+                          DailyCalorieSummaryService dailyCalorieSummaryService,
+                          MonthlyCalorieCache monthlyCalorieCache,
+                          AuthService authService,
+                          UserDataVersionService userDataVersionService,
+                          PlatformTransactionManager transactionManager) {
+        this.mealService = mealService;
+        this.dailyCalorieSummaryService = dailyCalorieSummaryService;
+        this.monthlyCalorieCache = monthlyCalorieCache;
+        this.authService = authService;
+        this.userDataVersionService = userDataVersionService;
+        // 월 로딩은 data_version과 일별 합계를 한 트랜잭션(같은 스냅샷)에서 읽음
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+    }
     
     public DailyCalorieResponse getDailyCalories(String userUniqueCode, LocalDate date) {
-        User user = authService.getUserByUniqueCode(userUniqueCode);
+        UserSummary user = authService.getUserSummary(userUniqueCode);
         
         // 해당 날짜의 모든 식사 조회
         List<MealResponse> meals = mealService.getMealsByUserCodeAndDate(userUniqueCode, date);
         
+        return buildDailyResponse(date, user, meals);
+    }
+    
+    /**
+     * 유저와 식사 목록으로 일일 칼로리 응답 구성 (대시보드에서 병렬 조회 결과를 합칠 때도 사용)
+     */
+    DailyCalorieResponse buildDailyResponse(LocalDate date, UserSummary user, List<MealResponse> meals) {
         // 총 칼로리 계산
         int actualCalories = meals.stream()
                 .mapToInt(MealResponse::getTotalCalories)
                 .sum();
         
-        int targetCalories = user.getDailyCalorieGoal() != null ? 
-                user.getDailyCalorieGoal() : 2000;
+        int targetCalories = user.getTargetCalories();
         
         int exceededCalories = actualCalories - targetCalories;
         
@@ -49,32 +76,70 @@ public class CalorieService {
                 .build();
     }
     
+    // 캐시 적중 시 커넥션을 잡지 않도록 트랜잭션 없이 실행 (적중 판단 버전은 보통 메모리 값, 로딩은 자체 트랜잭션)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public MonthlyCalorieResponse getMonthlyCalories(String userUniqueCode, Integer year, Integer month) {
-        User user = authService.getUserByUniqueCode(userUniqueCode);
-        
-        // 해당 월의 시작일과 종료일 계산
         YearMonth yearMonth = YearMonth.of(year, month);
-        LocalDate startDate = yearMonth.atDay(1);
-        LocalDate endDate = yearMonth.atEndOfMonth();
-        
-        // 날짜별 칼로리 조회
-        List<Object[]> dailySummary = mealRepository.getDailyCaloriesSummary(userUniqueCode, startDate, endDate);
+        MonthlyCalorieCache.MonthCalendar calendar = monthlyCalorieCache.get(userUniqueCode, yearMonth,
+                userDataVersionService.versionForRead(userUniqueCode),
+                () -> loadMonthCalendar(userUniqueCode, yearMonth));
         
         Map<LocalDate, Integer> dailyCalories = new HashMap<>();
-        for (Object[] row : dailySummary) {
-            LocalDate date = (LocalDate) row[0];
-            Long calories = (Long) row[1];
-            dailyCalories.put(date, calories.intValue());
+        int[] calories = calendar.dailyCalories();
+        for (int day = 1; day <= calories.length; day++) {
+            if (calories[day - 1] != 0) {
+                dailyCalories.put(yearMonth.atDay(day), calories[day - 1]);
+            }
         }
         
-        int targetCalories = user.getDailyCalorieGoal() != null ? 
-                user.getDailyCalorieGoal() : 2000;
-        
         return MonthlyCalorieResponse.builder()
                 .year(year)
                 .month(month)
-                .targetCalories(targetCalories)
+                .targetCalories(calendar.targetCalories())
                 .dailyCalories(dailyCalories)
                 .build();
     }
+    
+    /**
+     * 월별 칼로리 조회 (dense 형식: 시작일 + 일수 길이의 int 배열)
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public MonthlyCalorieDenseResponse getMonthlyCaloriesDense(String userUniqueCode, Integer year, Integer month) {
+        YearMonth yearMonth = YearMonth.of(year, month);
+        MonthlyCalorieCache.MonthCalendar calendar = monthlyCalorieCache.get(userUniqueCode, yearMonth,
+                userDataVersionService.versionForRead(userUniqueCode),
+                () -> loadMonthCalendar(userUniqueCode, yearMonth));
+        
+        return MonthlyCalorieDenseResponse.builder()
+                .year(year)
+                .month(month)
+                .targetCalories(calendar.targetCalories())
+                .startDate(yearMonth.atDay(1))
+                .dailyCalories(calendar.dailyCalories().clone())
+                .build();
+    }
+    
+    /**
+     * 월 달력 로딩 (캐시 미스 시에만 호출)
+     * 일별 합계와 그 스냅샷의 data_version을 같은 readOnly 트랜잭션에서 읽습니다 (조회 API의 read() 안이면 그 트랜잭션에 참여).
+     */
+    private MonthlyCalorieCache.MonthCalendar loadMonthCalendar(String userUniqueCode, YearMonth yearMonth) {
+        UserSummary user = authService.getUserSummary(userUniqueCode);
+        
+        // 해당 월의 시작일과 종료일 계산
+        LocalDate startDate = yearMonth.atDay(1);
+        LocalDate endDate = yearMonth.atEndOfMonth();
+        
+        return readOnlyTemplate.execute(status -> {
+            long dataVersion = userDataVersionService.versionInTransaction(userUniqueCode);
+            
+            // 날짜별 칼로리 조회 (일일 집계 테이블 기본키 범위 스캔)
+            int[] dailyCalories = new int[yearMonth.lengthOfMonth()];
+            for (DailyCalorieTotal total : dailyCalorieSummaryService.getDailyTotals(userUniqueCode, startDate, endDate)) {
+                dailyCalories[total.getDate().getDayOfMonth() - 1] = total.getTotalCalories();
+            }
+            
+            return new MonthlyCalorieCache.MonthCalendar(dailyCalories, user.getTargetCalories(), dataVersion);
+        });
+    }
 }
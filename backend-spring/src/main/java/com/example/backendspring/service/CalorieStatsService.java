@@ -0,0 +1,222 @@
+package com.example.backendspring.service;
+
+import com.example.backendspring.dto.calorie.CalorieStatsPeriod;
+import com.example.backendspring.dto.calorie.CalorieStatsResponse;
+import com.example.backendspring.repository.DailyCalorieTotal;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 장기간 칼로리 통계 (주/월/연 단위 집계, 연속 기록, 이동 평균)
+ *
+ * 일일 집계 테이블에서 기간 전체를 한 번에 읽어 int[] 일별 시계열로 만든 뒤
+ * 한 번의 순회로 모든 지표를 계산합니다. 비용은 식사 수가 아니라 일수(연 366일 이하)에 비례합니다.
+ * 첫/마지막 기간은 조회 범위로 잘라서 보고하며(periodStart >= from, periodEnd <= to),
+ * 이동 평균은 기간마다 그 기간 마지막 날 기준 값을 담습니다. 첫 기간도 창이 차도록 from 이전 29일을 함께 읽습니다.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class CalorieStatsService {
+
+    private static final int MAX_RANGE_DAYS = 3660; // 약 10년
+    private static final int WARM_UP_DAYS = 29; // 30일 이동 평균 창을 채우기 위해 from 이전에 읽는 일수
+
+    private final DailyCalorieSummaryService dailyCalorieSummaryService;
+    private final AuthService authService;
+
+    public enum Granularity {
+        WEEK, MONTH, YEAR;
+
+        public static Granularity from(String value) {
+            try {
+                return Granularity.valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new IllegalArgumentException("지원하지 않는 집계 단위입니다: " + value);
+            }
+        }
+
+        private LocalDate periodStart(LocalDate date) {
+            return switch (this) {
+                case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                case MONTH -> date.withDayOfMonth(1);
+                case YEAR -> date.withDayOfYear(1);
+            };
+        }
+    }
+
+    public CalorieStatsResponse getStats(String userUniqueCode, LocalDate from, LocalDate to, Granularity granularity) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("시작일이 종료일보다 늦을 수 없습니다");
+        }
+        int days = (int) ChronoUnit.DAYS.between(from, to) + 1;
+        if (days > MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("조회 기간은 최대 10년입니다");
+        }
+
+        int goal = authService.getUserSummary(userUniqueCode).getTargetCalories();
+
+        // 일별 시계열 (기록 없는 날은 0, 앞의 WARM_UP_DAYS일은 이동 평균에만 사용)
+        LocalDate seriesStart = from.minusDays(WARM_UP_DAYS);
+        int[] series = new int[WARM_UP_DAYS + days];
+        boolean[] logged = new boolean[WARM_UP_DAYS + days];
+        for (DailyCalorieTotal daily : dailyCalorieSummaryService.getDailyTotals(userUniqueCode, seriesStart, to)) {
+            int index = (int) ChronoUnit.DAYS.between(seriesStart, daily.getDate());
+            series[index] = daily.getTotalCalories();
+            logged[index] = true;
+        }
+
+        List<CalorieStatsPeriod> periods = new ArrayList<>();
+        PeriodAccumulator period = null;
+
+        long total = 0;
+        int loggedDays = 0;
+        int daysOverGoal = 0;
+        int streak = 0;
+        int longestStreak = 0;
+        RollingWindow window7 = new RollingWindow(7);
+        RollingWindow window30 = new RollingWindow(30);
+
+        for (int i = 0; i < WARM_UP_DAYS; i++) {
+            window7.push(series[i], logged[i]);
+            window30.push(series[i], logged[i]);
+        }
+
+        for (int i = 0; i < days; i++) {
+            LocalDate date = from.plusDays(i);
+            LocalDate periodStart = granularity.periodStart(date);
+            if (period == null || !period.calendarStart.equals(periodStart)) {
+                if (period != null) {
+                    periods.add(period.toPeriod(date.minusDays(1), window7, window30));
+                }
+                // 첫 기간은 from부터
+                period = new PeriodAccumulator(periodStart, periodStart.isBefore(from) ? from : periodStart);
+            }
+
+            int calories = series[WARM_UP_DAYS + i];
+            boolean isLogged = logged[WARM_UP_DAYS + i];
+            boolean overGoal = isLogged && calories > goal;
+
+            if (isLogged) {
+                total += calories;
+                loggedDays++;
+                period.add(calories, overGoal);
+            }
+            if (overGoal) {
+                daysOverGoal++;
+            }
+
+            // 목표 이하로 기록한 날이 이어지는 동안만 연속 기록 유지
+            if (isLogged && !overGoal) {
+                longestStreak = Math.max(longestStreak, ++streak);
+            } else {
+                streak = 0;
+            }
+
+            window7.push(calories, isLogged);
+            window30.push(calories, isLogged);
+        }
+        periods.add(period.toPeriod(to, window7, window30));
+
+        return CalorieStatsResponse.builder()
+                .from(from)
+                .to(to)
+                .granularity(granularity.name().toLowerCase(Locale.ROOT))
+                .targetCalories(goal)
+                .totalCalories(total)
+                .loggedDays(loggedDays)
+                .averageCalories(average(total, loggedDays))
+                .daysOverGoal(daysOverGoal)
+                .longestUnderGoalStreak(longestStreak)
+                .movingAverage7(window7.average())
+                .movingAverage30(window30.average())
+                .periods(periods)
+                .build();
+    }
+
+    private static Double average(long total, int count) {
+        return count == 0 ? null : Math.round((double) total / count * 10) / 10.0;
+    }
+
+    private static final class PeriodAccumulator {
+
+        private final LocalDate calendarStart; // 주/월/연의 실제 시작일 (기간 경계 판단용)
+        private final LocalDate start; // 보고할 시작일 (조회 범위로 자른 값)
+        private long total;
+        private int loggedDays;
+        private int daysOverGoal;
+
+        private PeriodAccumulator(LocalDate calendarStart, LocalDate start) {
+            this.calendarStart = calendarStart;
+            this.start = start;
+        }
+
+        private void add(int calories, boolean overGoal) {
+            total += calories;
+            loggedDays++;
+            if (overGoal) {
+                daysOverGoal++;
+            }
+        }
+
+        /**
+         * 기간 마감 (이동 평균 창은 end까지 반영된 상태여야 함)
+         */
+        private CalorieStatsPeriod toPeriod(LocalDate end, RollingWindow window7, RollingWindow window30) {
+            return CalorieStatsPeriod.builder()
+                    .periodStart(start)
+                    .periodEnd(end)
+                    .totalCalories(total)
+                    .loggedDays(loggedDays)
+                    .averageCalories(average(total, loggedDays))
+                    .daysOverGoal(daysOverGoal)
+                    .movingAverage7(window7.average())
+                    .movingAverage30(window30.average())
+                    .build();
+        }
+    }
+
+    /**
+     * 최근 N일 합계/기록일 수를 유지하는 원형 버퍼
+     */
+    private static final class RollingWindow {
+
+        private final int[] calories;
+        private final boolean[] logged;
+        private int position;
+        private long sum;
+        private int loggedCount;
+
+        private RollingWindow(int size) {
+            this.calories = new int[size];
+            this.logged = new boolean[size];
+        }
+
+        private void push(int value, boolean isLogged) {
+            sum -= calories[position];
+            if (logged[position]) {
+                loggedCount--;
+            }
+            calories[position] = value;
+            logged[position] = isLogged;
+            sum += value;
+            if (isLogged) {
+                loggedCount++;
+            }
+            position = (position + 1) % calories.length;
+        }
+
+        private Double average() {
+            return CalorieStatsService.average(sum, loggedCount);
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.example.backendspring.service;
+
+import com.example.backendspring.dto.admin.CohortCalorieStatsResponse;
+import com.example.backendspring.entity.MealType;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletionException;
+
+/**
+ * 전체 회원 칼로리 통계 (관리자용)
+ *
+ * users.id 범위를 청크로 나누어 병렬로 스캔합니다. 청크마다
+ * - daily_calorie_summary를 (유저, 날짜) 기본키 범위로 읽어 일별 활성 수/섭취 히스토그램/목표 초과 수를 누적하고
+ * - meals를 (유저, 날짜) 인덱스로 읽어 식사 유형별 개수를 GROUP BY 합니다.
+ * 부분 결과는 배열 합산으로 병합하며, 같은 기간 결과는 짧은 TTL 동안 캐시합니다.
+ * 청크 스캔은 서비스 전용 고정 크기 풀에서 실행하고(대기열이 가득 차면 503),
+ * 같은 기간을 동시에 요청하면 먼저 시작한 계산 하나를 함께 기다립니다.
+ */
+@Slf4j
+@Service
+public class CohortStatsService {
+
+    private static final int MAX_RANGE_DAYS = 366;
+    private static final int BUCKET_KCAL = 10;
+    private static final int BUCKET_COUNT = 2001; // 0 ~ 20,000kcal, 마지막 버킷은 그 이상
+
+    private static final String SUMMARY_CHUNK_SQL =
+            "SELECT s.user_unique_code, s.summary_date, s.total_calories, COALESCE(u.daily_calorie_goal, 2000) AS goal " +
+            "FROM users u JOIN daily_calorie_summary s ON s.user_unique_code = u.unique_code " +
+            "WHERE u.id BETWEEN ? AND ? AND s.summary_date BETWEEN ? AND ? AND s.meal_count > 0";
+
+    private static final String MEAL_TYPE_CHUNK_SQL =
+            "SELECT m.meal_type, COUNT(*) FROM users u " +
+            "JOIN meals m ON m.user_unique_code = u.unique_code AND m.meal_date BETWEEN ? AND ? " +
+            "WHERE u.id BETWEEN ? AND ? GROUP BY m.meal_type";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTemplate;
+    private final ThreadPoolTaskExecutor executor;
+    private final Map<String, CachedStats> cache = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<CohortCalorieStatsResponse>> inFlight = new ConcurrentHashMap<>();
+
+    @Value("${admin-stats.chunk-size:20000}")
+    private int chunkSize;
+
+    @Value("${admin-stats.cache-ttl-seconds:60}")
+    private long cacheTtlSeconds;
+
+    public CohortStatsService(JdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${admin-stats.parallelism:8}") int parallelism,
+                              @Value("${admin-stats.queue-capacity:500}") int queueCapacity) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        // readOnly 트랜잭션이면 replica 라우팅 활성화 시 replica에서 스캔
+        this.readOnlyTemplate.setReadOnly(true);
+        this.executor = new ThreadPoolTaskExecutor();
+        this.executor.setCorePoolSize(Math.max(1, parallelism));
+        this.executor.setMaxPoolSize(Math.max(1, parallelism));
+        this.executor.setQueueCapacity(queueCapacity);
+        this.executor.setThreadNamePrefix("cohort-stats-");
+        this.executor.initialize();
+    }
+
+    public CohortCalorieStatsResponse getStats(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("시작일이 종료일보다 늦을 수 없습니다");
+        }
+        if (ChronoUnit.DAYS.between(from, to) + 1 > MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("조회 기간은 최대 366일입니다");
+        }
+
+        String key = from + ":" + to;
+        CachedStats cached = cache.get(key);
+        if (cached != null && System.currentTimeMillis() - cached.computedAt() <= cacheTtlSeconds * 1000) {
+            return cached.response();
+        }
+
+        // 같은 기간의 계산이 진행 중이면 결과를 함께 사용
+        CompletableFuture<CohortCalorieStatsResponse> load = new CompletableFuture<>();
+        CompletableFuture<CohortCalorieStatsResponse> loading = inFlight.putIfAbsent(key, load);
+        if (loading != null) {
+            return await(loading);
+        }
+
+        try {
+            CohortCalorieStatsResponse response = compute(from, to);
+            cache.entrySet().removeIf(entry -> System.currentTimeMillis() - entry.getValue().computedAt() > cacheTtlSeconds * 1000);
+            cache.put(key, new CachedStats(response, System.currentTimeMillis()));
+            load.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, load);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private CohortCalorieStatsResponse await(CompletableFuture<CohortCalorieStatsResponse> loading) {
+        try {
+            return loading.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private CohortCalorieStatsResponse compute(LocalDate from, LocalDate to) {
+        long startedAt = System.currentTimeMillis();
+        int days = (int) ChronoUnit.DAYS.between(from, to) + 1;
+
+        Long minId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM users", Long.class);
+        Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM users", Long.class);
+
+        Partial total = new Partial(days);
+        if (minId != null && maxId != null) {
+            List<long[]> ranges = new ArrayList<>();
+            for (long start = minId; start <= maxId; start += chunkSize) {
+                ranges.add(new long[]{start, Math.min(start + chunkSize - 1, maxId)});
+            }
+
+            // 대기열이 가득 차면 TaskRejectedException(RejectedExecutionException) → 503
+            List<CompletableFuture<Partial>> futures = ranges.stream()
+                    .map(range -> CompletableFuture.supplyAsync(
+                            () -> scanChunk(range[0], range[1], from, to, days), executor))
+                    .toList();
+            for (CompletableFuture<Partial> future : futures) {
+                total.merge(future.join());
+            }
+            log.info("회원 칼로리 통계 계산 - 기간 {} ~ {}, 청크 {}개, {}ms",
+                    from, to, ranges.size(), System.currentTimeMillis() - startedAt);
+        }
+
+        return total.toResponse(from, to, System.currentTimeMillis() - startedAt);
+    }
+
+    private Partial scanChunk(long fromId, long toId, LocalDate from, LocalDate to, int days) {
+        Partial partial = new Partial(days);
+        // 청크끼리 유저가 겹치지 않으므로 청크 안에서만 중복 제거하면 활성 회원 수를 합산할 수 있음
+        Set<String> activeUsers = new HashSet<>();
+        readOnlyTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.query(SUMMARY_CHUNK_SQL, rs -> {
+                activeUsers.add(rs.getString(1));
+                LocalDate date = rs.getDate(2).toLocalDate();
+                partial.addUserDay((int) ChronoUnit.DAYS.between(from, date), rs.getInt(3), rs.getInt(4));
+            }, fromId, toId, from, to);
+            jdbcTemplate.query(MEAL_TYPE_CHUNK_SQL, rs -> {
+                partial.addMeals(MealType.valueOf(rs.getString(1)), rs.getLong(2));
+            }, from, to, fromId, toId);
+        });
+        partial.activeUsers = activeUsers.size();
+        return partial;
+    }
+
+    /**
+     * 청크별 부분 결과 (배열 합산으로 병합)
+     */
+    private static final class Partial {
+
+        private final int[] dailyActive;
+        private final long[] histogram = new long[BUCKET_COUNT];
+        private final Map<MealType, Long> mealsByType = new EnumMap<>(MealType.class);
+        private long userDays;
+        private long overGoalDays;
+        private long activeUsers;
+
+        private Partial(int days) {
+            this.dailyActive = new int[days];
+        }
+
+        private void addUserDay(int dayIndex, int calories, int goal) {
+            dailyActive[dayIndex]++;
+            histogram[Math.min(Math.max(calories, 0) / BUCKET_KCAL, BUCKET_COUNT - 1)]++;
+            userDays++;
+            if (calories > goal) {
+                overGoalDays++;
+            }
+        }
+
+        private void addMeals(MealType mealType, long count) {
+            mealsByType.merge(mealType, count, Long::sum);
+        }
+
+        private void merge(Partial other) {
+            for (int i = 0; i < dailyActive.length; i++) {
+                dailyActive[i] += other.dailyActive[i];
+            }
+            for (int i = 0; i < histogram.length; i++) {
+                histogram[i] += other.histogram[i];
+            }
+            other.mealsByType.forEach(this::addMeals);
+            userDays += other.userDays;
+            overGoalDays += other.overGoalDays;
+            activeUsers += other.activeUsers;
+        }
+
+        private Integer percentile(double p) {
+            if (userDays == 0) {
+                return null;
+            }
+            long rank = (long) Math.ceil(p * userDays);
+            long cumulative = 0;
+            for (int i = 0; i < histogram.length; i++) {
+                cumulative += histogram[i];
+                if (cumulative >= rank) {
+                    return i * BUCKET_KCAL;
+                }
+            }
+            return (BUCKET_COUNT - 1) * BUCKET_KCAL;
+        }
+
+        private CohortCalorieStatsResponse toResponse(LocalDate from, LocalDate to, long elapsedMillis) {
+            List<CohortCalorieStatsResponse.DailyActiveLoggers> daily = new ArrayList<>(dailyActive.length);
+            for (int i = 0; i < dailyActive.length; i++) {
+                daily.add(new CohortCalorieStatsResponse.DailyActiveLoggers(from.plusDays(i), dailyActive[i]));
+            }
+            Map<String, Long> meals = new LinkedHashMap<>();
+            for (MealType mealType : MealType.values()) {
+                meals.put(mealType.name(), mealsByType.getOrDefault(mealType, 0L));
+            }
+
+            return CohortCalorieStatsResponse.builder()
+                    .from(from)
+                    .to(to)
+                    .activeUsers(activeUsers)
+                    .loggedUserDays(userDays)
+                    .dailyActiveLoggers(daily)
+                    .intakeP50(percentile(0.50))
+                    .intakeP90(percentile(0.90))
+                    .intakeP99(percentile(0.99))
+                    .overGoalShare(userDays == 0 ? null : Math.round((double) overGoalDays / userDays * 10000) / 10000.0)
+                    .mealsByType(meals)
+                    .computedAt(LocalDateTime.now())
+                    .elapsedMillis(elapsedMillis)
+                    .build();
+        }
+    }
+
+    private record CachedStats(CohortCalorieStatsResponse response, long computedAt) {
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.backendspring.service;
+
+import com.example.backendspring.entity.Meal;
+import com.example.backendspring.entity.MealType;
+import com.example.backendspring.repository.DailyCalorieSummaryRepository;
+import com.example.backendspring.repository.DailyCalorieTotal;
+import com.example.backendspring.repository.MealRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 일일 칼로리 집계(daily_calorie_summary) 관리
+ *
+ * 식사 쓰기와 같은 트랜잭션에서 증분 upsert로 갱신되므로, 월별 조회는
+ * 원본 식사를 GROUP BY 하지 않고 (유저, 날짜) 기본키 범위만 읽습니다.
+ */
+@Slf4j
+@Service
+public class DailyCalorieSummaryService {
+
+    private final DailyCalorieSummaryRepository summaryRepository;
+    private final MealRepository mealRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${daily-summary.rebuild.chunk-size:200}")
+    private int rebuildChunkSize;
+
+    @Value("${daily-summary.rebuild.parallelism:4}")
+    private int rebuildParallelism;
+
+    public DailyCalorieSummaryService(DailyCalorieSummaryRepository summaryRepository,
+                                      MealRepository mealRepository,
+                                      PlatformTransactionManager transactionManager) {
+        this.summaryRepository = summaryRepository;
+        this.mealRepository = mealRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * 식사 추가분 반영 (호출한 쓰기 트랜잭션 안에서 실행)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void addMeal(Meal meal) {
+        applyDelta(meal, 1);
+    }
+
+    /**
+     * 식사 삭제분 반영 (수정 시에는 이전 상태를 빼고 새 상태를 더함)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void removeMeal(Meal meal) {
+        applyDelta(meal, -1);
+        summaryRepository.deleteIfEmpty(meal.getUserUniqueCode(), meal.getMealDate());
+    }
+
+    private void applyDelta(Meal meal, int sign) {
+        int calories = meal.getTotalCalories() != null ? meal.getTotalCalories() : 0;
+        MealType mealType = meal.getMealType();
+        summaryRepository.upsertDelta(
+                meal.getUserUniqueCode(),
+                meal.getMealDate(),
+                sign * calories,
+                sign,
+                mealType == MealType.BREAKFAST ? sign * calories : 0,
+                mealType == MealType.LUNCH ? sign * calories : 0,
+                mealType == MealType.DINNER ? sign * calories : 0,
+                mealType == MealType.SNACK ? sign * calories : 0);
+    }
+
+    /**
+     * 기간별 날짜별 총 칼로리만 조회 (달력처럼 총합만 필요한 경우)
+     */
+    @Transactional(readOnly = true)
+    public List<DailyCalorieTotal> getDailyTotals(String userUniqueCode, LocalDate startDate, LocalDate endDate) {
+        return summaryRepository.findDailyTotals(userUniqueCode, startDate, endDate);
+    }
+    
+    /**
+     * 식사 원본에서 전체 집계 재구성 (정합성 복구용)
+     *
+     * 유저 코드를 청크로 나누어 병렬로 처리하며, 청크마다 별도 트랜잭션에서
+     * 기존 집계를 지우고 INSERT ... SELECT로 다시 채웁니다.
+     *
+     * @return 재구성한 유저 수
+     */
+    public int rebuildAll() {
+        long startedAt = System.currentTimeMillis();
+        List<String> userCodes = mealRepository.findDistinctUserUniqueCodes();
+
+        List<List<String>> chunks = new ArrayList<>();
+        for (int from = 0; from < userCodes.size(); from += rebuildChunkSize) {
+            chunks.add(userCodes.subList(from, Math.min(from + rebuildChunkSize, userCodes.size())));
+        }
+
+        AtomicInteger rebuiltUsers = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, rebuildParallelism));
+        try {
+            CompletableFuture<?>[] futures = chunks.stream()
+                    .map(chunk -> CompletableFuture.runAsync(() -> {
+                        transactionTemplate.executeWithoutResult(status -> {
+                            summaryRepository.deleteByUserCodes(chunk);
+                            summaryRepository.rebuildFromMeals(chunk);
+                        });
+                        rebuiltUsers.addAndGet(chunk.size());
+                    }, executor))
+                    .toArray(CompletableFuture[]::new);
+            CompletableFuture.allOf(futures).join();
+        } finally {
+            executor.shutdown();
+        }
+
+        log.info("일일 칼로리 집계 재구성 완료 - 유저 {}명, 청크 {}개, {}ms",
+                rebuiltUsers.get(), chunks.size(), System.currentTimeMillis() - startedAt);
+        return rebuiltUsers.get();
+    }
+
+    /**
+     * 집계 테이블이 새로 생겨 비어 있으면 기존 식사로 채움 (최초 배포 시)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeIfEmpty() {
+        try {
+            if (summaryRepository.count() == 0 && mealRepository.count() > 0) {
+                log.info("일일 칼로리 집계가 비어 있어 식사 기록으로 재구성합니다");
+                CompletableFuture.runAsync(this::rebuildAll)
+                        .exceptionally(e -> {
+                            log.error("일일 칼로리 집계 초기 재구성 실패", e);
+                            return null;
+                        });
+            }
+        } catch (Exception e) {
+            log.warn("일일 칼로리 집계 초기화 확인 실패: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.backendspring.service;
+
+import com.example.backendspring.config.ReplicaRoutingDataSource;
+import com.example.backendspring.dto.auth.UserSummary;
+import com.example.backendspring.dto.calorie.MonthlyCalorieResponse;
+import com.example.backendspring.dto.dashboard.DashboardResponse;
+import com.example.backendspring.dto.meal.MealResponse;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * 홈 화면 대시보드 조회
+ *
+ * 유저(목표), 해당 날짜 식사, 이번 달 달력은 서로 독립적인 조회이므로
+ * 전용 스레드 풀에서 동시에 실행하고, 조회별 소요 시간을 함께 반환합니다.
+ * 풀과 대기열 크기가 제한되어 있어 과부하 시나 제한 시간 안에 끝나지 않으면 RejectedExecutionException으로 거절됩니다.
+ */
+@Slf4j
+@Service
+public class DashboardService {
+    
+    private final AuthService authService;
+    private final MealService mealService;
+    private final CalorieService calorieService;
+    private final ThreadPoolTaskExecutor executor;
+    private final long timeoutMillis;
+    
+    public DashboardService(AuthService authService,
+                            MealService mealService,
+                            CalorieService calorieService,
+                            @Value("${dashboard.executor.pool-size:16}") int poolSize,
+                            @Value("${dashboard.executor.queue-capacity:200}") int queueCapacity,
+                            @Value("${dashboard.timeout-ms:5000}") long timeoutMillis) {
+        this.authService = authService;
+        this.mealService = mealService;
+        this.calorieService = calorieService;
+        this.timeoutMillis = timeoutMillis;
+        
+        this.executor = new ThreadPoolTaskExecutor();
+        this.executor.setCorePoolSize(poolSize);
+        this.executor.setMaxPoolSize(poolSize);
+        this.executor.setQueueCapacity(queueCapacity);
+        this.executor.setThreadNamePrefix("dashboard-");
+        this.executor.setTaskDecorator(DashboardService::propagateRequestContext);
+        this.executor.initialize();
+    }
+    
+    public DashboardResult getDashboard(String userUniqueCode, LocalDate date) {
+        long startedAt = System.nanoTime();
+        Map<String, Double> timings = Collections.synchronizedMap(new LinkedHashMap<>());
+        
+        CompletableFuture<UserSummary> user = submit("user", timings,
+                () -> authService.getUserSummary(userUniqueCode));
+        CompletableFuture<List<MealResponse>> meals = submit("meals", timings,
+                () -> mealService.getMealsByUserCodeAndDate(userUniqueCode, date));
+        CompletableFuture<MonthlyCalorieResponse> month = submit("calendar", timings,
+                () -> calorieService.getMonthlyCalories(userUniqueCode, date.getYear(), date.getMonthValue()));
+        
+        try {
+            CompletableFuture.allOf(user, meals, month).get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            user.cancel(true);
+            meals.cancel(true);
+            month.cancel(true);
+            // 풀이 밀려 있을 때 생기므로 대기열 거절과 같게 처리 (컨트롤러에서 503)
+            throw new RejectedExecutionException("대시보드 조회 시간이 초과되었습니다", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("대시보드 조회가 중단되었습니다", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        
+        UserSummary loadedUser = user.join();
+        DashboardResponse response = DashboardResponse.builder()
+                .date(date)
+                .dailyCalorieGoal(loadedUser.getDailyCalorieGoal())
+                .today(calorieService.buildDailyResponse(date, loadedUser, meals.join()))
+                .month(month.join())
+                .build();
+        
+        Map<String, Double> result = new LinkedHashMap<>(timings);
+        result.put("total", elapsedMillis(startedAt));
+        return new DashboardResult(response, result);
+    }
+    
+    private <T> CompletableFuture<T> submit(String name, Map<String, Double> timings, Supplier<T> query) {
+        return CompletableFuture.supplyAsync(() -> {
+            long startedAt = System.nanoTime();
+            try {
+                return query.get();
+            } finally {
+                timings.put(name, elapsedMillis(startedAt));
+            }
+        }, executor);
+    }
+    
+    private static double elapsedMillis(long startedAt) {
+        return Math.round((System.nanoTime() - startedAt) / 10_000.0) / 100.0;
+    }
+    
+    /**
+     * 요청 스레드의 primary 고정(read-your-writes) 여부와 세션 토큰 인증 정보를 작업 스레드로 전달
+     */
+    private static Runnable propagateRequestContext(Runnable task) {
+        boolean pinned = ReplicaRoutingDataSource.isPrimaryPinned();
+        SecurityContext securityContext = SecurityContextHolder.getContext();
+        return () -> {
+            if (pinned) {
+                ReplicaRoutingDataSource.pinPrimary();
+            }
+            SecurityContextHolder.setContext(securityContext);
+            try {
+                task.run();
+            } finally {
+                SecurityContextHolder.clearContext();
+                ReplicaRoutingDataSource.clearPrimaryPin();
+            }
+        };
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+    
+    /**
+     * 대시보드 응답과 조회별 소요 시간(ms, 삽입 순서 유지)
+     */
+    public record DashboardResult(DashboardResponse response, Map<String, Double> timings) {
+    }
+}
@@ -0,0 +1,351 @@
+package com.example.backendspring.service;
+
+import com.example.backendspring.dto.admin.TopFoodsResponse;
+import com.example.backendspring.entity.Meal;
+import com.example.backendspring.entity.SketchCheckpoint;
+import com.example.backendspring.event.MealChangedEvent;
+import com.example.backendspring.repository.SketchCheckpointRepository;
+import com.example.backendspring.util.SpaceSavingSketch;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * 전체 유저 대상 인기 음식(heavy hitter) 추적
+ *
+ * 식사 쓰기 커밋마다 음식명을 Space-Saving 스케치(날짜별 + 전체 기간)에 반영하고,
+ * 주기적으로 서버별 체크포인트를 MySQL에 저장합니다. 조회 시에는 이 서버의 메모리 스케치에
+ * 다른 서버의 체크포인트를 병합합니다. 스케치는 고정 크기이고 날짜 구간은 retained-days만 보관하므로
+ * 메모리는 기록량과 무관하게 (retained-days + 1) x capacity 카운터로 제한됩니다.
+ *
+ * Space-Saving은 감소를 지원하지 않으므로 식사 삭제는 반영하지 않습니다 (기록 횟수 기준 통계).
+ *
+ * stale-node-days 동안 저장이 없는 서버(내려간 서버, node-id가 바뀐 이전 컨테이너)의 체크포인트는
+ * 병합 행(node_id = merged) 하나로 합쳐, 조회마다 병합하는 행 수가 서버 교체 횟수만큼 늘지 않게 합니다.
+ * 살아 있는 서버는 기록이 없어도 하루에 한 번 전체 기간 스케치를 저장해 합쳐지지 않습니다.
+ */
+@Slf4j
+@Service
+public class FoodTrendService {
+
+    private static final String SKETCH_NAME = "top-foods";
+    private static final String ALL_TIME_KEY = "all";
+    private static final int WEEK_DAYS = 7;
+    private static final String MERGED_NODE_ID = "merged";
+    private static final long HEARTBEAT_MILLIS = 24 * 60 * 60 * 1000L;
+
+    public enum Window {
+        DAY, WEEK, ALL;
+
+        public static Window from(String value) {
+            try {
+                return Window.valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new IllegalArgumentException("지원하지 않는 집계 구간입니다: " + value);
+            }
+        }
+    }
+
+    private final SketchCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final String nodeId;
+    private final int capacity;
+    private final int retainedDays;
+    private final int staleNodeDays;
+
+    // 아래 상태는 모두 this로 동기화
+    private final TreeMap<LocalDate, SpaceSavingSketch> dailySketches = new TreeMap<>();
+    private SpaceSavingSketch allTimeSketch;
+    private final Set<String> dirtyWindows = new LinkedHashSet<>();
+    private long allTimeSavedAt = System.currentTimeMillis();
+
+    public FoodTrendService(SketchCheckpointRepository checkpointRepository,
+                            PlatformTransactionManager transactionManager,
+                            ObjectMapper objectMapper,
+                            @Value("${app.node-id:local}") String nodeId,
+                            @Value("${food-trend.capacity:1000}") int capacity,
+                            @Value("${food-trend.retained-days:8}") int retainedDays,
+                            @Value("${food-trend.stale-node-days:3}") int staleNodeDays) {
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.nodeId = nodeId;
+        this.capacity = capacity;
+        this.retainedDays = Math.max(retainedDays, WEEK_DAYS);
+        // 하루 한 번 저장하는 살아 있는 서버가 합쳐지지 않도록 하루보다 길게
+        this.staleNodeDays = Math.max(staleNodeDays, 2);
+        this.allTimeSketch = new SpaceSavingSketch(capacity);
+    }
+
+    /**
+     * 식사 쓰기 커밋 후 기록된 음식 반영 (수정은 새로 추가된 음식명만)
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onMealChanged(MealChangedEvent event) {
+        if (event.getChangeType() == MealChangedEvent.ChangeType.DELETED) {
+            return;
+        }
+        Set<String> foods = foodNames(event.getCurrent());
+        foods.removeAll(foodNames(event.getPrevious()));
+        if (foods.isEmpty()) {
+            return;
+        }
+
+        LocalDate today = LocalDate.now();
+        synchronized (this) {
+            SpaceSavingSketch daily = dailySketches.computeIfAbsent(today, date -> new SpaceSavingSketch(capacity));
+            for (String food : foods) {
+                daily.offer(food);
+                allTimeSketch.offer(food);
+            }
+            dirtyWindows.add(today.toString());
+            dirtyWindows.add(ALL_TIME_KEY);
+            pruneExpiredDays(today);
+        }
+    }
+
+    private Set<String> foodNames(Meal meal) {
+        Set<String> names = new LinkedHashSet<>();
+        if (meal != null) {
+            for (String name : new String[]{meal.getFood1Name(), meal.getFood2Name(), meal.getFood3Name()}) {
+                if (name != null && !name.isBlank()) {
+                    names.add(name.trim());
+                }
+            }
+        }
+        return names;
+    }
+
+    /**
+     * 구간별 인기 음식 (이 서버 메모리 + 다른 서버 체크포인트 병합)
+     */
+    public TopFoodsResponse getTopFoods(Window window, LocalDate date, int limit) {
+        if (limit < 1 || limit > capacity) {
+            throw new IllegalArgumentException("limit은 1 이상 " + capacity + " 이하여야 합니다");
+        }
+
+        List<String> windowKeys = new ArrayList<>();
+        LocalDate from = null;
+        switch (window) {
+            case DAY -> {
+                from = date;
+                windowKeys.add(date.toString());
+            }
+            case WEEK -> {
+                from = date.minusDays(WEEK_DAYS - 1);
+                for (LocalDate day = from; !day.isAfter(date); day = day.plusDays(1)) {
+                    windowKeys.add(day.toString());
+                }
+            }
+            case ALL -> windowKeys.add(ALL_TIME_KEY);
+        }
+
+        SpaceSavingSketch merged = new SpaceSavingSketch(capacity);
+        synchronized (this) {
+            for (String key : windowKeys) {
+                SpaceSavingSketch local = localSketch(key);
+                if (local != null) {
+                    merged.merge(local);
+                }
+            }
+        }
+        for (SketchCheckpoint checkpoint : checkpointRepository.findByIdSketchNameAndIdWindowKeyIn(SKETCH_NAME, windowKeys)) {
+            if (!nodeId.equals(checkpoint.getId().getNodeId())) {
+                merged.merge(deserialize(checkpoint.getPayload()));
+            }
+        }
+
+        List<TopFoodsResponse.TopFood> foods = merged.top(limit).stream()
+                .map(entry -> new TopFoodsResponse.TopFood(entry.item(), entry.count(), entry.error()))
+                .toList();
+        return TopFoodsResponse.builder()
+                .window(window.name().toLowerCase(Locale.ROOT))
+                .from(from)
+                .to(window == Window.ALL ? null : date)
+                .foods(foods)
+                .build();
+    }
+
+    private SpaceSavingSketch localSketch(String windowKey) {
+        return ALL_TIME_KEY.equals(windowKey) ? allTimeSketch : dailySketches.get(LocalDate.parse(windowKey));
+    }
+
+    /**
+     * 변경된 구간만 체크포인트 저장
+     */
+    @Scheduled(fixedDelayString = "${food-trend.checkpoint-ms:60000}")
+    public void checkpoint() {
+        Map<String, String> payloads = new LinkedHashMap<>();
+        synchronized (this) {
+            if (System.currentTimeMillis() - allTimeSavedAt > HEARTBEAT_MILLIS) {
+                // 살아 있는 서버임을 알리기 위해 기록이 없어도 주기적으로 저장
+                dirtyWindows.add(ALL_TIME_KEY);
+            }
+            if (dirtyWindows.contains(ALL_TIME_KEY)) {
+                allTimeSavedAt = System.currentTimeMillis();
+            }
+            for (String key : dirtyWindows) {
+                SpaceSavingSketch sketch = localSketch(key);
+                if (sketch != null) {
+                    payloads.put(key, serialize(sketch));
+                }
+            }
+            dirtyWindows.clear();
+        }
+        if (payloads.isEmpty()) {
+            return;
+        }
+
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            String oldestKey = LocalDate.now().minusDays(retainedDays - 1).toString();
+            transactionTemplate.executeWithoutResult(status -> {
+                payloads.forEach((key, payload) -> checkpointRepository.upsert(SKETCH_NAME, nodeId, key, payload, now));
+                checkpointRepository.deleteExpired(SKETCH_NAME, oldestKey);
+            });
+        } catch (Exception e) {
+            // 다음 주기에 다시 저장
+            synchronized (this) {
+                dirtyWindows.addAll(payloads.keySet());
+            }
+            log.warn("인기 음식 스케치 체크포인트 저장 실패: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 재시작 시 이 서버의 마지막 체크포인트 복원
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void restore() {
+        try {
+            LocalDate oldest = LocalDate.now().minusDays(retainedDays - 1);
+            List<SketchCheckpoint> checkpoints = checkpointRepository.findByIdSketchNameAndIdNodeId(SKETCH_NAME, nodeId);
+            synchronized (this) {
+                for (SketchCheckpoint checkpoint : checkpoints) {
+                    String key = checkpoint.getId().getWindowKey();
+                    SpaceSavingSketch restored = deserialize(checkpoint.getPayload());
+                    if (ALL_TIME_KEY.equals(key)) {
+                        restored.merge(allTimeSketch);
+                        allTimeSketch = restored;
+                    } else if (!LocalDate.parse(key).isBefore(oldest)) {
+                        dailySketches.merge(LocalDate.parse(key), restored, (current, loaded) -> {
+                            loaded.merge(current);
+                            return loaded;
+                        });
+                    }
+                }
+            }
+            log.info("인기 음식 스케치 복원 - 서버 {}, 구간 {}개", nodeId, checkpoints.size());
+        } catch (Exception e) {
+            log.warn("인기 음식 스케치 복원 실패: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 오래 저장하지 않은 서버의 체크포인트를 병합 행으로 합침
+     * Space-Saving 병합은 멱등이 아니므로 대상 행을 잠그고 최신 값으로 다시 확인한 뒤 한 번만 합칩니다.
+     */
+    @Scheduled(fixedDelayString = "${food-trend.fold-stale-ms:3600000}", initialDelay = 300000)
+    public void foldStaleNodes() {
+        try {
+            LocalDateTime before = LocalDateTime.now().minusDays(staleNodeDays);
+            List<String> staleNodeIds = checkpointRepository.findStaleNodeIds(SKETCH_NAME,
+                    List.of(nodeId, MERGED_NODE_ID), before);
+            if (staleNodeIds.isEmpty()) {
+                return;
+            }
+            List<String> lockedNodeIds = new ArrayList<>(staleNodeIds);
+            lockedNodeIds.add(MERGED_NODE_ID);
+
+            Set<String> folded = transactionTemplate.execute(status -> {
+                List<SketchCheckpoint> rows = checkpointRepository.lockByNodeIds(SKETCH_NAME, lockedNodeIds);
+                // 조회 후 다시 저장한 서버(재시작 등)는 제외
+                Map<String, LocalDateTime> lastSaved = new HashMap<>();
+                rows.forEach(row -> lastSaved.merge(row.getId().getNodeId(), row.getUpdatedAt(),
+                        (current, other) -> current.isAfter(other) ? current : other));
+                Set<String> folding = new LinkedHashSet<>();
+                for (String staleNodeId : staleNodeIds) {
+                    LocalDateTime saved = lastSaved.get(staleNodeId);
+                    if (saved != null && saved.isBefore(before)) {
+                        folding.add(staleNodeId);
+                    }
+                }
+                if (folding.isEmpty()) {
+                    return folding;
+                }
+
+                Map<String, SpaceSavingSketch> merged = new LinkedHashMap<>();
+                for (SketchCheckpoint row : rows) {
+                    String rowNodeId = row.getId().getNodeId();
+                    if (MERGED_NODE_ID.equals(rowNodeId) || folding.contains(rowNodeId)) {
+                        merged.merge(row.getId().getWindowKey(), deserialize(row.getPayload()), (current, other) -> {
+                            current.merge(other);
+                            return current;
+                        });
+                    }
+                }
+                LocalDateTime now = LocalDateTime.now();
+                merged.forEach((key, sketch) ->
+                        checkpointRepository.upsert(SKETCH_NAME, MERGED_NODE_ID, key, serialize(sketch), now));
+                checkpointRepository.deleteByNodeIds(SKETCH_NAME, folding);
+                return folding;
+            });
+            if (folded != null && !folded.isEmpty()) {
+                log.info("인기 음식 스케치 - 저장이 멈춘 서버 {} 체크포인트를 병합 행으로 합침", folded);
+            }
+        } catch (Exception e) {
+            log.warn("인기 음식 스케치 병합 행 정리 실패: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        checkpoint();
+    }
+
+    private void pruneExpiredDays(LocalDate today) {
+        LocalDate oldest = today.minusDays(retainedDays - 1);
+        dailySketches.headMap(oldest).clear();
+    }
+
+    private String serialize(SpaceSavingSketch sketch) {
+        try {
+            return objectMapper.writeValueAsString(sketch.entries());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("스케치 직렬화 실패", e);
+        }
+    }
+
+    private SpaceSavingSketch deserialize(String payload) {
+        try {
+            return SpaceSavingSketch.of(capacity,
+                    objectMapper.readValue(payload, new TypeReference<List<SpaceSavingSketch.Entry>>() { }));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("스케치 역직렬화 실패", e);
+        }
+    }
+}
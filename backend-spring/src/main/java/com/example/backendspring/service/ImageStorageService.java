@@ -1,68 +1,238 @@
 package com.example.backendspring.service;
 
+import com.example.backendspring.repository.TrainingDataLogRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.UUID;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * 학습 이미지 저장소 (내용 주소 방식)
+ *
+ * 이미지는 SHA-256 값으로 objects/ab/cd/{sha256}{확장자}에 한 번만 저장하고,
+ * 같은 사진이 다시 들어오면 기존 파일을 참조합니다 (training_data_log.image_sha256).
+ * 참조하는 행이 모두 삭제되면 파일을 지웁니다.
+ *
+ * 이전 방식(유저/날짜 폴더)으로 저장된 이미지는 그대로 두며, 회원 데이터 정리 시 유저 폴더째 삭제됩니다.
+ *
+ * 업로드는 spool 디렉토리의 임시 파일에 해시/크기 제한을 확인하며 쓰고 rename만 합니다 (요청 스레드에서 fsync 없음).
+ * fsync 정책(training.image.fsync)은 writer 스레드가 저장소에 등록할 때 적용하므로,
+ * 프로세스가 중단되어도 spool과 저장소에는 완성된 파일만 남고, 전원 장애 시에는 아직 등록되지 않은 spool 이미지만
+ * 손상될 수 있습니다 (재시작 후 재검색에서 해시로 확인해 버림).
+ */
 @Slf4j
 @Service
 public class ImageStorageService {
 
-    @Value("${training.image.storage.path:/app/training_images}")
-    private String storageBasePath;
+    private static final String OBJECTS_DIR = "objects";
+    private static final String TEMP_DIR = "tmp";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final HexFormat HEX = HexFormat.of();
+    // 스레드마다 direct buffer 하나를 재사용 (할당 비용이 크므로)
+    private static final ThreadLocal<ByteBuffer> BUFFERS = ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(BUFFER_SIZE));
 
     /**
-     * 이미지 파일을 영구 저장소에 저장
-     *
-     * @param imageFile 저장할 이미지 파일
-     * @param userUniqueCode 유저 고유 코드
-     * @return 저장된 파일의 경로
-     * @throws IOException 파일 저장 실패 시
+     * 저장 시 fsync 정책
+     * NONE: OS에 맡김 (가장 빠름, 전원 장애 시 최근 파일이 비어 있을 수 있음)
+     * FILE: 파일 내용을 fsync 후 rename
+     * DIRECTORY: FILE + rename 후 디렉토리도 fsync (rename까지 보장)
      */
-    public String saveImage(MultipartFile imageFile, String userUniqueCode) throws IOException {
-        log.info("이미지 저장 시작 - 유저: {}, 파일명: {}", userUniqueCode, imageFile.getOriginalFilename());
+    public enum Durability {
+        NONE, FILE, DIRECTORY;
+
+        public static Durability from(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("training.image.fsync는 none, file, directory 중 하나여야 합니다: " + value);
+            }
+        }
+    }
+
+    private final TrainingDataLogRepository trainingDataLogRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Path objectsPath;
+    private final Path tempPath;
+    private final long releaseGraceMillis;
+    private final long maxImageBytes;
+    private final Durability durability;
+    private final Set<Path> createdDirectories = ConcurrentHashMap.newKeySet();
 
-        // 저장 디렉토리 생성 (날짜별로 폴더 구분)
-        String dateFolder = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy/MM/dd"));
-        Path directoryPath = Paths.get(storageBasePath, userUniqueCode, dateFolder);
+    private final LongAdder storedBytes = new LongAdder();
+    private final LongAdder deduplicatedBytes = new LongAdder();
+    private final Timer storedTimer;
+    private final Timer deduplicatedTimer;
 
-        if (!Files.exists(directoryPath)) {
-            Files.createDirectories(directoryPath);
-            log.info("디렉토리 생성 완료: {}", directoryPath);
+    public ImageStorageService(TrainingDataLogRepository trainingDataLogRepository,
+                               PlatformTransactionManager transactionManager,
+                               ObjectProvider<MeterRegistry> meterRegistryProvider,
+                               @Value("${training.image.storage.path:/app/training_images}") String storageBasePath,
+                               @Value("${training.image.release-grace-seconds:600}") long releaseGraceSeconds,
+                               @Value("${training.image.max-bytes:10485760}") long maxImageBytes,
+                               @Value("${training.image.fsync:file}") String durability) {
+        this.trainingDataLogRepository = trainingDataLogRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        Path basePath = Paths.get(storageBasePath).toAbsolutePath().normalize();
+        this.objectsPath = basePath.resolve(OBJECTS_DIR);
+        this.tempPath = objectsPath.resolve(TEMP_DIR);
+        this.releaseGraceMillis = TimeUnit.SECONDS.toMillis(releaseGraceSeconds);
+        this.maxImageBytes = maxImageBytes;
+        this.durability = Durability.from(durability);
+
+        MeterRegistry meterRegistry = meterRegistryProvider.getIfAvailable();
+        if (meterRegistry != null) {
+            storedTimer = Timer.builder("training.image.write").tag("result", "stored")
+                    .publishPercentiles(0.5, 0.99).register(meterRegistry);
+            deduplicatedTimer = Timer.builder("training.image.write").tag("result", "deduplicated")
+                    .publishPercentiles(0.5, 0.99).register(meterRegistry);
+            FunctionCounter.builder("training.image.bytes", storedBytes, LongAdder::sum)
+                    .tag("result", "stored").baseUnit("bytes").register(meterRegistry);
+            FunctionCounter.builder("training.image.bytes", deduplicatedBytes, LongAdder::sum)
+                    .tag("result", "deduplicated").baseUnit("bytes").register(meterRegistry);
+        } else {
+            storedTimer = null;
+            deduplicatedTimer = null;
         }
+    }
 
-        // 고유한 파일명 생성 (UUID + 타임스탬프 + 원본 확장자)
-        String originalFilename = imageFile.getOriginalFilename();
-        String fileExtension = "";
-        if (originalFilename != null && originalFilename.contains(".")) {
-            fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
+    /**
+     * 업로드 이미지를 spool 파일로 기록 (요청 스레드에서 호출, fsync 없음)
+     * 같은 디렉토리의 임시 파일에 쓰면서 SHA-256과 실제 크기를 확인한 뒤 rename 하므로
+     * 프로세스가 살아 있는 동안 target이 보이면 내용은 완성된 상태입니다. 디스크 반영은 storeSpooledImage에서 합니다.
+     *
+     * @param imageFile 업로드 이미지
+     * @param target spool 이미지 경로
+     * @return 기록한 내용의 해시와 크기
+     * @throws IllegalArgumentException 비어 있거나 크기 제한을 넘는 경우
+     * @throws IOException 기록 실패 시
+     */
+    public SpooledImage spoolImage(MultipartFile imageFile, Path target) throws IOException {
+        checkSize(imageFile.getSize());
+        Path directory = target.getParent();
+        TempObject temp;
+        try (ReadableByteChannel in = Channels.newChannel(imageFile.getInputStream())) {
+            temp = writeTemp(in, directory, target.getFileName() + ".", false);
         }
+        try {
+            Files.move(temp.path(), target, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp.path());
+        }
+        return new SpooledImage(temp.sha256(), temp.size());
+    }
 
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("HHmmss"));
-        String uniqueFilename = String.format("%s_%s%s",
-            UUID.randomUUID().toString(),
-            timestamp,
-            fileExtension
-        );
+    /**
+     * 학습 데이터 spool에 받아둔 이미지를 저장소에 등록
+     * 해시는 spool 기록 시 계산한 값을 쓰므로 파일을 다시 읽지 않고 하드 링크로 등록합니다.
+     * spool 기록은 fsync하지 않으므로 새로 등록할 때 fsync 정책대로 여기서(writer 스레드) 디스크에 반영합니다.
+     * 원본은 호출자가 DB 반영 후 지울 때까지 남아 있어 같은 캡처를 다시 처리해도 같은 결과가 됩니다.
+     *
+     * @param spooledImage spool 디렉토리의 이미지 파일
+     * @param fileExtension 원본 확장자 (".jpg" 등, 없으면 빈 문자열)
+     * @param digest spool 기록 시 계산한 해시와 크기
+     * @return 저장된 이미지 (해시, 경로)
+     * @throws IOException 파일 등록 실패 시
+     */
+    public StoredImage storeSpooledImage(Path spooledImage, String fileExtension, SpooledImage digest) throws IOException {
+        long startedAt = System.nanoTime();
+        Path target = objectPath(digest.sha256(), fileExtension);
+        boolean deduplicated = !publish(spooledImage, target, false, true);
+        return record(new StoredImage(digest.sha256(), target.toString(), digest.size(), deduplicated), startedAt);
+    }
 
-        // 파일 저장
-        Path filePath = directoryPath.resolve(uniqueFilename);
-        Files.copy(imageFile.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+    /**
+     * 파일 해시 계산 (해시 없이 기록된 이전 버전 spool 항목용)
+     */
+    public SpooledImage digest(Path file) throws IOException {
+        MessageDigest digest = sha256();
+        long size = 0;
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = BUFFERS.get();
+            while (true) {
+                buffer.clear();
+                int read = in.read(buffer);
+                if (read < 0) {
+                    break;
+                }
+                buffer.flip();
+                digest.update(buffer);
+                size += read;
+            }
+        }
+        return new SpooledImage(HEX.formatHex(digest.digest()), size);
+    }
 
-        String savedPath = filePath.toString();
-        log.info("이미지 저장 완료: {}", savedPath);
+    /**
+     * 업로드 크기 확인 (spool 접수 전에도 사용)
+     *
+     * @throws IllegalArgumentException 비어 있거나 제한을 넘는 경우
+     */
+    public void checkSize(long size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("이미지 파일이 비어있습니다");
+        }
+        if (size > maxImageBytes) {
+            throw new IllegalArgumentException("이미지 크기는 " + maxImageBytes + "바이트 이하여야 합니다");
+        }
+    }
 
-        return savedPath;
+    /**
+     * 더 이상 참조하는 학습 데이터가 없으면 이미지 삭제
+     * 방금 다시 참조된 파일(수정 시각이 grace 기간 안)은 저장 중인 캡처가 있을 수 있으므로 남겨 둡니다.
+     *
+     * @return 삭제 여부
+     */
+    public boolean releaseIfUnreferenced(String sha256, String imagePath) {
+        Path path = Paths.get(imagePath).toAbsolutePath().normalize();
+        if (!path.startsWith(objectsPath)) {
+            return false;
+        }
+        // 쓰기 트랜잭션으로 조회해 replica가 아닌 primary의 최신 참조 수를 확인
+        Long references = transactionTemplate.execute(status ->
+                trainingDataLogRepository.countImageReferences(sha256, imagePath));
+        if (references == null || references > 0) {
+            return false;
+        }
+        try {
+            if (Files.getLastModifiedTime(path).toMillis() > System.currentTimeMillis() - releaseGraceMillis) {
+                return false;
+            }
+            return Files.deleteIfExists(path);
+        } catch (NoSuchFileException e) {
+            return false;
+        } catch (IOException e) {
+            log.error("이미지 삭제 실패: {}", imagePath, e);
+            return false;
+        }
     }
 
     /**
@@ -97,4 +267,203 @@ public class ImageStorageService {
     public boolean exists(String imagePath) {
         return Files.exists(Paths.get(imagePath));
     }
+
+    /**
+     * 임시 파일에 기록하면서 SHA-256 계산 (direct buffer로 읽고 FileChannel로 씀)
+     * 크기 제한은 실제로 읽은 바이트 기준으로 확인하며, sync면 내구성 정책에 따라 fsync 합니다.
+     * rename 대상과 같은 볼륨이 되도록 대상 쪽 디렉토리에 만듭니다.
+     */
+    private TempObject writeTemp(ReadableByteChannel in, Path directory, String prefix, boolean sync) throws IOException {
+        ensureDirectory(directory);
+        Path temp = Files.createTempFile(directory, prefix, ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            MessageDigest digest = sha256();
+            ByteBuffer buffer = BUFFERS.get();
+            long size = 0;
+            while (true) {
+                buffer.clear();
+                int read = in.read(buffer);
+                if (read < 0) {
+                    break;
+                }
+                size += read;
+                if (size > maxImageBytes) {
+                    throw new IllegalArgumentException("이미지 크기는 " + maxImageBytes + "바이트 이하여야 합니다");
+                }
+                buffer.flip();
+                digest.update(buffer.duplicate());
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+            }
+            if (size == 0) {
+                throw new IllegalArgumentException("이미지 파일이 비어있습니다");
+            }
+            if (sync && durability != Durability.NONE) {
+                out.force(false);
+            }
+            return new TempObject(temp, HEX.formatHex(digest.digest()), size);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
+    /**
+     * 파일을 저장소 경로에 등록 (이미 있으면 수정 시각만 갱신)
+     * 임시 파일은 같은 볼륨의 objects/tmp에 있으므로 rename 한 번으로 완성된 파일만 보이게 됩니다.
+     *
+     * @param move true면 이동(임시 파일), false면 하드 링크(spool 원본 유지)
+     * @param syncSource true면 등록 전에 원본 내용을 fsync 정책대로 반영 (fsync 없이 기록된 spool 파일)
+     * @return 새로 저장했으면 true, 이미 있던 내용이면 false
+     */
+    private boolean publish(Path source, Path target, boolean move, boolean syncSource) throws IOException {
+        if (touchIfExists(target)) {
+            return false;
+        }
+        if (syncSource && durability != Durability.NONE) {
+            // 하드 링크는 같은 inode라 원본을 fsync하면 등록된 파일도 반영됨
+            try (FileChannel channel = FileChannel.open(source, StandardOpenOption.WRITE)) {
+                channel.force(false);
+            }
+        }
+        Path directory = target.getParent();
+        ensureDirectory(directory);
+        try {
+            try {
+                link(source, target, move);
+            } catch (NoSuchFileException e) {
+                // 캐시된 디렉토리가 외부에서 지워진 경우 다시 만들고 한 번 더 시도
+                if (!Files.exists(source)) {
+                    throw e;
+                }
+                createdDirectories.remove(directory);
+                ensureDirectory(directory);
+                link(source, target, move);
+            }
+        } catch (FileAlreadyExistsException e) {
+            // 같은 내용을 다른 스레드/서버가 먼저 저장
+            touchIfExists(target);
+            return false;
+        }
+        syncDirectory(directory);
+        return true;
+    }
+
+    /**
+     * DIRECTORY 정책이면 rename/link 자체(디렉토리 항목)를 디스크에 반영
+     */
+    private void syncDirectory(Path directory) throws IOException {
+        if (durability == Durability.DIRECTORY) {
+            try (FileChannel directoryChannel = FileChannel.open(directory, StandardOpenOption.READ)) {
+                directoryChannel.force(true);
+            }
+        }
+    }
+
+    private void link(Path source, Path target, boolean move) throws IOException {
+        if (move) {
+            try {
+                Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return;
+        }
+        try {
+            Files.createLink(target, source);
+        } catch (FileAlreadyExistsException | NoSuchFileException e) {
+            throw e;
+        } catch (UnsupportedOperationException | IOException e) {
+            // 하드 링크를 지원하지 않거나 spool이 다른 볼륨에 있는 경우 복사본을 만들어 rename
+            TempObject copy;
+            try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ)) {
+                copy = writeTemp(in, tempPath, "copy-", true);
+            }
+            try {
+                Files.move(copy.path(), target, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(copy.path());
+            }
+        }
+    }
+
+    /**
+     * 디렉토리 생성 (이미 만든 디렉토리는 기억해 두고 다시 확인하지 않음)
+     * 해시 앞 4자리 기준이라 최대 65536개이므로 따로 제한하지 않습니다.
+     */
+    private void ensureDirectory(Path directory) throws IOException {
+        if (createdDirectories.contains(directory)) {
+            return;
+        }
+        Files.createDirectories(directory);
+        createdDirectories.add(directory);
+    }
+
+    private boolean touchIfExists(Path target) throws IOException {
+        try {
+            Files.setLastModifiedTime(target, FileTime.fromMillis(System.currentTimeMillis()));
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    /**
+     * objects/{해시 앞 2자리}/{다음 2자리}/{해시}{확장자} (디렉토리당 파일 수를 제한)
+     */
+    private Path objectPath(String sha256, String fileExtension) {
+        return objectsPath.resolve(sha256.substring(0, 2)).resolve(sha256.substring(2, 4))
+                .resolve(sha256 + fileExtension);
+    }
+
+    private StoredImage record(StoredImage stored, long startedAt) {
+        (stored.deduplicated() ? deduplicatedBytes : storedBytes).add(stored.size());
+        Timer timer = stored.deduplicated() ? deduplicatedTimer : storedTimer;
+        if (timer != null) {
+            timer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+        return stored;
+    }
+
+    static String extensionOf(String originalFilename) {
+        if (originalFilename == null) {
+            return "";
+        }
+        int dot = originalFilename.lastIndexOf('.');
+        String extension = dot >= 0 ? originalFilename.substring(dot).toLowerCase(Locale.ROOT) : "";
+        // 파일명으로 쓰이므로 경로 문자 등은 허용하지 않음
+        return extension.matches("\\.[a-z0-9]{1,10}") ? extension : "";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 저장 결과
+     *
+     * @param sha256 내용 해시 (hex)
+     * @param path 저장된 파일 경로
+     * @param size 파일 크기 (바이트)
+     * @param deduplicated 같은 내용이 이미 있어 새로 쓰지 않았는지 여부
+     */
+    public record StoredImage(String sha256, String path, long size, boolean deduplicated) {
+    }
+
+    /**
+     * spool 기록 결과
+     *
+     * @param sha256 내용 해시 (hex)
+     * @param size 파일 크기 (바이트)
+     */
+    public record SpooledImage(String sha256, long size) {
+    }
+
+    private record TempObject(Path path, String sha256, long size) {
+    }
 }
@@ -0,0 +1,308 @@
+package com.example.backendspring.service;
+
+import com.example.backendspring.config.ReplicaRoutingDataSource;
+import com.example.backendspring.dto.calorie.LiveCalorieUpdate;
+import com.example.backendspring.dto.common.ApiResponse;
+import com.example.backendspring.event.MealChangedEvent;
+import com.example.backendspring.event.UserGoalChangedEvent;
+import com.example.backendspring.repository.DailyCalorieTotal;
+import com.example.backendspring.repository.UserDataVersion;
+import com.example.backendspring.repository.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 유저별 실시간 칼로리 스트림 (SSE)
+ *
+ * SseEmitter는 서블릿 비동기 요청이므로 대기 중인 연결은 스레드를 점유하지 않습니다.
+ * 식사/목표 쓰기가 커밋되면 구독자가 있는 유저에 대해서만 해당 날짜 합계를 한 번 조회해
+ * 작은 전용 풀에서 모든 구독자에게 보냅니다.
+ *
+ * 다른 서버에서 커밋된 쓰기는 이벤트가 오지 않으므로, 이 서버에 구독자가 있는 유저의 users.data_version을
+ * poll-ms마다 묶어서 조회하고 버전이 올라간 유저에게 오늘 합계를 보냅니다 (삭제된 유저의 연결은 종료).
+ * heartbeat와 버전 조회는 공용 @Scheduled 스레드가 아닌 전용 스케줄러에서 실행합니다.
+ */
+@Slf4j
+@Service
+public class LiveCalorieService {
+
+    private static final String CALORIE_EVENT = "calorie";
+    private static final int VERSION_POLL_CHUNK_SIZE = 500;
+
+    private final DailyCalorieSummaryService dailyCalorieSummaryService;
+    private final AuthService authService;
+    private final UserRepository userRepository;
+    private final UserDataVersionService userDataVersionService;
+    private final TransactionTemplate primaryReadTemplate;
+    // 구독 중인 유저별로 마지막으로 전송에 반영한 데이터 버전
+    private final Map<String, Long> seenVersions = new ConcurrentHashMap<>();
+    private final Map<String, ConcurrentLinkedDeque<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final ThreadPoolTaskExecutor publisher;
+    private final ScheduledExecutorService scheduler;
+    private final long emitterTimeoutMillis;
+    private final int maxConnectionsPerUser;
+
+    public LiveCalorieService(DailyCalorieSummaryService dailyCalorieSummaryService,
+                              AuthService authService,
+                              UserRepository userRepository,
+                              UserDataVersionService userDataVersionService,
+                              PlatformTransactionManager transactionManager,
+                              ObjectProvider<MeterRegistry> meterRegistryProvider,
+                              @Value("${live-calorie.emitter-timeout-ms:1800000}") long emitterTimeoutMillis,
+                              @Value("${live-calorie.max-connections-per-user:5}") int maxConnectionsPerUser,
+                              @Value("${live-calorie.publisher.pool-size:4}") int publisherPoolSize,
+                              @Value("${live-calorie.heartbeat-ms:25000}") long heartbeatMillis,
+                              @Value("${live-calorie.poll-ms:2000}") long pollMillis) {
+        this.dailyCalorieSummaryService = dailyCalorieSummaryService;
+        this.authService = authService;
+        this.userRepository = userRepository;
+        this.userDataVersionService = userDataVersionService;
+        // readOnly가 아닌 트랜잭션으로 읽어 replica 지연 없이 primary의 버전을 확인
+        this.primaryReadTemplate = new TransactionTemplate(transactionManager);
+        this.emitterTimeoutMillis = emitterTimeoutMillis;
+        this.maxConnectionsPerUser = maxConnectionsPerUser;
+
+        this.publisher = new ThreadPoolTaskExecutor();
+        this.publisher.setCorePoolSize(publisherPoolSize);
+        this.publisher.setMaxPoolSize(publisherPoolSize);
+        this.publisher.setQueueCapacity(10_000);
+        this.publisher.setThreadNamePrefix("live-calorie-");
+        this.publisher.initialize();
+
+        // heartbeat와 버전 조회가 서로를 기다리지 않도록 스레드 2개
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.scheduler = Executors.newScheduledThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "live-calorie-scheduler-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::sendHeartbeats, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+        this.scheduler.scheduleWithFixedDelay(this::pollDataVersions, pollMillis, pollMillis, TimeUnit.MILLISECONDS);
+
+        meterRegistryProvider.ifAvailable(registry ->
+                Gauge.builder("live.calorie.connections", connectionCount, AtomicInteger::get).register(registry));
+    }
+
+    /**
+     * 구독 등록 후 오늘 합계를 첫 이벤트로 전송
+     */
+    public SseEmitter subscribe(String userUniqueCode) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        LiveCalorieUpdate initial;
+        try {
+            // 첫 합계보다 먼저 버전을 기록해 그 사이 다른 서버의 쓰기를 놓치지 않음
+            Long version = userDataVersionService.currentVersion(userUniqueCode);
+            if (version != null) {
+                seenVersions.merge(userUniqueCode, version, Math::max);
+            }
+            initial = loadUpdate(userUniqueCode, authService.getUserSummary(userUniqueCode).getTargetCalories(),
+                    LocalDate.now());
+        } catch (IllegalArgumentException e) {
+            sendError(emitter, e.getMessage());
+            return emitter;
+        }
+
+        // 등록/해제를 같은 키의 compute 안에서 처리해 비워진 목록에 등록되는 경우를 막음
+        ConcurrentLinkedDeque<SseEmitter> emitters = subscribers.compute(userUniqueCode, (code, existing) -> {
+            ConcurrentLinkedDeque<SseEmitter> deque = existing != null ? existing : new ConcurrentLinkedDeque<>();
+            deque.add(emitter);
+            return deque;
+        });
+        connectionCount.incrementAndGet();
+        emitter.onCompletion(() -> unregister(userUniqueCode, emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> emitter.complete());
+
+        // 유저당 연결 수 제한 (가장 오래된 연결부터 종료)
+        while (emitters.size() > maxConnectionsPerUser) {
+            SseEmitter oldest = emitters.pollFirst();
+            if (oldest == null) {
+                break;
+            }
+            connectionCount.decrementAndGet();
+            oldest.complete();
+        }
+
+        send(userUniqueCode, emitter, initial);
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onMealChanged(MealChangedEvent event) {
+        publish(event.getUserUniqueCode(), null, event.getAffectedDates());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onGoalChanged(UserGoalChangedEvent event) {
+        publish(event.getUserUniqueCode(), event.getDailyCalorieGoal(), Set.of(LocalDate.now()));
+    }
+
+    private void publish(String userUniqueCode, Integer knownGoal, Collection<LocalDate> dates) {
+        if (!subscribers.containsKey(userUniqueCode)) {
+            return;
+        }
+        try {
+            publisher.execute(() -> {
+                // 방금 커밋된 값을 읽어야 하므로 replica가 아닌 primary에서 조회
+                ReplicaRoutingDataSource.pinPrimary();
+                try {
+                    // 이 서버에서 보낸 변경을 버전 조회가 다시 보내지 않도록 현재 버전을 기록
+                    Long version = userDataVersionService.currentVersion(userUniqueCode);
+                    if (version != null && subscribers.containsKey(userUniqueCode)) {
+                        seenVersions.merge(userUniqueCode, version, Math::max);
+                    }
+                    Integer goal = knownGoal != null ? knownGoal
+                            : authService.getUserSummary(userUniqueCode).getTargetCalories();
+                    for (LocalDate date : dates) {
+                        LiveCalorieUpdate update = loadUpdate(userUniqueCode, goal, date);
+                        ConcurrentLinkedDeque<SseEmitter> emitters = subscribers.get(userUniqueCode);
+                        if (emitters == null) {
+                            return;
+                        }
+                        for (SseEmitter emitter : emitters) {
+                            send(userUniqueCode, emitter, update);
+                        }
+                    }
+                } catch (Exception e) {
+                    log.warn("실시간 칼로리 전송 실패 - 유저: {}, {}", userUniqueCode, e.getMessage());
+                } finally {
+                    ReplicaRoutingDataSource.clearPrimaryPin();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("실시간 칼로리 전송 대기열 초과 - 유저: {}", userUniqueCode);
+        }
+    }
+
+    private LiveCalorieUpdate loadUpdate(String userUniqueCode, Integer goal, LocalDate date) {
+        List<DailyCalorieTotal> totals = dailyCalorieSummaryService.getDailyTotals(userUniqueCode, date, date);
+        int actualCalories = totals.isEmpty() ? 0 : totals.get(0).getTotalCalories();
+        int targetCalories = goal != null ? goal : 2000;
+        return LiveCalorieUpdate.builder()
+                .date(date)
+                .targetCalories(targetCalories)
+                .actualCalories(actualCalories)
+                .exceededCalories(actualCalories - targetCalories)
+                .build();
+    }
+
+    private void send(String userUniqueCode, SseEmitter emitter, LiveCalorieUpdate update) {
+        try {
+            emitter.send(SseEmitter.event().name(CALORIE_EVENT).data(ApiResponse.success(update)));
+        } catch (IOException | IllegalStateException e) {
+            // 끊긴 연결: 등록 해제 후 정리
+            unregister(userUniqueCode, emitter);
+            emitter.completeWithError(e);
+        }
+    }
+
+    private void sendError(SseEmitter emitter, String message) {
+        try {
+            emitter.send(SseEmitter.event().name("error").data(ApiResponse.error(message)));
+            emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+        }
+    }
+
+    private void unregister(String userUniqueCode, SseEmitter emitter) {
+        subscribers.computeIfPresent(userUniqueCode, (code, emitters) -> {
+            if (emitters.remove(emitter)) {
+                connectionCount.decrementAndGet();
+            }
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+
+    /**
+     * 다른 서버에서 커밋된 쓰기 감지 (구독 중인 유저의 데이터 버전을 묶어서 조회)
+     */
+    private void pollDataVersions() {
+        try {
+            List<String> codes = new ArrayList<>(subscribers.keySet());
+            seenVersions.keySet().retainAll(subscribers.keySet());
+            for (int from = 0; from < codes.size(); from += VERSION_POLL_CHUNK_SIZE) {
+                List<String> chunk = codes.subList(from, Math.min(codes.size(), from + VERSION_POLL_CHUNK_SIZE));
+                List<UserDataVersion> versions = primaryReadTemplate.execute(status ->
+                        userRepository.findDataVersionsByUniqueCodeIn(chunk));
+                Set<String> found = new HashSet<>();
+                for (UserDataVersion version : versions) {
+                    found.add(version.getUniqueCode());
+                    Long previous = seenVersions.put(version.getUniqueCode(), version.getDataVersion());
+                    if (previous != null && version.getDataVersion() > previous) {
+                        publish(version.getUniqueCode(), null, Set.of(LocalDate.now()));
+                    }
+                }
+                for (String code : chunk) {
+                    if (!found.contains(code)) {
+                        // 삭제된 유저
+                        closeAll(code);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.warn("실시간 칼로리 데이터 버전 조회 실패: {}", e.getMessage());
+        }
+    }
+
+    private void closeAll(String userUniqueCode) {
+        ConcurrentLinkedDeque<SseEmitter> emitters = subscribers.remove(userUniqueCode);
+        seenVersions.remove(userUniqueCode);
+        if (emitters != null) {
+            connectionCount.addAndGet(-emitters.size());
+            emitters.forEach(SseEmitter::complete);
+        }
+    }
+
+    /**
+     * 프록시/로드밸런서의 유휴 연결 종료를 막기 위한 주석 heartbeat, 끊긴 연결 정리도 겸함
+     */
+    private void sendHeartbeats() {
+        subscribers.forEach((userUniqueCode, emitters) -> {
+            for (SseEmitter emitter : emitters) {
+                try {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                } catch (IOException | IllegalStateException e) {
+                    unregister(userUniqueCode, emitter);
+                    emitter.completeWithError(e);
+                }
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        subscribers.values().forEach(emitters -> emitters.forEach(SseEmitter::complete));
+        subscribers.clear();
+        publisher.shutdown();
+    }
+}
@@ -0,0 +1,195 @@
+package com.example.backendspring.service;
+
+import com.example.backendspring.entity.Meal;
+import com.example.backendspring.repository.MealRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MealExportService {
+
+    private static final int FLUSH_INTERVAL = 500;
+
+    private static final String CSV_HEADER = "id,meal_date,meal_time,meal_type,food_count,"
+            + "food1_name,food1_calories,food2_name,food2_calories,food3_name,food3_calories,"
+            + "total_calories,created_at";
+
+    private final MealRepository mealRepository;
+    private final AuthService authService;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv;charset=UTF-8", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format from(String value) {
+            try {
+                return Format.valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new IllegalArgumentException("지원하지 않는 내보내기 형식입니다: " + value);
+            }
+        }
+    }
+
+    /**
+     * 내보내기 전 유저 존재 확인 (스트리밍 시작 전에 오류 응답을 보낼 수 있도록)
+     */
+    public void checkExportable(String userUniqueCode) {
+        authService.getUserSummary(userUniqueCode);
+    }
+
+    /**
+     * 유저의 전체 식사 기록을 출력 스트림으로 내보내기
+     *
+     * 식사를 DB 커서로 한 건씩 읽어 바로 기록하고 영속성 컨텍스트에서 분리하므로
+     * 기록 기간과 무관하게 메모리 사용량이 일정합니다.
+     *
+     * @param userUniqueCode 유저 고유 코드
+     * @param format 출력 형식 (NDJSON, CSV)
+     * @param out 응답 출력 스트림 (닫지 않음)
+     * @return 내보낸 식사 건수
+     */
+    @Transactional(readOnly = true)
+    public long exportMeals(String userUniqueCode, Format format, OutputStream out) throws IOException {
+        long count;
+        try (Stream<Meal> meals = mealRepository.streamByUserUniqueCode(userUniqueCode)) {
+            count = format == Format.CSV
+                    ? writeCsv(meals.iterator(), out)
+                    : writeNdjson(meals.iterator(), out);
+        }
+        log.info("식사 내보내기 완료 - 유저: {}, 형식: {}, 건수: {}", userUniqueCode, format, count);
+        return count;
+    }
+
+    private long writeNdjson(Iterator<Meal> meals, OutputStream out) throws IOException {
+        long count = 0;
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+
+        while (meals.hasNext()) {
+            Meal meal = meals.next();
+            generator.writeStartObject();
+            generator.writeNumberField("id", meal.getId());
+            generator.writeStringField("mealDate", meal.getMealDate().toString());
+            generator.writeStringField("mealTime", meal.getMealTime().toString());
+            generator.writeStringField("mealType", meal.getMealType().name());
+            generator.writeNumberField("foodCount", meal.getFoodCount());
+            writeFood(generator, "food1", meal.getFood1Name(), meal.getFood1Calories());
+            writeFood(generator, "food2", meal.getFood2Name(), meal.getFood2Calories());
+            writeFood(generator, "food3", meal.getFood3Name(), meal.getFood3Calories());
+            generator.writeNumberField("totalCalories", meal.getTotalCalories() != null ? meal.getTotalCalories() : 0);
+            generator.writeStringField("createdAt", meal.getCreatedAt() != null ? meal.getCreatedAt().toString() : null);
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+
+            entityManager.detach(meal);
+            if (++count % FLUSH_INTERVAL == 0) {
+                generator.flush();
+            }
+        }
+        generator.close();
+        return count;
+    }
+
+    private void writeFood(JsonGenerator generator, String prefix, String name, Integer calories) throws IOException {
+        generator.writeStringField(prefix + "Name", name);
+        if (calories != null) {
+            generator.writeNumberField(prefix + "Calories", calories);
+        } else {
+            generator.writeNullField(prefix + "Calories");
+        }
+    }
+
+    private long writeCsv(Iterator<Meal> meals, OutputStream out) throws IOException {
+        long count = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+
+        while (meals.hasNext()) {
+            Meal meal = meals.next();
+            writer.write(String.valueOf(meal.getId()));
+            writer.write(',');
+            writer.write(meal.getMealDate().toString());
+            writer.write(',');
+            writer.write(meal.getMealTime().toString());
+            writer.write(',');
+            writer.write(meal.getMealType().name());
+            writer.write(',');
+            writer.write(String.valueOf(meal.getFoodCount()));
+            writer.write(',');
+            writer.write(csvField(meal.getFood1Name()));
+            writer.write(',');
+            writer.write(csvField(meal.getFood1Calories()));
+            writer.write(',');
+            writer.write(csvField(meal.getFood2Name()));
+            writer.write(',');
+            writer.write(csvField(meal.getFood2Calories()));
+            writer.write(',');
+            writer.write(csvField(meal.getFood3Name()));
+            writer.write(',');
+            writer.write(csvField(meal.getFood3Calories()));
+            writer.write(',');
+            writer.write(csvField(meal.getTotalCalories()));
+            writer.write(',');
+            writer.write(csvField(meal.getCreatedAt()));
+            writer.write('\n');
+
+            entityManager.detach(meal);
+            if (++count % FLUSH_INTERVAL == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    /**
+     * RFC 4180 규칙에 따라 CSV 필드 이스케이프
+     */
+    private String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
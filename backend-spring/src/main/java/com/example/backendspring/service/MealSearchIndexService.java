@@ -0,0 +1,222 @@
+package com.example.backendspring.service;
+
+import com.example.backendspring.entity.Meal;
+import com.example.backendspring.repository.MealRepository;
+import com.example.backendspring.repository.MealSearchTokenRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 유저별 음식명 검색 역색인(meal_search_tokens) 관리
+ *
+ * 음식명을 공백으로 나눈 단어마다 2글자 토큰을 만들어 (유저, 토큰, 식사 ID)로 저장하고,
+ * 식사 쓰기와 같은 트랜잭션에서 갱신합니다. 검색은 해당 유저의 토큰 범위에서 후보를 찾은 뒤
+ * 부분 일치로 확인하므로, 전체 유저의 기록 수와 무관하게 검색어를 가진 본인 기록만 읽습니다.
+ */
+@Slf4j
+@Service
+public class MealSearchIndexService {
+
+    static final int TOKEN_SIZE = 2;
+
+    private static final String INSERT_SQL =
+            "INSERT IGNORE INTO meal_search_tokens (user_unique_code, token, meal_id) VALUES (?, ?, ?)";
+
+    private final MealSearchTokenRepository tokenRepository;
+    private final MealRepository mealRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${meal-search.backfill.batch-size:500}")
+    private int backfillBatchSize;
+
+    public MealSearchIndexService(MealSearchTokenRepository tokenRepository,
+                                  MealRepository mealRepository,
+                                  JdbcTemplate jdbcTemplate,
+                                  EntityManager entityManager,
+                                  PlatformTransactionManager transactionManager) {
+        this.tokenRepository = tokenRepository;
+        this.mealRepository = mealRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * 식사 음식명 토큰 추가 (호출한 쓰기 트랜잭션 안에서 실행)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void index(Meal meal) {
+        insertTokens(List.of(new IndexedMeal(meal.getId(), meal.getUserUniqueCode(),
+                meal.getFood1Name(), meal.getFood2Name(), meal.getFood3Name())));
+    }
+
+    /**
+     * 식사 음식명 토큰 제거 (수정 시에는 제거 후 다시 추가)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void remove(Long mealId) {
+        tokenRepository.deleteByMealId(mealId);
+    }
+
+    /**
+     * 유저의 식사 기록에서 모든 검색어를 포함하는 식사 검색 (최신순)
+     *
+     * 검색어의 2글자 토큰을 모두 가진 식사만 후보로 고르고, 토큰 순서가 달라 생기는 오탐은
+     * 후보 안에서 검색어별 부분 일치로 걸러냅니다.
+     *
+     * @param terms 소문자로 바꾼 검색어 단어 (2글자 이상 단어가 하나 이상 있어야 함)
+     */
+    public Page<Meal> search(String userUniqueCode, List<String> terms, Pageable pageable) {
+        Set<String> tokens = new LinkedHashSet<>();
+        terms.forEach(term -> tokens.addAll(tokensOf(term)));
+        if (tokens.isEmpty()) {
+            throw new IllegalArgumentException("검색어는 2글자 이상 단어를 포함해야 합니다");
+        }
+
+        List<Object> params = new ArrayList<>();
+        StringBuilder from = new StringBuilder("FROM meals m JOIN (SELECT meal_id FROM meal_search_tokens ")
+                .append("WHERE user_unique_code = ?").append(bind(params, userUniqueCode))
+                .append(" AND token IN (");
+        int i = 0;
+        for (String token : tokens) {
+            from.append(i++ > 0 ? ", ?" : "?").append(bind(params, token));
+        }
+        from.append(") GROUP BY meal_id HAVING COUNT(*) = ?").append(bind(params, tokens.size()))
+                .append(") t ON t.meal_id = m.id WHERE m.user_unique_code = ?").append(bind(params, userUniqueCode));
+        for (String term : terms) {
+            String pattern = "%" + escapeLike(term) + "%";
+            from.append(" AND (m.food1_name LIKE ?").append(bind(params, pattern))
+                    .append(" OR m.food2_name LIKE ?").append(bind(params, pattern))
+                    .append(" OR m.food3_name LIKE ?").append(bind(params, pattern))
+                    .append(')');
+        }
+
+        Query countQuery = entityManager.createNativeQuery("SELECT COUNT(*) " + from);
+        Query pageQuery = entityManager.createNativeQuery("SELECT m.* " + from +
+                " ORDER BY m.meal_date DESC, m.meal_time DESC, m.id DESC" +
+                " LIMIT " + pageable.getPageSize() + " OFFSET " + pageable.getOffset(), Meal.class);
+        for (int p = 0; p < params.size(); p++) {
+            countQuery.setParameter(p + 1, params.get(p));
+            pageQuery.setParameter(p + 1, params.get(p));
+        }
+
+        long total = ((Number) countQuery.getSingleResult()).longValue();
+        @SuppressWarnings("unchecked")
+        List<Meal> meals = total > pageable.getOffset() ? pageQuery.getResultList() : List.of();
+        return new PageImpl<>(meals, pageable, total);
+    }
+
+    /**
+     * 검색 토큰 테이블이 새로 생겨 비어 있으면 기존 식사로 채움 (최초 배포 시)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeIfEmpty() {
+        try {
+            if (tokenRepository.count() == 0 && mealRepository.count() > 0) {
+                log.info("음식명 검색 색인이 비어 있어 식사 기록으로 채웁니다");
+                CompletableFuture.runAsync(this::backfill)
+                        .exceptionally(e -> {
+                            log.error("음식명 검색 색인 초기 구성 실패", e);
+                            return null;
+                        });
+            }
+        } catch (Exception e) {
+            log.warn("음식명 검색 색인 초기화 확인 실패: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 식사 ID 순으로 배치를 나누어 토큰 채우기 (INSERT IGNORE라 여러 서버가 동시에 실행해도 안전)
+     *
+     * 채우는 도중 수정/삭제된 식사의 이전 토큰이 남을 수 있으나, 검색 시 부분 일치 확인과
+     * meals 조인으로 걸러지므로 결과에는 영향이 없습니다.
+     */
+    private void backfill() {
+        long startedAt = System.currentTimeMillis();
+        long lastId = 0;
+        long indexed = 0;
+        while (true) {
+            long afterId = lastId;
+            List<IndexedMeal> batch = jdbcTemplate.query(
+                    "SELECT id, user_unique_code, food1_name, food2_name, food3_name FROM meals " +
+                    "WHERE id > ? ORDER BY id LIMIT ?",
+                    (rs, rowNum) -> new IndexedMeal(rs.getLong("id"), rs.getString("user_unique_code"),
+                            rs.getString("food1_name"), rs.getString("food2_name"), rs.getString("food3_name")),
+                    afterId, backfillBatchSize);
+            if (batch.isEmpty()) {
+                break;
+            }
+            transactionTemplate.executeWithoutResult(status -> insertTokens(batch));
+            lastId = batch.get(batch.size() - 1).id();
+            indexed += batch.size();
+        }
+        log.info("음식명 검색 색인 구성 완료 - 식사 {}건, {}ms", indexed, System.currentTimeMillis() - startedAt);
+    }
+
+    private void insertTokens(Collection<IndexedMeal> meals) {
+        List<Object[]> rows = new ArrayList<>();
+        for (IndexedMeal meal : meals) {
+            Set<String> tokens = new LinkedHashSet<>();
+            tokens.addAll(tokensOf(meal.food1Name()));
+            tokens.addAll(tokensOf(meal.food2Name()));
+            tokens.addAll(tokensOf(meal.food3Name()));
+            tokens.forEach(token -> rows.add(new Object[]{meal.userUniqueCode(), token, meal.id()}));
+        }
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        }
+    }
+
+    /**
+     * 공백으로 나눈 각 단어의 연속 2글자 토큰 (소문자, 코드 포인트 단위)
+     * 2글자보다 짧은 단어는 토큰을 만들지 않습니다.
+     */
+    static Set<String> tokensOf(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String word : text.toLowerCase(Locale.ROOT).split("\\s+")) {
+            int[] codePoints = word.codePoints().toArray();
+            for (int i = 0; i + TOKEN_SIZE <= codePoints.length; i++) {
+                tokens.add(new String(codePoints, i, TOKEN_SIZE));
+            }
+        }
+        return tokens;
+    }
+
+    private static String bind(List<Object> params, Object value) {
+        params.add(value);
+        return String.valueOf(params.size());
+    }
+
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private record IndexedMeal(Long id, String userUniqueCode, String food1Name, String food2Name, String food3Name) {
+    }
+}
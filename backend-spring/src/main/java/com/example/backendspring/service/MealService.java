@@ -1,18 +1,25 @@
 package com.example.backendspring.service;
 
+import com.example.backendspring.dto.auth.UserSummary;
 import com.example.backendspring.dto.meal.FoodResponse;
 import com.example.backendspring.dto.meal.MealRequest;
 import com.example.backendspring.dto.meal.MealResponse;
+import com.example.backendspring.dto.meal.MealSearchResponse;
 import com.example.backendspring.entity.Meal;
-import com.example.backendspring.entity.User;
+import com.example.backendspring.event.MealChangedEvent;
 import com.example.backendspring.repository.MealRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.stream.Collectors;
 
 @Service
@@ -20,13 +27,21 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class MealService {
     
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+    
     private final MealRepository mealRepository;
     private final AuthService authService;
+    private final DailyCalorieSummaryService dailyCalorieSummaryService;
+    private final MealSearchIndexService mealSearchIndexService;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final UserDataVersionService userDataVersionService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SessionTokenService sessionTokenService;
     
     @Transactional
     public MealResponse createMeal(MealRequest request) {
-        // 유저 존재 확인
-        User user = authService.getUserByUniqueCode(request.getUserUniqueCode());
+        // 유저 존재 확인 (세션 토큰이 있으면 DB 조회 없음)
+        UserSummary user = authService.getUserSummary(request.getUserUniqueCode());
         
         // Meal 생성
         Meal meal = Meal.builder()
@@ -46,13 +61,19 @@ public class MealService {
         meal.calculateTotalCalories();
         
         Meal savedMeal = mealRepository.save(meal);
+        dailyCalorieSummaryService.addMeal(savedMeal);
+        mealSearchIndexService.index(savedMeal);
+        userDataVersionService.bump(savedMeal.getUserUniqueCode());
+        readYourWritesTracker.markWrite(savedMeal.getUserUniqueCode());
+        eventPublisher.publishEvent(new MealChangedEvent(MealChangedEvent.ChangeType.CREATED,
+                savedMeal.getUserUniqueCode(), null, snapshot(savedMeal)));
         return convertToMealResponse(savedMeal);
     }
     
     @Transactional
     public MealResponse updateMeal(Long mealId, MealRequest request) {
-        Meal meal = mealRepository.findById(mealId)
-                .orElseThrow(() -> new IllegalArgumentException("식사를 찾을 수 없습니다"));
+        Meal meal = findOwnedMeal(mealId);
+        Meal previous = snapshot(meal);
         
         // 기본 정보 업데이트
         meal.setMealDate(request.getMealDate());
@@ -71,20 +92,31 @@ public class MealService {
         meal.calculateTotalCalories();
         
         Meal updatedMeal = mealRepository.save(meal);
+        dailyCalorieSummaryService.removeMeal(previous);
+        dailyCalorieSummaryService.addMeal(updatedMeal);
+        mealSearchIndexService.remove(updatedMeal.getId());
+        mealSearchIndexService.index(updatedMeal);
+        userDataVersionService.bump(updatedMeal.getUserUniqueCode());
+        readYourWritesTracker.markWrite(updatedMeal.getUserUniqueCode());
+        eventPublisher.publishEvent(new MealChangedEvent(MealChangedEvent.ChangeType.UPDATED,
+                updatedMeal.getUserUniqueCode(), previous, snapshot(updatedMeal)));
         return convertToMealResponse(updatedMeal);
     }
     
     @Transactional
     public void deleteMeal(Long mealId) {
-        if (!mealRepository.existsById(mealId)) {
-            throw new IllegalArgumentException("식사를 찾을 수 없습니다");
-        }
-        mealRepository.deleteById(mealId);
+        Meal meal = findOwnedMeal(mealId);
+        mealRepository.delete(meal);
+        dailyCalorieSummaryService.removeMeal(meal);
+        mealSearchIndexService.remove(meal.getId());
+        userDataVersionService.bump(meal.getUserUniqueCode());
+        readYourWritesTracker.markWrite(meal.getUserUniqueCode());
+        eventPublisher.publishEvent(new MealChangedEvent(MealChangedEvent.ChangeType.DELETED,
+                meal.getUserUniqueCode(), snapshot(meal), null));
     }
     
     public MealResponse getMealById(Long mealId) {
-        Meal meal = mealRepository.findById(mealId)
-                .orElseThrow(() -> new IllegalArgumentException("식사를 찾을 수 없습니다"));
+        Meal meal = findOwnedMeal(mealId);
         return convertToMealResponse(meal);
     }
     
@@ -102,6 +134,79 @@ public class MealService {
                 .collect(Collectors.toList());
     }
     
+    /**
+     * 음식명으로 식사 기록 검색 (최신순, 페이지 단위)
+     *
+     * 유저별 검색 토큰 색인에서 후보를 찾으므로 다른 유저의 기록이 늘어나도 본인 기록 범위만 읽습니다.
+     * 검색어가 모두 토큰(2글자)보다 짧으면 유저 인덱스 범위 내 부분 일치로 검색합니다.
+     */
+    public MealSearchResponse searchMealsByFoodName(String userUniqueCode, String query, int page, int size) {
+        String keyword = query == null ? "" : query.trim();
+        if (keyword.isEmpty()) {
+            throw new IllegalArgumentException("검색어를 입력해주세요");
+        }
+        if (page < 0 || size < 1) {
+            throw new IllegalArgumentException("페이지 정보가 올바르지 않습니다");
+        }
+        
+        PageRequest pageRequest = PageRequest.of(page, Math.min(size, MAX_SEARCH_PAGE_SIZE));
+        List<String> terms = List.of(keyword.toLowerCase(Locale.ROOT).split("\\s+"));
+        boolean indexed = terms.stream()
+                .anyMatch(term -> term.codePointCount(0, term.length()) >= MealSearchIndexService.TOKEN_SIZE);
+        Page<Meal> result = indexed
+                ? mealSearchIndexService.search(userUniqueCode, terms, pageRequest)
+                : mealRepository.searchByFoodNameLike(userUniqueCode, keyword, pageRequest);
+        
+        return MealSearchResponse.builder()
+                .query(keyword)
+                .page(result.getNumber())
+                .size(result.getSize())
+                .totalElements(result.getTotalElements())
+                .totalPages(result.getTotalPages())
+                .meals(result.getContent().stream()
+                        .map(this::convertToMealResponse)
+                        .collect(Collectors.toList()))
+                .build();
+    }
+    
+    /**
+     * 식사 ID로 조회하고 현재 세션 토큰의 유저 소유인지 확인
+     * (ID 기반 경로에는 유저 코드가 없어 인터셉터가 확인할 수 없으므로 여기서 확인)
+     *
+     * @throws AccessDeniedException 다른 유저의 식사인 경우
+     */
+    private Meal findOwnedMeal(Long mealId) {
+        Meal meal = mealRepository.findById(mealId)
+                .orElseThrow(() -> new IllegalArgumentException("식사를 찾을 수 없습니다"));
+        if (!sessionTokenService.canAccess(meal.getUserUniqueCode())) {
+            throw new AccessDeniedException("다른 사용자의 데이터에는 접근할 수 없습니다");
+        }
+        return meal;
+    }
+    
+    /**
+     * 이벤트 전달용 식사 사본 (이후 엔티티 변경의 영향을 받지 않도록)
+     */
+    private Meal snapshot(Meal meal) {
+        return Meal.builder()
+                .id(meal.getId())
+                .userUniqueCode(meal.getUserUniqueCode())
+                .mealDate(meal.getMealDate())
+                .mealTime(meal.getMealTime())
+                .mealType(meal.getMealType())
+                .foodCount(meal.getFoodCount())
+                .food1Name(meal.getFood1Name())
+                .food1Calories(meal.getFood1Calories())
+                .food2Name(meal.getFood2Name())
+                .food2Calories(meal.getFood2Calories())
+                .food3Name(meal.getFood3Name())
+                .food3Calories(meal.getFood3Calories())
+                .totalCalories(meal.getTotalCalories())
+                .createdAt(meal.getCreatedAt())
+                .updatedAt(meal.getUpdatedAt())
+                .build();
+    }
+    
     private MealResponse convertToMealResponse(Meal meal) {
         return MealResponse.builder()
                 .id(meal.getId())
@@ -0,0 +1,226 @@
+package com.example.backendspring.service;
+
+import com.example.backendspring.event.MealChangedEvent;
+import com.example.backendspring.event.UserDeletedEvent;
+import com.example.backendspring.event.UserGoalChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 유저별 월 달력 캐시
+ *
+ * (유저, 연월)마다 일별 칼로리를 int[일수] 배열로 목표 칼로리와 함께 보관합니다.
+ * - 식사 쓰기 커밋 시 해당 날짜의 월만, 목표 변경 시 해당 유저의 모든 월을 무효화
+ * - 같은 키를 동시에 조회하면 한 요청만 DB를 읽고 나머지는 결과를 기다림 (cache stampede 방지)
+ * - 로딩 중 무효화가 일어나면 로딩 결과를 캐시에 넣지 않음 (진행 중인 로딩에 무효화 표시, 따로 유저별 상태를 두지 않음)
+ * - 각 월은 로딩한 스냅샷의 users.data_version을 함께 보관하고, 적중 시 호출자가 넘긴 버전보다 낮으면 다시 로딩
+ *   (다른 서버의 쓰기나 지연된 replica에서 읽은 월이 TTL 동안 남지 않도록, 무효화 이벤트는 이 서버의 쓰기만 받음)
+ */
+@Component
+public class MonthlyCalorieCache {
+
+    private static final int ENTRY_OVERHEAD_BYTES = 160;
+
+    private final Map<MonthKey, MonthCalendar> entries;
+    private final Map<MonthKey, Load> inFlight = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    public MonthlyCalorieCache(@Value("${calendar-cache.max-entries:50000}") int maxEntries,
+                               @Value("${calendar-cache.ttl-seconds:600}") long ttlSeconds,
+                               ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        this.ttlMillis = ttlSeconds * 1000;
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<MonthKey, MonthCalendar> eldest) {
+                return size() > maxEntries;
+            }
+        });
+
+        MeterRegistry meterRegistry = meterRegistryProvider.getIfAvailable();
+        if (meterRegistry != null) {
+            hitCounter = Counter.builder("calendar.cache.requests").tag("result", "hit").register(meterRegistry);
+            missCounter = Counter.builder("calendar.cache.requests").tag("result", "miss").register(meterRegistry);
+            Gauge.builder("calendar.cache.hit.ratio", this, MonthlyCalorieCache::hitRatio).register(meterRegistry);
+            Gauge.builder("calendar.cache.size", entries, Map::size).register(meterRegistry);
+            Gauge.builder("calendar.cache.memory.bytes", this, MonthlyCalorieCache::estimatedBytes)
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+        } else {
+            hitCounter = null;
+            missCounter = null;
+        }
+    }
+
+    /**
+     * 캐시된 월 달력 조회, 없거나 minVersion보다 오래된 경우 loader로 한 번만 로딩
+     *
+     * @param minVersion 응답이 반영해야 하는 최소 데이터 버전 (UserDataVersionService.versionForRead)
+     */
+    public MonthCalendar get(String userUniqueCode, YearMonth yearMonth, long minVersion,
+                             Supplier<MonthCalendar> loader) {
+        MonthKey key = new MonthKey(userUniqueCode, yearMonth);
+        MonthCalendar cached = entries.get(key);
+        if (cached != null && !cached.isExpired(ttlMillis) && cached.dataVersion() >= minVersion) {
+            recordHit();
+            return cached;
+        }
+        recordMiss();
+
+        Load load = new Load();
+        Load loading = inFlight.putIfAbsent(key, load);
+        if (loading != null) {
+            MonthCalendar shared = await(loading.future);
+            // 먼저 시작한 로딩이 더 오래된 버전을 읽었으면 직접 읽음 (캐시에는 넣지 않음)
+            return shared.dataVersion() >= minVersion ? shared : loader.get();
+        }
+
+        try {
+            MonthCalendar loaded = loader.get();
+            synchronized (entries) {
+                if (!load.invalidated) {
+                    entries.put(key, loaded);
+                }
+            }
+            load.future.complete(loaded);
+            return loaded;
+        } catch (RuntimeException e) {
+            load.future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, load);
+        }
+    }
+
+    /**
+     * 식사 쓰기 커밋 후 영향받은 월만 무효화
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onMealChanged(MealChangedEvent event) {
+        synchronized (entries) {
+            for (LocalDate date : event.getAffectedDates()) {
+                MonthKey key = new MonthKey(event.getUserUniqueCode(), YearMonth.from(date));
+                entries.remove(key);
+                Load load = inFlight.get(key);
+                if (load != null) {
+                    load.invalidated = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * 목표 칼로리 변경 커밋 후 해당 유저의 모든 월 무효화
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onGoalChanged(UserGoalChangedEvent event) {
+        evictUser(event.getUserUniqueCode());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onUserDeleted(UserDeletedEvent event) {
+        evictUser(event.getUserUniqueCode());
+    }
+
+    public void evictUser(String userUniqueCode) {
+        synchronized (entries) {
+            entries.keySet().removeIf(key -> key.userUniqueCode().equals(userUniqueCode));
+            inFlight.forEach((key, load) -> {
+                if (key.userUniqueCode().equals(userUniqueCode)) {
+                    load.invalidated = true;
+                }
+            });
+        }
+    }
+
+    private MonthCalendar await(CompletableFuture<MonthCalendar> loading) {
+        try {
+            return loading.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void recordHit() {
+        hits.incrementAndGet();
+        if (hitCounter != null) {
+            hitCounter.increment();
+        }
+    }
+
+    private void recordMiss() {
+        misses.incrementAndGet();
+        if (missCounter != null) {
+            missCounter.increment();
+        }
+    }
+
+    private double hitRatio() {
+        long hitCount = hits.get();
+        long total = hitCount + misses.get();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    private double estimatedBytes() {
+        long bytes = 0;
+        synchronized (entries) {
+            for (MonthCalendar calendar : entries.values()) {
+                bytes += ENTRY_OVERHEAD_BYTES + 4L * calendar.dailyCalories().length;
+            }
+        }
+        return bytes;
+    }
+
+    private record MonthKey(String userUniqueCode, YearMonth yearMonth) {
+    }
+
+    /**
+     * 진행 중인 로딩 (invalidated면 결과를 기다리는 요청에는 돌려주되 캐시에는 넣지 않음)
+     * 진행 중인 로딩 수만큼만 존재하므로 유저 수와 무관하게 작음
+     */
+    private static final class Load {
+
+        private final CompletableFuture<MonthCalendar> future = new CompletableFuture<>();
+        private volatile boolean invalidated;
+    }
+
+    /**
+     * 월 달력 (dailyCalories[일 - 1] = 해당 날짜 총 칼로리, 기록 없으면 0)
+     *
+     * @param dataVersion 일별 칼로리를 읽은 스냅샷의 users.data_version
+     */
+    public record MonthCalendar(int[] dailyCalories, int targetCalories, long dataVersion, long loadedAt) {
+
+        public MonthCalendar(int[] dailyCalories, int targetCalories, long dataVersion) {
+            this(dailyCalories, targetCalories, dataVersion, System.currentTimeMillis());
+        }
+
+        private boolean isExpired(long ttlMillis) {
+            return System.currentTimeMillis() - loadedAt > ttlMillis;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.backendspring.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 비밀번호 해시/검증 전용 스레드 풀
+ *
+ * BCrypt는 의도적으로 느린(요청당 약 100ms CPU) 연산이라 요청 스레드에서 실행하면
+ * 로그인이 몰릴 때 Tomcat 스레드를 모두 점유해 다른 API까지 멈춥니다.
+ * CPU 코어 수만큼의 풀과 제한된 대기열에서만 실행하고, 대기열이 차면 즉시
+ * RejectedExecutionException으로 거절해 컨트롤러가 503을 반환하도록 합니다.
+ * 따라서 해시를 기다리는 요청 스레드는 최대 (풀 크기 + 대기열 크기)개로 제한됩니다.
+ */
+@Slf4j
+@Service
+public class PasswordHashingService {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+
+    private final Timer hashTimer;
+    private final Timer verifyTimer;
+    private final Counter rejectedCounter;
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  ObjectProvider<MeterRegistry> meterRegistryProvider,
+                                  @Value("${password-hashing.pool-size:0}") int poolSize,
+                                  @Value("${password-hashing.queue-capacity:64}") int queueCapacity,
+                                  @Value("${password-hashing.timeout-ms:3000}") long timeoutMillis) {
+        this.passwordEncoder = passwordEncoder;
+        this.timeoutMillis = timeoutMillis;
+
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        MeterRegistry meterRegistry = meterRegistryProvider.getIfAvailable();
+        if (meterRegistry != null) {
+            hashTimer = Timer.builder("password.hashing").tag("operation", "hash")
+                    .publishPercentiles(0.5, 0.99).register(meterRegistry);
+            verifyTimer = Timer.builder("password.hashing").tag("operation", "verify")
+                    .publishPercentiles(0.5, 0.99).register(meterRegistry);
+            rejectedCounter = Counter.builder("password.hashing.rejected").register(meterRegistry);
+            Gauge.builder("password.hashing.queue.size", executor, pool -> pool.getQueue().size()).register(meterRegistry);
+        } else {
+            hashTimer = null;
+            verifyTimer = null;
+            rejectedCounter = null;
+        }
+    }
+
+    /**
+     * 비밀번호 해시 (대기열이 가득 차거나 시간 초과 시 RejectedExecutionException)
+     */
+    public String hash(String rawPassword) {
+        return execute(() -> passwordEncoder.encode(rawPassword), hashTimer);
+    }
+
+    /**
+     * 비밀번호 검증 (대기열이 가득 차거나 시간 초과 시 RejectedExecutionException)
+     */
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return execute(() -> passwordEncoder.matches(rawPassword, encodedPassword), verifyTimer);
+    }
+
+    /**
+     * 저장된 해시가 현재 설정된 강도(work factor)보다 약한지 여부
+     */
+    public boolean needsRehash(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * 로그인 성공 후 재해시 (실패해도 로그인에는 영향 없음, 다음 로그인 때 다시 시도)
+     *
+     * @return 새 해시, 재해시가 필요 없거나 풀이 바쁘면 null
+     */
+    public String rehashIfNeeded(String rawPassword, String encodedPassword) {
+        if (!needsRehash(encodedPassword)) {
+            return null;
+        }
+        try {
+            return hash(rawPassword);
+        } catch (RejectedExecutionException e) {
+            log.debug("비밀번호 재해시 생략 (해시 풀 포화)");
+            return null;
+        }
+    }
+
+    private <T> T execute(Callable<T> task, Timer timer) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                try {
+                    return task.call();
+                } finally {
+                    if (timer != null) {
+                        timer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            recordRejected();
+            throw new RejectedExecutionException("비밀번호 처리 요청이 많습니다", e);
+        }
+
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            recordRejected();
+            throw new RejectedExecutionException("비밀번호 처리 시간이 초과되었습니다", e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("비밀번호 처리가 중단되었습니다", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void recordRejected() {
+        if (rejectedCounter != null) {
+            rejectedCounter.increment();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
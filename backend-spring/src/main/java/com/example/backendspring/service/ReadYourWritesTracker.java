@@ -0,0 +1,103 @@
+package com.example.backendspring.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 유저별 최근 쓰기 시각 추적
+ *
+ * 쓰기 커밋 후 일정 시간(read-your-writes window) 동안은 해당 유저의 읽기를
+ * primary로 보내서, 복제 지연 때문에 방금 저장한 식사가 안 보이는 일을 막습니다.
+ * window는 replica 허용 지연(max-lag-seconds)과 지연 확인 주기를 합친 값보다 짧아지지 않습니다.
+ *
+ * 이 맵은 서버마다 따로 있으므로, 쓰기 응답의 X-Data-Version을 클라이언트가 다음 요청의
+ * X-Min-Data-Version으로 보내면 이 서버가 처음 보는 버전일 때 그 시점부터 window를 적용합니다.
+ * (헤더를 보내지 않는 클라이언트는 쓰기를 처리한 서버에서만 보장됨)
+ */
+@Slf4j
+@Component
+public class ReadYourWritesTracker {
+
+    // 클라이언트가 같은 버전을 계속 보내도 window가 다시 시작되지 않도록, 확인한 버전은 window보다 오래 보관
+    private static final long VERSION_RETENTION_MILLIS = 10 * 60 * 1000;
+
+    private final long windowMillis;
+
+    private final Map<String, WriteMark> lastWrites = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(@Value("${datasource.replica.read-your-writes-window-ms:0}") long configuredWindowMillis,
+                                 @Value("${datasource.replica.max-lag-seconds:5}") long maxLagSeconds,
+                                 @Value("${datasource.replica.lag-check-interval-ms:5000}") long lagCheckIntervalMillis) {
+        // 지연 확인 사이에는 max-lag를 넘은 replica도 잠시 라우팅될 수 있으므로 확인 주기까지 더함
+        long minimumMillis = maxLagSeconds * 1000 + lagCheckIntervalMillis;
+        if (configuredWindowMillis > 0 && configuredWindowMillis < minimumMillis) {
+            log.warn("read-your-writes-window-ms({})가 replica 허용 지연보다 짧아 {}ms로 사용합니다",
+                    configuredWindowMillis, minimumMillis);
+        }
+        this.windowMillis = Math.max(configuredWindowMillis, minimumMillis);
+    }
+
+    /**
+     * 유저 데이터 쓰기 기록 (트랜잭션 안이면 커밋 시점에 기록)
+     */
+    public void markWrite(String userUniqueCode) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    record(userUniqueCode, 0L);
+                }
+            });
+        } else {
+            record(userUniqueCode, 0L);
+        }
+    }
+
+    /**
+     * 데이터 버전 확인 (이 서버가 처음 보는 버전이면 지금부터 window 적용)
+     *
+     * 커밋된 쓰기의 버전이거나, 다른 서버에서 쓴 뒤 클라이언트가 전달한 버전입니다.
+     */
+    public void observeVersion(String userUniqueCode, long version) {
+        WriteMark known = lastWrites.get(userUniqueCode);
+        if (known == null || known.version() < version) {
+            record(userUniqueCode, version);
+        }
+    }
+
+    /**
+     * 최근 쓰기 이후 window 안에 있는지 여부
+     */
+    public boolean isWithinWindow(String userUniqueCode) {
+        WriteMark mark = lastWrites.get(userUniqueCode);
+        if (mark == null) {
+            return false;
+        }
+        return System.currentTimeMillis() - mark.writtenAt() <= windowMillis;
+    }
+
+    @Scheduled(fixedDelay = 60000)
+    public void evictExpired() {
+        long threshold = System.currentTimeMillis() - Math.max(windowMillis, VERSION_RETENTION_MILLIS);
+        lastWrites.values().removeIf(mark -> mark.writtenAt() < threshold);
+    }
+
+    private void record(String userUniqueCode, long version) {
+        WriteMark updated = new WriteMark(version, System.currentTimeMillis());
+        lastWrites.merge(userUniqueCode, updated,
+                (current, next) -> new WriteMark(Math.max(current.version(), next.version()), next.writtenAt()));
+    }
+
+    /**
+     * 마지막으로 확인한 쓰기 (version은 모르면 0)
+     */
+    private record WriteMark(long version, long writtenAt) {
+    }
+}
@@ -0,0 +1,358 @@
+package com.example.backendspring.service;
+
+import com.example.backendspring.dto.meal.FoodShortcutResponse;
+import com.example.backendspring.entity.Meal;
+import com.example.backendspring.entity.UserFoodStat;
+import com.example.backendspring.event.MealChangedEvent;
+import com.example.backendspring.event.UserDeletedEvent;
+import com.example.backendspring.repository.UserFoodStatRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * 유저별 최근/즐겨찾기 음식 관리
+ *
+ * 식사 저장 시(커밋 후) 메모리의 유저별 LRU 캐시를 바로 갱신하고,
+ * DB에는 누적된 증분만 주기적으로 반영(lazy persist)합니다.
+ * 최근 음식은 칼로리까지 함께 내려주므로 음식 인식/검색 없이 바로 다시 기록할 수 있습니다.
+ * 캐시 키는 uk_user_food(utf8mb4_unicode_ci)처럼 대소문자/악센트/전각·반각 차이를 무시하도록
+ * 정규화한 음식명이며, 표시 이름은 처음 기록한 표기를 유지합니다 (DB 행의 food_name과 같음).
+ */
+@Slf4j
+@Service
+public class RecentFoodService {
+
+    private static final int MAX_RECENT_FOODS_PER_USER = 50;
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private final UserFoodStatRepository userFoodStatRepository;
+    private final AuthService authService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<String, UserFoods> cache;
+    private final Map<String, Map<String, PendingUsage>> pendingUsages = new ConcurrentHashMap<>();
+
+    public RecentFoodService(UserFoodStatRepository userFoodStatRepository,
+                             AuthService authService,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${recent-foods.cache.max-users:10000}") int maxCachedUsers) {
+        this.userFoodStatRepository = userFoodStatRepository;
+        this.authService = authService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, UserFoods> eldest) {
+                return size() > maxCachedUsers;
+            }
+        });
+    }
+
+    /**
+     * 최근 기록한 음식 조회 (최근 사용순)
+     */
+    public List<FoodShortcutResponse> getRecentFoods(String userUniqueCode, int limit) {
+        UserFoods userFoods = getOrLoad(userUniqueCode);
+        synchronized (userFoods) {
+            List<FoodShortcutResponse> recent = new ArrayList<>(userFoods.recent.size());
+            for (FoodEntry entry : userFoods.recent.values()) {
+                recent.add(entry.toResponse());
+            }
+            Collections.reverse(recent);
+            return recent.subList(0, Math.min(Math.max(limit, 0), recent.size()));
+        }
+    }
+
+    /**
+     * 즐겨찾기 음식 조회 (이름순)
+     */
+    public List<FoodShortcutResponse> getFavoriteFoods(String userUniqueCode) {
+        UserFoods userFoods = getOrLoad(userUniqueCode);
+        synchronized (userFoods) {
+            return userFoods.favorites.values().stream()
+                    .map(FoodEntry::toResponse)
+                    .sorted(Comparator.comparing(FoodShortcutResponse::getFoodName))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * 즐겨찾기 추가 (명시적인 사용자 동작이므로 DB에 바로 반영)
+     */
+    public void addFavoriteFood(String userUniqueCode, String foodName, Integer calories) {
+        authService.getUserSummary(userUniqueCode);
+        String name = foodName.trim();
+        transactionTemplate.executeWithoutResult(status ->
+                userFoodStatRepository.upsertFavorite(userUniqueCode, name, calories, true));
+
+        UserFoods userFoods = cache.get(userUniqueCode);
+        if (userFoods != null) {
+            String key = keyOf(name);
+            synchronized (userFoods) {
+                FoodEntry entry = userFoods.recent.get(key);
+                if (entry == null) {
+                    entry = userFoods.favorites.getOrDefault(key, new FoodEntry(name, calories, 0, null));
+                }
+                entry.calories = calories;
+                entry.favorite = true;
+                userFoods.favorites.put(key, entry);
+            }
+        }
+    }
+
+    /**
+     * 즐겨찾기 해제
+     */
+    public void removeFavoriteFood(String userUniqueCode, String foodName) {
+        String name = foodName.trim();
+        transactionTemplate.executeWithoutResult(status ->
+                userFoodStatRepository.upsertFavorite(userUniqueCode, name, null, false));
+
+        UserFoods userFoods = cache.get(userUniqueCode);
+        if (userFoods != null) {
+            synchronized (userFoods) {
+                FoodEntry entry = userFoods.favorites.remove(keyOf(name));
+                if (entry != null) {
+                    entry.favorite = false;
+                }
+            }
+        }
+    }
+
+    /**
+     * 식사 저장 커밋 후 최근 음식 갱신
+     * 수정 시에는 새로 추가된 음식만 기록 횟수에 반영합니다.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onMealChanged(MealChangedEvent event) {
+        if (event.getCurrent() == null) {
+            return;
+        }
+
+        Map<String, FoodUse> previousFoods = event.getPrevious() != null
+                ? foodsOf(event.getPrevious())
+                : Collections.emptyMap();
+        LocalDateTime usedAt = LocalDateTime.now();
+
+        foodsOf(event.getCurrent()).forEach((key, food) -> {
+            if (!previousFoods.containsKey(key)) {
+                recordUsage(event.getUserUniqueCode(), food.name(), food.calories(), usedAt);
+            }
+        });
+    }
+
+    private void recordUsage(String userUniqueCode, String foodName, Integer calories, LocalDateTime usedAt) {
+        mergePending(userUniqueCode, new PendingUsage(foodName, calories, 1, usedAt));
+
+        UserFoods userFoods = cache.get(userUniqueCode);
+        if (userFoods != null) {
+            synchronized (userFoods) {
+                userFoods.use(foodName, calories, 1, usedAt);
+            }
+        }
+    }
+
+    /**
+     * 누적된 기록 횟수를 DB에 반영
+     */
+    @Scheduled(fixedDelayString = "${recent-foods.flush-interval-ms:10000}")
+    @PreDestroy
+    public void flushPendingUsages() {
+        if (pendingUsages.isEmpty()) {
+            return;
+        }
+
+        int flushed = 0;
+        for (String userUniqueCode : new ArrayList<>(pendingUsages.keySet())) {
+            Map<String, PendingUsage> usages = pendingUsages.remove(userUniqueCode);
+            if (usages == null || usages.isEmpty()) {
+                continue;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> usages.values().forEach(usage ->
+                        userFoodStatRepository.upsertUsage(userUniqueCode, usage.foodName,
+                                usage.calories, usage.count, usage.lastUsedAt)));
+                flushed += usages.size();
+            } catch (Exception e) {
+                log.error("최근 음식 기록 저장 실패 - 유저: {} (다음 주기에 재시도)", userUniqueCode, e);
+                usages.values().forEach(usage -> mergePending(userUniqueCode, usage));
+            }
+        }
+        log.debug("최근 음식 기록 저장 완료 - {}건", flushed);
+    }
+
+    /**
+     * 유저의 미반영 기록에 합산 (flush의 remove와 원자적으로 동작하도록 compute 사용)
+     */
+    private void mergePending(String userUniqueCode, PendingUsage usage) {
+        pendingUsages.compute(userUniqueCode, (code, usages) -> {
+            Map<String, PendingUsage> merged = usages != null ? usages : new HashMap<>();
+            merged.merge(keyOf(usage.foodName), usage, PendingUsage::merge);
+            return merged;
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onUserDeleted(UserDeletedEvent event) {
+        evict(event.getUserUniqueCode());
+    }
+
+    /**
+     * 회원 삭제 등으로 캐시를 비워야 할 때 사용
+     */
+    public void evict(String userUniqueCode) {
+        cache.remove(userUniqueCode);
+        pendingUsages.remove(userUniqueCode);
+    }
+
+    private UserFoods getOrLoad(String userUniqueCode) {
+        UserFoods cached = cache.get(userUniqueCode);
+        if (cached != null) {
+            return cached;
+        }
+
+        UserFoods loaded = new UserFoods();
+        List<UserFoodStat> recent = new ArrayList<>(
+                userFoodStatRepository.findTop50ByUserUniqueCodeOrderByLastUsedAtDesc(userUniqueCode));
+        Collections.reverse(recent);
+        for (UserFoodStat stat : recent) {
+            if (stat.getLastUsedAt() != null) {
+                loaded.use(stat.getFoodName(), stat.getCalories(), stat.getUseCount(), stat.getLastUsedAt());
+                loaded.recent.get(keyOf(stat.getFoodName())).favorite = Boolean.TRUE.equals(stat.getFavorite());
+            }
+        }
+        for (UserFoodStat stat : userFoodStatRepository.findByUserUniqueCodeAndFavoriteTrue(userUniqueCode)) {
+            String key = keyOf(stat.getFoodName());
+            FoodEntry entry = loaded.recent.get(key);
+            if (entry == null) {
+                entry = new FoodEntry(stat.getFoodName(), stat.getCalories(), stat.getUseCount(), stat.getLastUsedAt());
+            }
+            entry.favorite = true;
+            loaded.favorites.put(key, entry);
+        }
+
+        // 아직 DB에 반영되지 않은 기록 덧씌우기
+        pendingUsages.computeIfPresent(userUniqueCode, (code, pending) -> {
+            pending.values().forEach(usage ->
+                    loaded.use(usage.foodName, usage.calories, usage.count, usage.lastUsedAt));
+            return pending;
+        });
+
+        UserFoods existing = cache.putIfAbsent(userUniqueCode, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    /**
+     * 식사의 음식 목록 (캐시 키 -> 음식명/칼로리)
+     */
+    private static Map<String, FoodUse> foodsOf(Meal meal) {
+        Map<String, FoodUse> foods = new HashMap<>();
+        putFood(foods, meal.getFood1Name(), meal.getFood1Calories());
+        putFood(foods, meal.getFood2Name(), meal.getFood2Calories());
+        putFood(foods, meal.getFood3Name(), meal.getFood3Calories());
+        return foods;
+    }
+
+    private static void putFood(Map<String, FoodUse> foods, String name, Integer calories) {
+        if (name != null && !name.isBlank()) {
+            foods.put(keyOf(name), new FoodUse(name.trim(), calories));
+        }
+    }
+
+    /**
+     * 캐시 키 (uk_user_food의 utf8mb4_unicode_ci처럼 대소문자/악센트/호환 문자 무시, 앞뒤 공백 무시)
+     *
+     * NFKD로 분해해 결합 문자를 지운 뒤 소문자로 바꿉니다 (é→e, Ａ→a, 분해된 한글→완성형과 같은 키).
+     * 단어 사이 공백은 MySQL처럼 구분하며, ß/ss처럼 UCA 확장으로만 같아지는 드문 경우는 어긋날 수 있으나
+     * 이때도 DB 행은 uk_user_food 기준으로 합쳐지고 캐시는 다음 로드 때 DB를 따릅니다.
+     */
+    private static String keyOf(String foodName) {
+        String decomposed = Normalizer.normalize(foodName.trim(), Normalizer.Form.NFKD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 유저 한 명의 최근/즐겨찾기 음식 (인스턴스 잠금으로 보호)
+     */
+    private static final class UserFoods {
+
+        // 삽입 순서 = 사용 순서 (마지막이 가장 최근)
+        private final LinkedHashMap<String, FoodEntry> recent = new LinkedHashMap<>();
+        private final Map<String, FoodEntry> favorites = new HashMap<>();
+
+        private void use(String foodName, Integer calories, int count, LocalDateTime usedAt) {
+            String key = keyOf(foodName);
+            FoodEntry entry = recent.remove(key);
+            if (entry == null) {
+                entry = favorites.getOrDefault(key, new FoodEntry(foodName, calories, 0, null));
+            }
+            entry.calories = calories;
+            entry.useCount += count;
+            entry.lastUsedAt = usedAt;
+            recent.put(key, entry);
+
+            Iterator<String> eldest = recent.keySet().iterator();
+            while (recent.size() > MAX_RECENT_FOODS_PER_USER && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+            }
+        }
+    }
+
+    private static final class FoodEntry {
+
+        private final String foodName;
+        private Integer calories;
+        private int useCount;
+        private LocalDateTime lastUsedAt;
+        private boolean favorite;
+
+        private FoodEntry(String foodName, Integer calories, Integer useCount, LocalDateTime lastUsedAt) {
+            this.foodName = foodName;
+            this.calories = calories;
+            this.useCount = useCount != null ? useCount : 0;
+            this.lastUsedAt = lastUsedAt;
+        }
+
+        private FoodShortcutResponse toResponse() {
+            return FoodShortcutResponse.builder()
+                    .foodName(foodName)
+                    .calories(calories)
+                    .useCount(useCount)
+                    .lastUsedAt(lastUsedAt)
+                    .favorite(favorite)
+                    .build();
+        }
+    }
+
+    private record FoodUse(String name, Integer calories) {
+    }
+
+    private record PendingUsage(String foodName, Integer calories, int count, LocalDateTime lastUsedAt) {
+
+        private PendingUsage merge(PendingUsage newer) {
+            return new PendingUsage(foodName, newer.calories, count + newer.count, newer.lastUsedAt);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.backendspring.service;
+
+import com.example.backendspring.util.BloomFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 가입된 이메일 블룸 필터
+ *
+ * 필터에 없는 이메일은 확실히 가입되지 않았으므로 회원가입 시 중복 확인 쿼리를 생략하고 바로 INSERT합니다.
+ * 필터에 있으면(가입됨 또는 오탐) DB에서 확인합니다. 시작 시 users.email을 스트리밍으로 읽어 채우며,
+ * 다 채워지기 전에는 모든 이메일을 "있을 수 있음"으로 취급합니다.
+ * 탈퇴/삭제된 이메일은 필터에서 빠지지 않지만 DB 확인으로 걸러지므로 결과는 정확합니다.
+ */
+@Slf4j
+@Service
+public class RegisteredEmailFilter {
+
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final BloomFilter filter;
+    private volatile boolean loaded;
+
+    public RegisteredEmailFilter(DataSource dataSource,
+                                 @Value("${signup.email-filter.expected-users:1000000}") long expectedUsers,
+                                 @Value("${signup.email-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        // MySQL 드라이버는 fetchSize가 Integer.MIN_VALUE일 때 결과를 한 행씩 스트리밍
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+        this.filter = new BloomFilter(expectedUsers, falsePositiveRate);
+    }
+
+    /**
+     * 가입되었을 수 있는 이메일인지 (false면 확실히 미가입)
+     */
+    public boolean mightBeRegistered(String email) {
+        return !loaded || filter.mightContain(normalize(email));
+    }
+
+    public void add(String email) {
+        filter.put(normalize(email));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        CompletableFuture.runAsync(() -> {
+            long startedAt = System.currentTimeMillis();
+            long[] count = {0};
+            streamingJdbcTemplate.query("SELECT email FROM users", rs -> {
+                filter.put(normalize(rs.getString(1)));
+                count[0]++;
+            });
+            loaded = true;
+            log.info("가입 이메일 블룸 필터 적재 완료 - {}건, {}KB, {}ms",
+                    count[0], filter.sizeInBytes() / 1024, System.currentTimeMillis() - startedAt);
+        }).exceptionally(e -> {
+            log.warn("가입 이메일 블룸 필터 적재 실패 (중복 확인은 DB로 계속합니다): {}", e.getMessage());
+            return null;
+        });
+    }
+
+    // 이메일 비교 collation이 대소문자를 구분하지 않으므로 소문자로 통일 (오탐만 늘 뿐 누락은 없음)
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,212 @@
+package com.example.backendspring.service;
+
+import com.example.backendspring.dto.auth.UserSummary;
+import com.example.backendspring.entity.Admin;
+import com.example.backendspring.entity.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * 서명된 무상태 세션 토큰
+ *
+ * 토큰 = base64url(payload) + "." + base64url(HMAC-SHA256(payload))
+ * payload = "1:userId:uniqueCode:dailyCalorieGoal:goalVersion:expiresAt(epoch 초)"
+ * 관리자 토큰 payload = "A1:adminId:expiresAt:username" (같은 키로 서명, 유저 토큰과 형식이 달라 서로 대신 쓸 수 없음)
+ *
+ * 검증은 HMAC 계산 한 번뿐이므로 요청마다 users 테이블을 조회하지 않습니다.
+ * 토큰은 신원 확인에만 쓰고, 목표 칼로리와 유저 존재 여부는 UserSummaryCache가 goal_version으로
+ * 재확인한 값을 사용합니다 (다른 서버의 목표 변경/회원 삭제도 revalidate 주기 안에 반영).
+ */
+@Slf4j
+@Service
+public class SessionTokenService {
+
+    private static final String TOKEN_VERSION = "1";
+    private static final String ADMIN_TOKEN_VERSION = "A1";
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final ThreadLocal<Mac> macs;
+    private final long ttlSeconds;
+    private final long adminTtlSeconds;
+
+    public SessionTokenService(@Value("${auth.token.secret:}") String secret,
+                               @Value("${auth.token.ttl-seconds:604800}") long ttlSeconds,
+                               @Value("${auth.token.admin-ttl-seconds:43200}") long adminTtlSeconds) {
+        byte[] key;
+        if (secret == null || secret.isBlank()) {
+            // 서버마다 다른 키가 되므로 재시작/다른 인스턴스에서는 토큰이 무효가 됨
+            log.warn("auth.token.secret이 설정되지 않아 임의 키로 세션 토큰을 서명합니다");
+            key = new byte[32];
+            new SecureRandom().nextBytes(key);
+        } else {
+            key = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        SecretKeySpec keySpec = new SecretKeySpec(key, HMAC_ALGORITHM);
+        this.macs = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+                mac.init(keySpec);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HMAC 초기화 실패", e);
+            }
+        });
+        this.ttlSeconds = ttlSeconds;
+        this.adminTtlSeconds = adminTtlSeconds;
+    }
+
+    public String issue(User user) {
+        return issue(toSummary(user));
+    }
+
+    public String issue(UserSummary user) {
+        long expiresAt = System.currentTimeMillis() / 1000 + ttlSeconds;
+        String payload = String.join(":", TOKEN_VERSION,
+                String.valueOf(user.getUserId()),
+                user.getUniqueCode(),
+                String.valueOf(user.getTargetCalories()),
+                String.valueOf(user.getGoalVersion() != null ? user.getGoalVersion() : 0L),
+                String.valueOf(expiresAt));
+        byte[] payloadBytes = payload.getBytes(StandardCharsets.UTF_8);
+        return ENCODER.encodeToString(payloadBytes) + "." + ENCODER.encodeToString(sign(payloadBytes));
+    }
+
+    /**
+     * 관리자 토큰 발급 (/admin/** 요청에 Authorization: Bearer 로 전달)
+     */
+    public String issueAdmin(Admin admin) {
+        long expiresAt = System.currentTimeMillis() / 1000 + adminTtlSeconds;
+        String payload = String.join(":", ADMIN_TOKEN_VERSION,
+                String.valueOf(admin.getId()),
+                String.valueOf(expiresAt),
+                admin.getUsername());
+        byte[] payloadBytes = payload.getBytes(StandardCharsets.UTF_8);
+        return ENCODER.encodeToString(payloadBytes) + "." + ENCODER.encodeToString(sign(payloadBytes));
+    }
+
+    /**
+     * 토큰 검증 (서명 불일치, 형식 오류, 만료 시 null)
+     */
+    public UserSummary verify(String token) {
+        String payload = verifiedPayload(token);
+        if (payload == null) {
+            return null;
+        }
+        try {
+            String[] fields = payload.split(":");
+            if (fields.length != 6 || !TOKEN_VERSION.equals(fields[0])) {
+                return null;
+            }
+            if (Long.parseLong(fields[5]) < System.currentTimeMillis() / 1000) {
+                return null;
+            }
+            return UserSummary.builder()
+                    .userId(Long.parseLong(fields[1]))
+                    .uniqueCode(fields[2])
+                    .dailyCalorieGoal(Integer.parseInt(fields[3]))
+                    .goalVersion(Long.parseLong(fields[4]))
+                    .build();
+        } catch (IllegalArgumentException e) {
+            // 숫자 형식 오류
+            return null;
+        }
+    }
+
+    /**
+     * 관리자 토큰 검증 (유저 토큰, 서명 불일치, 형식 오류, 만료 시 null)
+     */
+    public AdminPrincipal verifyAdmin(String token) {
+        String payload = verifiedPayload(token);
+        if (payload == null) {
+            return null;
+        }
+        try {
+            String[] fields = payload.split(":", 4);
+            if (fields.length != 4 || !ADMIN_TOKEN_VERSION.equals(fields[0])) {
+                return null;
+            }
+            if (Long.parseLong(fields[2]) < System.currentTimeMillis() / 1000) {
+                return null;
+            }
+            return new AdminPrincipal(Long.parseLong(fields[1]), fields[3]);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 현재 요청의 인증된 유저 (토큰이 없으면 null)
+     */
+    public UserSummary currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserSummary summary) {
+            return summary;
+        }
+        return null;
+    }
+
+    /**
+     * 요청 본문 등에 담긴 유저 코드에 현재 요청이 접근할 수 있는지 확인 (토큰이 없으면 보안 설정에 맡김)
+     */
+    public boolean canAccess(String userUniqueCode) {
+        UserSummary user = currentUser();
+        return user == null || user.getUniqueCode().equals(userUniqueCode);
+    }
+
+    public static UserSummary toSummary(User user) {
+        return UserSummary.builder()
+                .userId(user.getId())
+                .uniqueCode(user.getUniqueCode())
+                .name(user.getName())
+                .dailyCalorieGoal(user.getDailyCalorieGoal())
+                .goalVersion(user.getGoalVersion())
+                .build();
+    }
+
+    /**
+     * 서명이 맞는 토큰의 payload (형식 오류나 서명 불일치 시 null)
+     */
+    private String verifiedPayload(String token) {
+        if (token == null) {
+            return null;
+        }
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot == token.length() - 1) {
+            return null;
+        }
+        try {
+            byte[] payloadBytes = DECODER.decode(token.substring(0, dot));
+            byte[] signature = DECODER.decode(token.substring(dot + 1));
+            if (!MessageDigest.isEqual(sign(payloadBytes), signature)) {
+                return null;
+            }
+            return new String(payloadBytes, StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            // base64 형식 오류
+            return null;
+        }
+    }
+
+    private byte[] sign(byte[] payload) {
+        return macs.get().doFinal(payload);
+    }
+
+    /**
+     * 인증된 관리자 (SecurityContext principal)
+     */
+    public record AdminPrincipal(Long adminId, String username) {
+    }
+}
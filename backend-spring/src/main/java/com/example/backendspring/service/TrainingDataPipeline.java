@@ -0,0 +1,541 @@
+package com.example.backendspring.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 학습 데이터 수집 파이프라인 (요청 경로 밖에서 저장)
+ *
+ * 요청 스레드는 이미지와 메타데이터를 spool 디렉토리에 기록하고 대기열에 넣은 뒤 바로 반환합니다.
+ * writer 스레드가 대기열에서 여러 건을 꺼내 이미지를 저장소에 등록하고 training_data_log에 한 번에 INSERT합니다.
+ * spool 파일은 INSERT가 끝난 뒤 지우므로 재시작하면 남은 항목을 다시 처리하고,
+ * capture_id 유니크 키로 중복 INSERT는 무시됩니다.
+ * DB 장애 같은 일시적 오류는 spool을 남긴 채 지수 백오프로 다시 시도하고, 제약 위반처럼 다시 해도 실패할 항목만 버립니다.
+ * 대기열에서 빠진 항목(대기열 포화, 예상치 못한 오류)은 주기적인 spool 재검색으로 다시 넣습니다.
+ * 대기열이 가득 차면 수집을 거절합니다 (식사 저장에는 영향 없음).
+ *
+ * 요청 스레드는 spool 기록에서 fsync하지 않습니다. fsync 정책(training.image.fsync)은 writer가 저장소에
+ * 등록하면서 적용하므로, 전원 장애 시에는 접수됐지만 아직 등록되지 않은 항목(보통 대기열 지연 이내)을 잃을 수 있습니다.
+ * 프로세스 종료만으로는 잃지 않으며, 재시작 후 재검색에서 내용이 메타데이터의 해시와 다른 항목은 버립니다.
+ */
+@Slf4j
+@Service
+public class TrainingDataPipeline {
+
+    private static final String IMAGE_SUFFIX = ".img";
+    private static final String META_SUFFIX = ".json";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final long ORPHAN_AGE_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private static final String INSERT_SQL = "INSERT INTO training_data_log "
+            + "(capture_id, user_unique_code, meal_id, image_path, image_sha256, ai_prediction, user_corrected_json, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE capture_id = capture_id";
+
+    private final ImageStorageService imageStorageService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Path spoolPath;
+    private final int batchSize;
+    private final long rescanMillis;
+    private final long retryInitialMillis;
+    private final long retryMaxMillis;
+    private final BlockingQueue<SpoolEntry> queue;
+    private final ExecutorService writers;
+    // spool 재검색과 재시도 예약 (단일 스레드)
+    private final ScheduledExecutorService scheduler;
+    // 접수부터 완료/폐기까지 이 서버가 맡고 있는 캡처 (대기열, 처리 중, 재시도 대기 포함)
+    private final Set<String> tracked = ConcurrentHashMap.newKeySet();
+    private final Map<String, Integer> retryAttempts = new ConcurrentHashMap<>();
+    private volatile boolean running = true;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder droppedQueueFull = new LongAdder();
+    private final LongAdder droppedUserDeleted = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final Timer lagTimer;
+
+    public TrainingDataPipeline(ImageStorageService imageStorageService,
+                                JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                ObjectMapper objectMapper,
+                                ObjectProvider<MeterRegistry> meterRegistryProvider,
+                                @Value("${training.pipeline.spool-path:${training.image.storage.path:/app/training_images}/.spool}") String spoolPath,
+                                @Value("${training.pipeline.queue-capacity:1000}") int queueCapacity,
+                                @Value("${training.pipeline.writers:2}") int writerCount,
+                                @Value("${training.pipeline.batch-size:50}") int batchSize,
+                                @Value("${training.pipeline.rescan-ms:60000}") long rescanMillis,
+                                @Value("${training.pipeline.retry-initial-ms:1000}") long retryInitialMillis,
+                                @Value("${training.pipeline.retry-max-ms:300000}") long retryMaxMillis) {
+        this.imageStorageService = imageStorageService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.spoolPath = Paths.get(spoolPath).toAbsolutePath().normalize();
+        this.batchSize = Math.max(1, batchSize);
+        this.rescanMillis = rescanMillis;
+        this.retryInitialMillis = Math.max(1, retryInitialMillis);
+        this.retryMaxMillis = Math.max(this.retryInitialMillis, retryMaxMillis);
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        try {
+            Files.createDirectories(this.spoolPath);
+        } catch (IOException e) {
+            // 저장소가 마운트되지 않은 환경에서도 서버는 뜨도록 (수집 요청만 실패)
+            log.warn("학습 데이터 spool 디렉토리 생성 실패: {}", this.spoolPath, e);
+        }
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        int threads = Math.max(1, writerCount);
+        this.writers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "training-writer-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < threads; i++) {
+            writers.execute(this::writeLoop);
+        }
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "training-spool-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        MeterRegistry meterRegistry = meterRegistryProvider.getIfAvailable();
+        if (meterRegistry != null) {
+            Gauge.builder("training.pipeline.queue.depth", queue, BlockingQueue::size).register(meterRegistry);
+            Gauge.builder("training.pipeline.queue.oldest.seconds", this, TrainingDataPipeline::oldestQueuedSeconds)
+                    .register(meterRegistry);
+            FunctionCounter.builder("training.pipeline.accepted", accepted, LongAdder::sum).register(meterRegistry);
+            FunctionCounter.builder("training.pipeline.written", written, LongAdder::sum).register(meterRegistry);
+            FunctionCounter.builder("training.pipeline.dropped", droppedQueueFull, LongAdder::sum)
+                    .tag("reason", "queue_full").register(meterRegistry);
+            FunctionCounter.builder("training.pipeline.dropped", droppedUserDeleted, LongAdder::sum)
+                    .tag("reason", "user_deleted").register(meterRegistry);
+            FunctionCounter.builder("training.pipeline.failed", failed, LongAdder::sum).register(meterRegistry);
+            FunctionCounter.builder("training.pipeline.retried", retried, LongAdder::sum).register(meterRegistry);
+            // 수집 요청부터 DB 반영까지 걸린 시간
+            lagTimer = Timer.builder("training.pipeline.lag").publishPercentiles(0.5, 0.99).register(meterRegistry);
+        } else {
+            lagTimer = null;
+        }
+    }
+
+    /**
+     * 학습 데이터 수집 접수 (spool 기록 후 대기열에 넣고 바로 반환)
+     *
+     * @return 캡처 ID
+     * @throws IllegalArgumentException 이미지가 비어 있거나 크기 제한을 넘는 경우
+     * @throws RejectedExecutionException 대기열이 가득 찬 경우
+     * @throws IOException spool 기록 실패 시
+     */
+    public String submit(MultipartFile imageFile, String userUniqueCode, Long mealId,
+                         String aiPredictionJson, String userCorrectedJson) throws IOException {
+        imageStorageService.checkSize(imageFile.getSize());
+        if (queue.remainingCapacity() == 0) {
+            droppedQueueFull.increment();
+            throw new RejectedExecutionException("학습 데이터 수집 대기열이 가득 찼습니다");
+        }
+
+        String captureId = UUID.randomUUID().toString();
+        Path image = spoolPath.resolve(captureId + IMAGE_SUFFIX);
+        Path meta = spoolPath.resolve(captureId + META_SUFFIX);
+        // spool 재검색이 기록 중인 항목을 가져가지 않도록 먼저 등록
+        tracked.add(captureId);
+        SpoolEntry entry;
+        try {
+            // 이미지가 rename으로 완성된 뒤에 메타데이터를 기록 (메타데이터가 보이면 이미지도 완성된 상태, fsync는 writer에서)
+            // 기록하면서 계산한 해시를 메타데이터에 담아 writer가 이미지를 다시 읽지 않도록 함
+            ImageStorageService.SpooledImage spooled = imageStorageService.spoolImage(imageFile, image);
+            entry = new SpoolEntry(captureId, userUniqueCode, mealId, ImageStorageService.extensionOf(imageFile.getOriginalFilename()),
+                    aiPredictionJson, userCorrectedJson, System.currentTimeMillis(), spooled.sha256(), spooled.size());
+            writeMeta(entry, meta);
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(image);
+            deleteQuietly(meta);
+            tracked.remove(captureId);
+            throw e;
+        }
+
+        if (!queue.offer(entry)) {
+            deleteQuietly(image);
+            deleteQuietly(meta);
+            tracked.remove(captureId);
+            droppedQueueFull.increment();
+            throw new RejectedExecutionException("학습 데이터 수집 대기열이 가득 찼습니다");
+        }
+        accepted.increment();
+        return captureId;
+    }
+
+    /**
+     * 시작 후 spool 재검색 예약 (재시작 전에 처리하지 못한 항목, 대기열에서 빠진 항목을 다시 대기열에 넣음)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startSpoolRescan() {
+        scheduler.scheduleWithFixedDelay(this::rescanSpool, 0, Math.max(1000, rescanMillis), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // 대기열/재시도 대기 항목은 spool에 있으므로 다음 시작 시 처리됨
+        running = false;
+        scheduler.shutdownNow();
+        writers.shutdown();
+        writers.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * spool 디렉토리에서 이 서버가 맡고 있지 않은 항목을 대기열에 넣고, 메타데이터 없이 오래된 파일은 정리
+     */
+    private void rescanSpool() {
+        if (!running || !Files.isDirectory(spoolPath)) {
+            return;
+        }
+        try {
+            List<Path> metas = new ArrayList<>();
+            long orphanBefore = System.currentTimeMillis() - ORPHAN_AGE_MILLIS;
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(spoolPath)) {
+                for (Path path : entries) {
+                    String name = path.getFileName().toString();
+                    if (tracked.contains(captureIdOf(path))) {
+                        continue;
+                    }
+                    if (name.endsWith(META_SUFFIX)) {
+                        metas.add(path);
+                    } else if (Files.getLastModifiedTime(path).toMillis() < orphanBefore
+                            && (name.endsWith(TEMP_SUFFIX) || !Files.exists(metaOf(path)))) {
+                        // 메타데이터 기록 전에 중단된 항목
+                        deleteQuietly(path);
+                    }
+                }
+            }
+            metas.sort(Comparator.comparing(path -> path.getFileName().toString()));
+
+            int recovered = 0;
+            for (Path meta : metas) {
+                String captureId = captureIdOf(meta);
+                if (!tracked.add(captureId)) {
+                    continue;
+                }
+                SpoolEntry entry;
+                try {
+                    entry = objectMapper.readValue(meta.toFile(), SpoolEntry.class);
+                } catch (IOException e) {
+                    if (Files.exists(meta)) {
+                        // fsync 전에 전원이 꺼져 내용이 손상된 메타데이터
+                        log.error("학습 데이터 spool 메타데이터 손상 - 캡처 {}", captureId);
+                        failed.increment();
+                        deleteQuietly(spoolPath.resolve(captureId + IMAGE_SUFFIX));
+                        deleteQuietly(meta);
+                    }
+                    // 아니면 목록을 읽은 뒤 처리가 끝나 지워진 항목
+                    tracked.remove(captureId);
+                    continue;
+                }
+                if (!isIntact(entry)) {
+                    log.error("학습 데이터 spool 이미지가 메타데이터와 다름 (기록 중 전원 장애 등) - 캡처 {}", captureId);
+                    failed.increment();
+                    discard(entry);
+                    continue;
+                }
+                if (!queue.offer(entry)) {
+                    // 대기열이 가득 차면 다음 재검색에서 이어서
+                    tracked.remove(captureId);
+                    break;
+                }
+                recovered++;
+            }
+            if (recovered > 0) {
+                log.info("학습 데이터 spool 재검색 - {}건 대기열에 추가", recovered);
+            }
+        } catch (Exception e) {
+            log.error("학습 데이터 spool 재검색 실패", e);
+        }
+    }
+
+    private void writeLoop() {
+        while (running) {
+            List<SpoolEntry> batch = new ArrayList<>(batchSize);
+            try {
+                SpoolEntry first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                // 유저 조회 실패 등 배치 전체 오류는 spool을 남기고 나중에 다시 시도
+                log.error("학습 데이터 배치 저장 실패 - {}건 재시도 예약", batch.size(), e);
+                batch.forEach(this::retryLater);
+            }
+        }
+    }
+
+    private void writeBatch(List<SpoolEntry> batch) {
+        Set<String> existingUsers = existingUsers(batch);
+        List<StoredEntry> stored = new ArrayList<>(batch.size());
+        for (SpoolEntry entry : batch) {
+            if (!existingUsers.contains(entry.userUniqueCode())) {
+                // 수집 후 삭제된 유저 (회원 데이터 정리 뒤에 행이 다시 생기지 않도록 버림)
+                droppedUserDeleted.increment();
+                discard(entry);
+                continue;
+            }
+            try {
+                Path image = imageOf(entry);
+                ImageStorageService.SpooledImage digest = entry.imageSha256() != null
+                        ? new ImageStorageService.SpooledImage(entry.imageSha256(), entry.imageSize())
+                        : imageStorageService.digest(image);
+                if (Files.size(image) != digest.size()) {
+                    // spool 기록은 rename으로 완성되므로 정상이라면 일어나지 않음
+                    log.error("학습 데이터 spool 이미지 크기 불일치 - 캡처 {}", entry.captureId());
+                    failed.increment();
+                    discard(entry);
+                    continue;
+                }
+                stored.add(new StoredEntry(entry, imageStorageService.storeSpooledImage(image, entry.fileExtension(), digest)));
+            } catch (NoSuchFileException e) {
+                // spool 이미지가 없으면 다시 시도해도 실패
+                log.error("학습 데이터 spool 이미지 없음 - 캡처 {}", entry.captureId());
+                failed.increment();
+                discard(entry);
+            } catch (IOException e) {
+                // 디스크 부족 등은 spool을 남기고 나중에 다시 시도
+                log.warn("학습 데이터 이미지 저장 실패, 재시도 예약 - 캡처 {}: {}", entry.captureId(), e.getMessage());
+                retryLater(entry);
+            }
+        }
+        if (stored.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, stored, stored.size(),
+                    (ps, row) -> {
+                        SpoolEntry entry = row.entry();
+                        ps.setString(1, entry.captureId());
+                        ps.setString(2, entry.userUniqueCode());
+                        ps.setObject(3, entry.mealId());
+                        ps.setString(4, row.image().path());
+                        ps.setString(5, row.image().sha256());
+                        ps.setString(6, entry.aiPredictionJson());
+                        ps.setString(7, entry.userCorrectedJson());
+                        ps.setTimestamp(8, new Timestamp(entry.spooledAt()));
+                    }));
+            stored.forEach(this::complete);
+        } catch (DataAccessException e) {
+            // 한 건(삭제된 식사 등) 때문에 배치 전체가 실패하면 한 건씩 다시 시도
+            log.warn("학습 데이터 배치 INSERT 실패, 건별로 재시도 - {}건: {}", stored.size(), e.getMessage());
+            insertRows(stored);
+        }
+    }
+
+    /**
+     * 한 건씩 INSERT
+     * 제약 위반은 다시 해도 실패하므로 버리고, 그 밖의 오류(연결 실패, 타임아웃 등)는 DB 장애로 보고
+     * 남은 항목 전부를 spool에 둔 채 재시도 예약합니다.
+     */
+    private void insertRows(List<StoredEntry> stored) {
+        for (int i = 0; i < stored.size(); i++) {
+            StoredEntry row = stored.get(i);
+            SpoolEntry entry = row.entry();
+            try {
+                jdbcTemplate.update(INSERT_SQL, entry.captureId(), entry.userUniqueCode(), entry.mealId(),
+                        row.image().path(), row.image().sha256(), entry.aiPredictionJson(), entry.userCorrectedJson(),
+                        new Timestamp(entry.spooledAt()));
+                complete(row);
+            } catch (DataIntegrityViolationException rowError) {
+                log.error("학습 데이터 INSERT 실패 (제약 위반) - 캡처 {}", entry.captureId(), rowError);
+                failed.increment();
+                imageStorageService.releaseIfUnreferenced(row.image().sha256(), row.image().path());
+                discard(entry);
+            } catch (DataAccessException rowError) {
+                log.warn("학습 데이터 INSERT 일시 오류, {}건 재시도 예약: {}", stored.size() - i, rowError.getMessage());
+                stored.subList(i, stored.size()).forEach(remaining -> retryLater(remaining.entry()));
+                return;
+            }
+        }
+    }
+
+    /**
+     * 지수 백오프 후 다시 대기열에 넣음 (대기열이 가득 차면 spool 재검색에 맡김)
+     */
+    private void retryLater(SpoolEntry entry) {
+        String captureId = entry.captureId();
+        if (!running || !Files.exists(metaOf(entry))) {
+            // 종료 중이면 다음 시작 시 재검색, 이미 처리된 항목이면 할 일 없음
+            tracked.remove(captureId);
+            return;
+        }
+        int attempt = retryAttempts.merge(captureId, 1, Integer::sum);
+        long delay = Math.min(retryMaxMillis, retryInitialMillis << Math.min(attempt - 1, 20));
+        retried.increment();
+        try {
+            scheduler.schedule(() -> {
+                if (!queue.offer(entry)) {
+                    tracked.remove(captureId);
+                }
+            }, delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            tracked.remove(captureId);
+        }
+    }
+
+    private Set<String> existingUsers(List<SpoolEntry> batch) {
+        Set<String> codes = new HashSet<>();
+        batch.forEach(entry -> codes.add(entry.userUniqueCode()));
+        String placeholders = String.join(",", Collections.nCopies(codes.size(), "?"));
+        return new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT unique_code FROM users WHERE unique_code IN (" + placeholders + ")",
+                String.class, codes.toArray()));
+    }
+
+    private void complete(StoredEntry row) {
+        discard(row.entry());
+        written.increment();
+        if (lagTimer != null) {
+            lagTimer.record(System.currentTimeMillis() - row.entry().spooledAt(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * spool 파일을 지우고 추적 해제 (파일을 먼저 지워야 재검색이 다시 가져가지 않음)
+     */
+    private void discard(SpoolEntry entry) {
+        deleteQuietly(imageOf(entry));
+        deleteQuietly(metaOf(entry));
+        retryAttempts.remove(entry.captureId());
+        tracked.remove(entry.captureId());
+    }
+
+    /**
+     * 재검색으로 찾은 항목의 spool 이미지가 메타데이터의 해시/크기와 같은지 확인
+     * 요청 스레드는 fsync하지 않으므로 이전 실행이 전원 장애로 끝났다면 이미지가 비었거나 일부만 남았을 수 있습니다.
+     */
+    private boolean isIntact(SpoolEntry entry) {
+        if (entry.imageSha256() == null) {
+            // 해시 없이 기록된 이전 버전 항목은 writer가 파일에서 계산
+            return true;
+        }
+        try {
+            ImageStorageService.SpooledImage actual = imageStorageService.digest(imageOf(entry));
+            return actual.size() == entry.imageSize() && actual.sha256().equals(entry.imageSha256());
+        } catch (NoSuchFileException e) {
+            // writer가 이미지 없음으로 처리
+            return true;
+        } catch (IOException e) {
+            // 읽기 오류는 writer에서 재시도
+            return true;
+        }
+    }
+
+    /**
+     * 메타데이터는 임시 파일에 쓰고 rename (메타데이터가 보이면 이미지도 기록이 끝난 상태, fsync 없음)
+     */
+    private void writeMeta(SpoolEntry entry, Path meta) throws IOException {
+        Path temp = spoolPath.resolve(entry.captureId() + META_SUFFIX + TEMP_SUFFIX);
+        try (FileChannel channel = FileChannel.open(temp,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.wrap(objectMapper.writeValueAsBytes(entry));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        Files.move(temp, meta, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Path imageOf(SpoolEntry entry) {
+        return spoolPath.resolve(entry.captureId() + IMAGE_SUFFIX);
+    }
+
+    private Path metaOf(SpoolEntry entry) {
+        return spoolPath.resolve(entry.captureId() + META_SUFFIX);
+    }
+
+    private Path metaOf(Path spoolFile) {
+        return spoolPath.resolve(captureIdOf(spoolFile) + META_SUFFIX);
+    }
+
+    private static String captureIdOf(Path spoolFile) {
+        String name = spoolFile.getFileName().toString();
+        int dot = name.indexOf('.');
+        return dot > 0 ? name.substring(0, dot) : name;
+    }
+
+    private double oldestQueuedSeconds() {
+        SpoolEntry oldest = queue.peek();
+        return oldest == null ? 0 : (System.currentTimeMillis() - oldest.spooledAt()) / 1000.0;
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("spool 파일 삭제 실패: {}", path, e);
+        }
+    }
+
+    /**
+     * spool 메타데이터 (JSON 값은 직렬화된 문자열 그대로 보관)
+     * imageSha256/imageSize는 spool 기록 시 계산한 값 (이전 버전 항목은 null)
+     */
+    record SpoolEntry(String captureId, String userUniqueCode, Long mealId, String fileExtension,
+                      String aiPredictionJson, String userCorrectedJson, long spooledAt,
+                      String imageSha256, Long imageSize) {
+    }
+
+    private record StoredEntry(SpoolEntry entry, ImageStorageService.StoredImage image) {
+    }
+}
@@ -0,0 +1,333 @@
+package com.example.backendspring.service;
+
+import com.example.backendspring.dto.admin.TrainingExportResponse;
+import com.example.backendspring.util.TarWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 학습 데이터셋 내보내기 (WebDataset 형식 tar 샤드)
+ *
+ * 샤드 안의 샘플은 training_data_log ID(12자리)를 키로 이미지, ai_prediction, user_corrected_json을 나란히 둡니다.
+ *   000000001234.jpg / 000000001234.ai_prediction.json / 000000001234.user_corrected.json
+ * 샤드는 log_id 순서로 크기/샘플 수 한도까지 채우며, 마지막 log_id를 넘겨 받으면 그 다음부터 이어서 내보냅니다.
+ *
+ * log_id는 INSERT 시점에 발급되지만 커밋 순서는 다를 수 있고 조회는 replica에서 하므로,
+ * 방금 들어온 구간을 내보내면 아직 보이지 않는 더 작은 log_id를 건너뛴 채 이어받기 위치가 앞서 나갈 수 있습니다.
+ * 그래서 INSERT된 지 training.export.safety-lag-seconds가 지난 로그까지만 내보내고,
+ * log_id 순서로 처음 만나는 안전 구간 밖의 로그에서 멈춥니다 (그 뒤는 다음 호출에서 이어서 내보냄).
+ * 기준은 수집 시각(created_at)이 아니라 INSERT 시각(inserted_at)입니다. spool 재시도로 늦게 INSERT된 로그도 있기 때문입니다.
+ * 이미지 본문은 FileChannel.transferTo로 복사합니다 (로컬 디스크로 내보낼 때는 커널 안에서 복사).
+ */
+@Slf4j
+@Service
+public class TrainingDatasetExportService {
+
+    private static final int PAGE_SIZE = 500;
+    private static final long MIN_SHARD_BYTES = 1024L * 1024;
+    private static final long MAX_SHARD_BYTES = 16L * 1024 * 1024 * 1024;
+    private static final int MAX_SHARD_SAMPLES = 100_000;
+    private static final Pattern EXPORT_NAME = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+    private static final Pattern SHARD_FILE = Pattern.compile("shard-(\\d{12})-(\\d{12})\\.tar");
+
+    private static final String PAGE_SQL = "SELECT log_id, image_path, ai_prediction, user_corrected_json, created_at, "
+            + "COALESCE(inserted_at, created_at) < NOW() - INTERVAL ? SECOND AS settled "
+            + "FROM training_data_log WHERE log_id > ? ORDER BY log_id LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTemplate;
+    private final Path exportBasePath;
+    private final long defaultShardMaxBytes;
+    private final int defaultShardMaxSamples;
+    private final int maxShardsPerRequest;
+    private final long safetyLagSeconds;
+    private final Set<String> exportsInProgress = ConcurrentHashMap.newKeySet();
+
+    public TrainingDatasetExportService(JdbcTemplate jdbcTemplate,
+                                        PlatformTransactionManager transactionManager,
+                                        @Value("${training.export.path:${training.image.storage.path:/app/training_images}/exports}") String exportBasePath,
+                                        @Value("${training.export.shard-max-bytes:1073741824}") long defaultShardMaxBytes,
+                                        @Value("${training.export.shard-max-samples:10000}") int defaultShardMaxSamples,
+                                        @Value("${training.export.max-shards-per-request:20}") int maxShardsPerRequest,
+                                        @Value("${training.export.safety-lag-seconds:300}") long safetyLagSeconds) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        // readOnly 트랜잭션이면 replica 라우팅 활성화 시 replica에서 조회
+        this.readOnlyTemplate.setReadOnly(true);
+        this.exportBasePath = Paths.get(exportBasePath).toAbsolutePath().normalize();
+        this.defaultShardMaxBytes = defaultShardMaxBytes;
+        this.defaultShardMaxSamples = defaultShardMaxSamples;
+        this.maxShardsPerRequest = maxShardsPerRequest;
+        this.safetyLagSeconds = safetyLagSeconds;
+    }
+
+    /**
+     * 다음 샤드에 담을 샘플 결정 (afterLogId 다음부터 크기/샘플 수 한도까지)
+     * 이미지 크기는 파일 시스템에서 확인하며, 파일이 없는 로그도 이어받기 위치에는 포함됩니다.
+     * 안전 구간(safety-lag-seconds) 안에 INSERT된 로그를 만나면 거기서 끝난 것으로 봅니다.
+     *
+     * @param afterLogId 이 ID 다음부터 (처음이면 0)
+     * @param maxBytes 샤드 최대 크기 (선택)
+     * @param maxSamples 샤드 최대 샘플 수 (선택)
+     */
+    public ShardPlan planShard(long afterLogId, Long maxBytes, Integer maxSamples) {
+        long byteLimit = maxBytes != null ? maxBytes : defaultShardMaxBytes;
+        int sampleLimit = maxSamples != null ? maxSamples : defaultShardMaxSamples;
+        if (afterLogId < 0) {
+            throw new IllegalArgumentException("afterLogId는 0 이상이어야 합니다");
+        }
+        if (byteLimit < MIN_SHARD_BYTES || byteLimit > MAX_SHARD_BYTES) {
+            throw new IllegalArgumentException("maxBytes는 " + MIN_SHARD_BYTES + " 이상 " + MAX_SHARD_BYTES + " 이하여야 합니다");
+        }
+        if (sampleLimit < 1 || sampleLimit > MAX_SHARD_SAMPLES) {
+            throw new IllegalArgumentException("maxSamples는 1 이상 " + MAX_SHARD_SAMPLES + " 이하여야 합니다");
+        }
+
+        List<Sample> samples = new ArrayList<>();
+        long shardBytes = 0;
+        long cursor = afterLogId;
+        while (true) {
+            List<Sample> page = fetchPage(cursor);
+            for (Sample sample : page) {
+                long sampleBytes = sample.tarSize();
+                if (!samples.isEmpty() && shardBytes + sampleBytes > byteLimit) {
+                    return new ShardPlan(afterLogId, samples, false);
+                }
+                samples.add(sample);
+                shardBytes += sampleBytes;
+                if (samples.size() >= sampleLimit) {
+                    return new ShardPlan(afterLogId, samples, false);
+                }
+            }
+            if (page.size() < PAGE_SIZE) {
+                return new ShardPlan(afterLogId, samples, true);
+            }
+            cursor = page.get(page.size() - 1).logId();
+        }
+    }
+
+    /**
+     * 샤드를 tar로 기록 (대상 채널은 닫지 않음)
+     *
+     * @return 건너뛴 샘플 수 (이미지 파일이 없는 경우)
+     */
+    public long writeShard(ShardPlan plan, WritableByteChannel out) throws IOException {
+        long skipped = 0;
+        try (TarWriter tar = new TarWriter(out)) {
+            for (Sample sample : plan.samples()) {
+                if (sample.imageSize() < 0) {
+                    skipped++;
+                    continue;
+                }
+                String key = String.format("%012d", sample.logId());
+                try (FileChannel image = FileChannel.open(Paths.get(sample.imagePath()), StandardOpenOption.READ)) {
+                    tar.addEntry(key + "." + sample.imageExtension(), image, sample.createdAtSeconds());
+                } catch (NoSuchFileException e) {
+                    // 계획 이후 삭제된 이미지
+                    skipped++;
+                    continue;
+                }
+                if (sample.aiPredictionJson() != null) {
+                    tar.addEntry(key + ".ai_prediction.json",
+                            sample.aiPredictionJson().getBytes(StandardCharsets.UTF_8), sample.createdAtSeconds());
+                }
+                if (sample.userCorrectedJson() != null) {
+                    tar.addEntry(key + ".user_corrected.json",
+                            sample.userCorrectedJson().getBytes(StandardCharsets.UTF_8), sample.createdAtSeconds());
+                }
+            }
+        }
+        return skipped;
+    }
+
+    /**
+     * 로컬 디스크로 샤드 내보내기 (호출마다 최대 maxShards개)
+     * afterLogId를 생략하면 같은 이름의 디렉토리에 이미 있는 샤드 다음부터 이어서 내보냅니다.
+     * 샤드는 임시 파일에 쓰고 fsync 후 rename하므로 중단되어도 완성된 샤드만 남습니다.
+     *
+     * @param name 내보내기 이름 (디렉토리명)
+     */
+    public TrainingExportResponse exportToDisk(String name, Long afterLogId, Long maxBytes,
+                                               Integer maxSamples, Integer maxShards) throws IOException {
+        if (name == null || !EXPORT_NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("내보내기 이름은 영문/숫자/-/_ 1~64자여야 합니다");
+        }
+        int shardLimit = maxShards != null ? maxShards : maxShardsPerRequest;
+        if (shardLimit < 1 || shardLimit > maxShardsPerRequest) {
+            throw new IllegalArgumentException("maxShards는 1 이상 " + maxShardsPerRequest + " 이하여야 합니다");
+        }
+        if (!exportsInProgress.add(name)) {
+            throw new IllegalStateException("같은 이름의 내보내기가 진행 중입니다: " + name);
+        }
+
+        try {
+            Path directory = exportBasePath.resolve(name);
+            Files.createDirectories(directory);
+            long cursor = afterLogId != null ? afterLogId : lastExportedLogId(directory);
+
+            List<String> shards = new ArrayList<>();
+            long samples = 0;
+            long skipped = 0;
+            boolean complete = false;
+            while (shards.size() < shardLimit) {
+                ShardPlan plan = planShard(cursor, maxBytes, maxSamples);
+                if (plan.samples().isEmpty()) {
+                    complete = true;
+                    break;
+                }
+
+                String fileName = String.format("shard-%012d-%012d.tar", plan.firstLogId(), plan.lastLogId());
+                Path temp = directory.resolve(fileName + ".tmp");
+                long shardSkipped;
+                try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                    shardSkipped = writeShard(plan, channel);
+                    channel.force(true);
+                } catch (IOException | RuntimeException e) {
+                    Files.deleteIfExists(temp);
+                    throw e;
+                }
+                Files.move(temp, directory.resolve(fileName), StandardCopyOption.ATOMIC_MOVE);
+
+                shards.add(fileName);
+                samples += plan.samples().size() - shardSkipped;
+                skipped += shardSkipped;
+                cursor = plan.lastLogId();
+                if (plan.complete()) {
+                    complete = true;
+                    break;
+                }
+            }
+
+            log.info("학습 데이터셋 내보내기 - {}: 샤드 {}개, 샘플 {}개, 건너뜀 {}개, 마지막 log_id {}",
+                    name, shards.size(), samples, skipped, cursor);
+            return TrainingExportResponse.builder()
+                    .directory(directory.toString())
+                    .shards(shards)
+                    .samples(samples)
+                    .skippedSamples(skipped)
+                    .lastLogId(cursor)
+                    .complete(complete)
+                    .build();
+        } finally {
+            exportsInProgress.remove(name);
+        }
+    }
+
+    /**
+     * afterLogId 다음 로그 한 페이지 (안전 구간 밖의 로그를 만나면 그 앞까지만)
+     */
+    private List<Sample> fetchPage(long afterLogId) {
+        return readOnlyTemplate.execute(status -> jdbcTemplate.query(PAGE_SQL, rs -> {
+            List<Sample> page = new ArrayList<>();
+            while (rs.next() && rs.getBoolean("settled")) {
+                String imagePath = rs.getString("image_path");
+                Timestamp createdAt = rs.getTimestamp("created_at");
+                page.add(new Sample(
+                        rs.getLong("log_id"),
+                        imagePath,
+                        sizeOf(imagePath),
+                        rs.getString("ai_prediction"),
+                        rs.getString("user_corrected_json"),
+                        createdAt != null ? createdAt.getTime() / 1000 : 0));
+            }
+            return page;
+        }, safetyLagSeconds, afterLogId, PAGE_SIZE));
+    }
+
+    /**
+     * 이미 내보낸 샤드 중 가장 큰 마지막 log_id (없으면 0)
+     */
+    private long lastExportedLogId(Path directory) throws IOException {
+        long last = 0;
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory, "shard-*.tar")) {
+            for (Path entry : entries) {
+                Matcher matcher = SHARD_FILE.matcher(entry.getFileName().toString());
+                if (matcher.matches()) {
+                    last = Math.max(last, Long.parseLong(matcher.group(2)));
+                }
+            }
+        }
+        return last;
+    }
+
+    private static long sizeOf(String imagePath) {
+        try {
+            return Files.size(Paths.get(imagePath));
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * 샤드 하나에 담을 샘플 (log_id 오름차순)
+     *
+     * @param afterLogId 요청한 시작 위치
+     * @param complete 이 샤드 뒤로 더 내보낼 로그가 없는지 여부 (안전 구간 이전까지 기준)
+     */
+    public record ShardPlan(long afterLogId, List<Sample> samples, boolean complete) {
+
+        public long firstLogId() {
+            return samples.isEmpty() ? afterLogId : samples.get(0).logId();
+        }
+
+        /**
+         * 다음 샤드 요청 시 afterLogId로 넘길 값
+         */
+        public long lastLogId() {
+            return samples.isEmpty() ? afterLogId : samples.get(samples.size() - 1).logId();
+        }
+    }
+
+    /**
+     * 샘플 하나 (imageSize가 -1이면 이미지 파일 없음)
+     */
+    public record Sample(long logId, String imagePath, long imageSize, String aiPredictionJson,
+                         String userCorrectedJson, long createdAtSeconds) {
+
+        String imageExtension() {
+            String fileName = Paths.get(imagePath).getFileName().toString();
+            int dot = fileName.lastIndexOf('.');
+            String extension = dot >= 0 ? fileName.substring(dot + 1).toLowerCase(Locale.ROOT) : "";
+            return extension.matches("[a-z0-9]{1,10}") ? extension : "img";
+        }
+
+        long tarSize() {
+            if (imageSize < 0) {
+                return 0;
+            }
+            long size = TarWriter.entrySize(imageSize);
+            if (aiPredictionJson != null) {
+                size += TarWriter.entrySize(aiPredictionJson.getBytes(StandardCharsets.UTF_8).length);
+            }
+            if (userCorrectedJson != null) {
+                size += TarWriter.entrySize(userCorrectedJson.getBytes(StandardCharsets.UTF_8).length);
+            }
+            return size;
+        }
+    }
+}
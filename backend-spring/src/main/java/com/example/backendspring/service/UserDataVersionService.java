@@ -0,0 +1,209 @@
+package com.example.backendspring.service;
+
+import com.example.backendspring.config.ReplicaRoutingDataSource;
+import com.example.backendspring.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * 유저별 데이터 버전 (조회 API의 ETag)
+ *
+ * 식사 쓰기/목표 변경 트랜잭션 안에서 users.data_version을 1 증가시키고, 커밋 후 메모리에 반영합니다.
+ * 조회 시에는 메모리 값을 쓰고, 없거나 TTL이 지난 경우에만 primary에서 다시 읽습니다.
+ * (다른 서버 인스턴스의 쓰기는 TTL 안에서만 늦게 보일 수 있음)
+ *
+ * 응답에 붙이는 ETag는 read()로 본문과 같은 트랜잭션에서 읽은 버전으로 만듭니다.
+ * 본문은 replica에서 읽을 수 있으므로, primary 기준 현재 버전을 그대로 붙이면
+ * 지연된 replica의 오래된 본문이 새 버전 ETag로 캐시되어 다음 쓰기 전까지 304로 고정될 수 있습니다.
+ */
+@Service
+public class UserDataVersionService {
+
+    public static final String VERSION_HEADER = "X-Data-Version";
+
+    private final UserRepository userRepository;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final TransactionTemplate primaryReadTemplate;
+    private final TransactionTemplate readOnlyTemplate;
+    private final Map<String, VersionEntry> versions;
+    private final long ttlMillis;
+
+    public UserDataVersionService(UserRepository userRepository,
+                                  ReadYourWritesTracker readYourWritesTracker,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${data-version.max-entries:100000}") int maxEntries,
+                                  @Value("${data-version.ttl-seconds:5}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.readYourWritesTracker = readYourWritesTracker;
+        // readOnly가 아닌 트랜잭션으로 읽어 replica 지연 값이 캐시되지 않도록 primary로 라우팅
+        this.primaryReadTemplate = new TransactionTemplate(transactionManager);
+        // readOnly 트랜잭션이면 replica 라우팅 활성화 시 replica에서 조회
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+        this.ttlMillis = ttlSeconds * 1000;
+        this.versions = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, VersionEntry> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    /**
+     * 데이터 버전 증가 (호출한 쓰기 트랜잭션 안에서 실행, 커밋 후 메모리 갱신)
+     *
+     * 요청 스레드에서 호출되면 커밋된 버전을 X-Data-Version 응답 헤더로 알려,
+     * 클라이언트가 다른 서버로 가는 다음 읽기에 X-Min-Data-Version으로 되돌려 보낼 수 있게 합니다.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void bump(String userUniqueCode) {
+        userRepository.incrementDataVersion(userUniqueCode);
+        long version = userRepository.findDataVersionByUniqueCode(userUniqueCode).orElse(0L);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                versions.merge(userUniqueCode, new VersionEntry(version, System.currentTimeMillis()),
+                        (current, updated) -> current.version() > updated.version() ? current : updated);
+                readYourWritesTracker.observeVersion(userUniqueCode, version);
+                if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                        && attributes.getResponse() != null) {
+                    attributes.getResponse().setHeader(VERSION_HEADER, Long.toString(version));
+                }
+            }
+        });
+    }
+
+    /**
+     * 현재 데이터 버전 (유저가 없으면 null)
+     */
+    public Long currentVersion(String userUniqueCode) {
+        VersionEntry entry = versions.get(userUniqueCode);
+        if (entry != null && System.currentTimeMillis() - entry.loadedAt() <= ttlMillis) {
+            return entry.version();
+        }
+
+        Long version = primaryReadTemplate.execute(status ->
+                userRepository.findDataVersionByUniqueCode(userUniqueCode).orElse(null));
+        if (version == null) {
+            versions.remove(userUniqueCode);
+            return null;
+        }
+        versions.merge(userUniqueCode, new VersionEntry(version, System.currentTimeMillis()),
+                (current, loaded) -> current.version() > loaded.version() ? current : loaded);
+        return version;
+    }
+
+    /**
+     * 현재 버전 기반 strong ETag (유저가 없으면 null)
+     *
+     * If-None-Match 비교용입니다. 응답에는 read() 결과의 버전으로 만든 ETag를 붙여야 합니다.
+     *
+     * @param representation 같은 URL의 응답 형식 구분 (예: map, dense)
+     */
+    public String etag(String userUniqueCode, String representation) {
+        return etag(userUniqueCode, currentVersion(userUniqueCode), representation);
+    }
+
+    /**
+     * 주어진 버전의 strong ETag (버전이 없으면 null)
+     */
+    public String etag(String userUniqueCode, Long version, String representation) {
+        if (version == null) {
+            return null;
+        }
+        return "\"" + userUniqueCode + "-" + version + "-" + representation + "\"";
+    }
+
+    /**
+     * 조회 본문과 그 본문이 반영한 데이터 버전을 함께 읽음
+     *
+     * data_version과 본문을 같은 readOnly 트랜잭션(같은 커넥션, REPEATABLE READ 스냅샷)에서 읽으므로
+     * 버전은 본문보다 앞서지 않습니다. 스냅샷 버전이 조회 직전의 현재 버전보다 낮으면
+     * (replica가 아직 반영하지 못함) primary에서 다시 읽어 방금 확인한 버전보다 오래된 본문을 내보내지 않습니다.
+     */
+    public <T> Versioned<T> read(String userUniqueCode, Supplier<T> reader) {
+        Long expected = currentVersion(userUniqueCode);
+        Versioned<T> result = readSnapshot(userUniqueCode, reader);
+        if (expected != null && (result.version() == null || result.version() < expected)
+                && !ReplicaRoutingDataSource.isPrimaryPinned()) {
+            ReplicaRoutingDataSource.pinPrimary();
+            try {
+                result = readSnapshot(userUniqueCode, reader);
+            } finally {
+                ReplicaRoutingDataSource.clearPrimaryPin();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 캐시 적중 판단용 버전 (read() 안이면 그 스냅샷 버전, 아니면 현재 버전, 유저가 없으면 0)
+     */
+    public long versionForRead(String userUniqueCode) {
+        Long snapshot = (Long) TransactionSynchronizationManager.getResource(new SnapshotKey(userUniqueCode));
+        if (snapshot != null) {
+            return snapshot;
+        }
+        Long version = currentVersion(userUniqueCode);
+        return version != null ? version : 0;
+    }
+
+    /**
+     * 현재 트랜잭션 스냅샷의 버전 (캐시에 넣을 값을 읽는 트랜잭션 안에서 호출, 유저가 없으면 0)
+     */
+    public long versionInTransaction(String userUniqueCode) {
+        Long snapshot = (Long) TransactionSynchronizationManager.getResource(new SnapshotKey(userUniqueCode));
+        if (snapshot != null) {
+            return snapshot;
+        }
+        return userRepository.findDataVersionByUniqueCode(userUniqueCode).orElse(0L);
+    }
+
+    private <T> Versioned<T> readSnapshot(String userUniqueCode, Supplier<T> reader) {
+        return readOnlyTemplate.execute(status -> {
+            Long version = userRepository.findDataVersionByUniqueCode(userUniqueCode).orElse(null);
+            if (version == null) {
+                return new Versioned<>(null, reader.get());
+            }
+            SnapshotKey key = new SnapshotKey(userUniqueCode);
+            TransactionSynchronizationManager.bindResource(key, version);
+            try {
+                return new Versioned<>(version, reader.get());
+            } finally {
+                TransactionSynchronizationManager.unbindResource(key);
+            }
+        });
+    }
+
+    public void evict(String userUniqueCode) {
+        versions.remove(userUniqueCode);
+    }
+
+    private record VersionEntry(long version, long loadedAt) {
+    }
+
+    /**
+     * read()가 트랜잭션에 묶어 두는 스냅샷 버전의 키
+     */
+    private record SnapshotKey(String userUniqueCode) {
+    }
+
+    /**
+     * 조회 결과와 그 결과가 반영한 데이터 버전 (유저가 없으면 version은 null)
+     */
+    public record Versioned<T>(Long version, T value) {
+    }
+}
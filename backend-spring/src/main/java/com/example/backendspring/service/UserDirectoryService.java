@@ -0,0 +1,342 @@
+package com.example.backendspring.service;
+
+import com.example.backendspring.dto.admin.UserManagementResponse;
+import com.example.backendspring.dto.admin.UserPageResponse;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 관리자 회원 목록 (keyset 페이지네이션, 접두어 검색, 전체 내보내기)
+ *
+ * 필요한 컬럼만 조회하므로 비밀번호 해시는 읽지 않습니다.
+ * 페이지는 마지막 행의 정렬 키를 커서로 넘겨 OFFSET 없이 인덱스 범위 스캔으로 이어서 읽고,
+ * 내보내기는 DB 커서를 한 행씩 응답 스트림에 바로 씁니다.
+ * 검색은 이름/이메일/고유 코드 조건을 OR로 묶지 않고 컬럼별 SELECT의 UNION으로 만들어
+ * 각 SELECT가 자기 컬럼 인덱스(idx_name, idx_email, idx_unique_code)로 접두어 범위 스캔하도록 합니다.
+ */
+@Slf4j
+@Service
+public class UserDirectoryService {
+
+    private static final int DEFAULT_LIMIT = 50;
+    private static final int MAX_LIMIT = 200;
+    private static final int FLUSH_INTERVAL = 500;
+
+    private static final String COLUMNS = "SELECT id, unique_code, name, email, daily_calorie_goal, created_at FROM users";
+    private static final String[] SEARCH_COLUMNS = {"name", "email", "unique_code"};
+    private static final String CSV_HEADER = "user_id,unique_code,name,email,daily_calorie_goal,created_at";
+
+    private static final RowMapper<UserManagementResponse> ROW_MAPPER = UserDirectoryService::mapRow;
+
+    /**
+     * 정렬 기준 (동률은 id로 구분해 커서 위치가 항상 한 행으로 정해지도록 함)
+     */
+    public enum Sort {
+        NEWEST(null, "id DESC"),
+        OLDEST(null, "id ASC"),
+        NAME("name", "name ASC, id ASC"),
+        EMAIL("email", "email ASC, id ASC");
+
+        private final String column;
+        private final String orderBy;
+
+        Sort(String column, String orderBy) {
+            this.column = column;
+            this.orderBy = orderBy;
+        }
+
+        public static Sort from(String value) {
+            if (value == null || value.isBlank()) {
+                return NEWEST;
+            }
+            try {
+                return Sort.valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("지원하지 않는 정렬 기준입니다: " + value);
+            }
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final TransactionTemplate readOnlyTemplate;
+    private final ObjectMapper objectMapper;
+
+    public UserDirectoryService(JdbcTemplate jdbcTemplate,
+                                DataSource dataSource,
+                                PlatformTransactionManager transactionManager,
+                                ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        // MySQL 드라이버는 fetchSize가 Integer.MIN_VALUE일 때 결과를 한 행씩 스트리밍
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        // readOnly 트랜잭션이면 replica 라우팅 활성화 시 replica에서 조회
+        this.readOnlyTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * 회원 목록 한 페이지
+     *
+     * @param cursor 이전 페이지의 nextCursor (첫 페이지는 null)
+     * @param limit 페이지 크기 (기본 50, 최대 200)
+     * @param query 이름/이메일/고유 코드 접두어 검색어 (선택)
+     * @param sort 정렬 기준 (newest, oldest, name, email)
+     */
+    public UserPageResponse getUsers(String cursor, Integer limit, String query, String sort) {
+        Sort order = Sort.from(sort);
+        int pageSize = limit == null ? DEFAULT_LIMIT : limit;
+        if (pageSize < 1 || pageSize > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit은 1 이상 " + MAX_LIMIT + " 이하여야 합니다");
+        }
+
+        List<Object> params = new ArrayList<>();
+        List<String> conditions = new ArrayList<>();
+
+        if (cursor != null && !cursor.isBlank()) {
+            Cursor position = Cursor.decode(cursor);
+            switch (order) {
+                case NEWEST -> {
+                    conditions.add("id < ?");
+                    params.add(position.id());
+                }
+                case OLDEST -> {
+                    conditions.add("id > ?");
+                    params.add(position.id());
+                }
+                default -> {
+                    if (position.value() == null) {
+                        throw new IllegalArgumentException("잘못된 커서입니다");
+                    }
+                    conditions.add("(" + order.column + " > ? OR (" + order.column + " = ? AND id > ?))");
+                    params.add(position.value());
+                    params.add(position.value());
+                    params.add(position.id());
+                }
+            }
+        }
+
+        // 다음 페이지 존재 여부 확인용으로 한 행 더 조회
+        List<Object> queryParams = new ArrayList<>();
+        String sql = buildQuery(query, conditions, params, order.orderBy, pageSize + 1, queryParams);
+
+        List<UserManagementResponse> rows = readOnlyTemplate.execute(status ->
+                jdbcTemplate.query(sql, ROW_MAPPER, queryParams.toArray()));
+
+        boolean hasMore = rows.size() > pageSize;
+        List<UserManagementResponse> users = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            UserManagementResponse last = users.get(users.size() - 1);
+            String value = switch (order) {
+                case NAME -> last.getName();
+                case EMAIL -> last.getEmail();
+                default -> null;
+            };
+            nextCursor = new Cursor(last.getUserId(), value).encode();
+        }
+
+        return UserPageResponse.builder()
+                .users(new ArrayList<>(users))
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    /**
+     * 회원 전체(또는 검색 결과) 내보내기 (id 순, 메모리 사용량 일정)
+     *
+     * @param out 응답 출력 스트림 (닫지 않음)
+     * @return 내보낸 회원 수
+     */
+    public long exportUsers(String query, MealExportService.Format format, OutputStream out) throws IOException {
+        List<Object> params = new ArrayList<>();
+        String sql = buildQuery(query, List.of(), List.of(), "id ASC", null, params);
+
+        long[] count = {0};
+        try {
+            if (format == MealExportService.Format.CSV) {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+                stream(sql, params, user -> {
+                    writeCsv(writer, user);
+                    if (++count[0] % FLUSH_INTERVAL == 0) {
+                        writer.flush();
+                    }
+                });
+                writer.flush();
+            } else {
+                JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+                stream(sql, params, user -> {
+                    writeJson(generator, user);
+                    if (++count[0] % FLUSH_INTERVAL == 0) {
+                        generator.flush();
+                    }
+                });
+                generator.close();
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        log.info("회원 목록 내보내기 완료 - 형식: {}, 건수: {}", format, count[0]);
+        return count[0];
+    }
+
+    private void stream(String sql, List<Object> params, UserWriter writer) {
+        readOnlyTemplate.executeWithoutResult(status ->
+                streamingJdbcTemplate.query(sql, rs -> {
+                    try {
+                        writer.write(mapRow(rs, 0));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, params.toArray()));
+    }
+
+    /**
+     * 조회 SQL 조립
+     *
+     * 검색어가 없으면 단일 SELECT, 있으면 컬럼별 접두어 검색(LIKE 'q%') SELECT의 UNION입니다.
+     * 세 조건을 OR로 묶으면 한 인덱스로 처리할 수 없어 정렬 인덱스를 따라 전체를 훑게 되므로 나눠서 조회합니다.
+     * limit이 있으면 각 SELECT에도 같은 정렬과 limit을 걸어 합칠 행 수를 제한합니다
+     * (합친 결과의 상위 limit개는 항상 각 SELECT의 상위 limit개 안에 있음). UNION이 중복 행을 제거합니다.
+     *
+     * @param conditions 커서 조건 (각 SELECT에 AND로 추가)
+     * @param params 조립된 SQL의 바인딩 값이 추가될 목록
+     */
+    private static String buildQuery(String query, List<String> conditions, List<Object> conditionParams,
+                                     String orderBy, Integer limit, List<Object> params) {
+        String where = String.join(" AND ", conditions);
+        String tail = " ORDER BY " + orderBy + (limit != null ? " LIMIT " + limit : "");
+        if (query == null || query.isBlank()) {
+            params.addAll(conditionParams);
+            return COLUMNS + (where.isEmpty() ? "" : " WHERE " + where) + tail;
+        }
+
+        String prefix = escapeLike(query.trim()) + "%";
+        List<String> selects = new ArrayList<>(SEARCH_COLUMNS.length);
+        for (String column : SEARCH_COLUMNS) {
+            selects.add("(" + COLUMNS + " WHERE " + column + " LIKE ?" + (where.isEmpty() ? "" : " AND " + where) + tail + ")");
+            params.add(prefix);
+            params.addAll(conditionParams);
+        }
+        return "SELECT * FROM (" + String.join(" UNION ", selects) + ") matched" + tail;
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static UserManagementResponse mapRow(ResultSet rs, int rowNum) throws SQLException {
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        int goal = rs.getInt("daily_calorie_goal");
+        return UserManagementResponse.builder()
+                .userId(rs.getLong("id"))
+                .uniqueCode(rs.getString("unique_code"))
+                .name(rs.getString("name"))
+                .email(rs.getString("email"))
+                .dailyCalorieGoal(rs.wasNull() ? null : goal)
+                .createdAt(createdAt != null ? createdAt.toLocalDateTime() : null)
+                .build();
+    }
+
+    private void writeJson(JsonGenerator generator, UserManagementResponse user) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("userId", user.getUserId());
+        generator.writeStringField("uniqueCode", user.getUniqueCode());
+        generator.writeStringField("name", user.getName());
+        generator.writeStringField("email", user.getEmail());
+        if (user.getDailyCalorieGoal() != null) {
+            generator.writeNumberField("dailyCalorieGoal", user.getDailyCalorieGoal());
+        } else {
+            generator.writeNullField("dailyCalorieGoal");
+        }
+        generator.writeStringField("createdAt", user.getCreatedAt() != null ? user.getCreatedAt().toString() : null);
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    private void writeCsv(Writer writer, UserManagementResponse user) throws IOException {
+        writer.write(String.valueOf(user.getUserId()));
+        writer.write(',');
+        writer.write(csvField(user.getUniqueCode()));
+        writer.write(',');
+        writer.write(csvField(user.getName()));
+        writer.write(',');
+        writer.write(csvField(user.getEmail()));
+        writer.write(',');
+        writer.write(csvField(user.getDailyCalorieGoal()));
+        writer.write(',');
+        writer.write(csvField(user.getCreatedAt()));
+        writer.write('\n');
+    }
+
+    /**
+     * RFC 4180 규칙에 따라 CSV 필드 이스케이프
+     */
+    private static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    @FunctionalInterface
+    private interface UserWriter {
+        void write(UserManagementResponse user) throws IOException;
+    }
+
+    /**
+     * 페이지 커서 (마지막 행 id + 정렬 컬럼 값, base64url로 감춤)
+     */
+    private record Cursor(long id, String value) {
+
+        String encode() {
+            String raw = value == null ? String.valueOf(id) : id + ":" + value;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = raw.indexOf(':');
+                if (separator < 0) {
+                    return new Cursor(Long.parseLong(raw), null);
+                }
+                return new Cursor(Long.parseLong(raw.substring(0, separator)), raw.substring(separator + 1));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("잘못된 커서입니다");
+            }
+        }
+    }
+}
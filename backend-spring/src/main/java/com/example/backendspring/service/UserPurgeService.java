@@ -0,0 +1,405 @@
+package com.example.backendspring.service;
+
+import com.example.backendspring.dto.admin.UserPurgeJobResponse;
+import com.example.backendspring.entity.UserPurgeJob;
+import com.example.backendspring.event.UserDeletedEvent;
+import com.example.backendspring.repository.DailyCalorieSummaryRepository;
+import com.example.backendspring.repository.MealRepository;
+import com.example.backendspring.repository.MealSearchTokenRepository;
+import com.example.backendspring.repository.TrainingDataLogRepository;
+import com.example.backendspring.repository.TrainingImageRef;
+import com.example.backendspring.repository.UserFoodStatRepository;
+import com.example.backendspring.repository.UserPurgeJobRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 회원 삭제 후 데이터 정리 (백그라운드)
+ *
+ * 회원 삭제 트랜잭션은 users 행 삭제와 정리 작업 등록만 하고 바로 끝납니다.
+ * 작업은 학습 데이터 로그(참조가 끊긴 이미지 포함) → 식사 → 일일 집계 → 음식 통계 → 이미지 디렉토리 순으로 진행하며,
+ * 테이블은 LIMIT 단위 DELETE를 짧은 트랜잭션으로 반복해 잠금을 오래 잡지 않습니다.
+ * 배치마다 삭제 건수와 단계를 같은 트랜잭션에서 저장하므로 재시작/장애 후에도 이어서 진행합니다.
+ * 하트비트가 끊긴 작업은 다른 서버가 이어받습니다.
+ *
+ * 작업은 등록 후 start-delay가 지나야 시작합니다. 다른 서버의 유저 요약 캐시가 삭제를 확인하기 전에
+ * 들어온 식사 INSERT가 식사 삭제 단계 뒤에 커밋되어 남는 일을 막기 위함입니다.
+ */
+@Slf4j
+@Service
+public class UserPurgeService {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final UserPurgeJobRepository jobRepository;
+    private final MealRepository mealRepository;
+    private final MealSearchTokenRepository mealSearchTokenRepository;
+    private final TrainingDataLogRepository trainingDataLogRepository;
+    private final DailyCalorieSummaryRepository dailyCalorieSummaryRepository;
+    private final UserFoodStatRepository userFoodStatRepository;
+    private final ImageStorageService imageStorageService;
+    private final TransactionTemplate transactionTemplate;
+    private final ScheduledExecutorService worker;
+    private final ForkJoinPool fileDeletionPool;
+    private final Path storageBasePath;
+    private final String nodeId;
+    private final int batchSize;
+    private final long leaseSeconds;
+    private final int maxAttempts;
+    private final long startDelayMillis;
+
+    public UserPurgeService(UserPurgeJobRepository jobRepository,
+                            MealRepository mealRepository,
+                            MealSearchTokenRepository mealSearchTokenRepository,
+                            TrainingDataLogRepository trainingDataLogRepository,
+                            DailyCalorieSummaryRepository dailyCalorieSummaryRepository,
+                            UserFoodStatRepository userFoodStatRepository,
+                            ImageStorageService imageStorageService,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${training.image.storage.path:/app/training_images}") String storageBasePath,
+                            @Value("${app.node-id:local}") String nodeId,
+                            @Value("${user-purge.batch-size:1000}") int batchSize,
+                            @Value("${user-purge.lease-seconds:120}") long leaseSeconds,
+                            @Value("${user-purge.max-attempts:5}") int maxAttempts,
+                            @Value("${user-purge.file-parallelism:4}") int fileParallelism,
+                            @Value("${user-purge.start-delay-ms:30000}") long startDelayMillis,
+                            @Value("${user-cache.revalidate-ms:5000}") long userCacheRevalidateMillis) {
+        this.jobRepository = jobRepository;
+        this.mealRepository = mealRepository;
+        this.mealSearchTokenRepository = mealSearchTokenRepository;
+        this.trainingDataLogRepository = trainingDataLogRepository;
+        this.dailyCalorieSummaryRepository = dailyCalorieSummaryRepository;
+        this.userFoodStatRepository = userFoodStatRepository;
+        this.imageStorageService = imageStorageService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.storageBasePath = Paths.get(storageBasePath).toAbsolutePath().normalize();
+        this.nodeId = nodeId;
+        this.batchSize = batchSize;
+        this.leaseSeconds = leaseSeconds;
+        this.maxAttempts = maxAttempts;
+        if (startDelayMillis <= userCacheRevalidateMillis) {
+            log.warn("user-purge.start-delay-ms({})가 user-cache.revalidate-ms({})보다 짧아 삭제된 유저의 식사가 남을 수 있습니다",
+                    startDelayMillis, userCacheRevalidateMillis);
+        }
+        this.startDelayMillis = startDelayMillis;
+        // 작업은 한 번에 하나씩 (스케줄 실행과 삭제 직후 실행이 겹치지 않도록 단일 스레드)
+        this.worker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-purge");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.fileDeletionPool = new ForkJoinPool(Math.max(1, fileParallelism));
+    }
+
+    /**
+     * 정리 작업 등록 (회원 삭제 트랜잭션 안에서 호출)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Long enqueue(Long userId, String userUniqueCode) {
+        UserPurgeJob job = jobRepository.save(UserPurgeJob.builder()
+                .userId(userId)
+                .userUniqueCode(userUniqueCode)
+                .status(UserPurgeJob.Status.PENDING)
+                .phase(UserPurgeJob.Phase.TRAINING_LOGS)
+                .build());
+        return job.getId();
+    }
+
+    @Transactional(readOnly = true)
+    public UserPurgeJobResponse getJob(Long jobId) {
+        UserPurgeJob job = jobRepository.findById(jobId)
+                .orElseThrow(() -> new IllegalArgumentException("정리 작업을 찾을 수 없습니다"));
+        return UserPurgeJobResponse.builder()
+                .jobId(job.getId())
+                .userId(job.getUserId())
+                .uniqueCode(job.getUserUniqueCode())
+                .status(job.getStatus().name())
+                .phase(job.getPhase().name())
+                .deletedMeals(job.getDeletedMeals())
+                .deletedTrainingLogs(job.getDeletedTrainingLogs())
+                .deletedDailySummaries(job.getDeletedDailySummaries())
+                .deletedFoodStats(job.getDeletedFoodStats())
+                .deletedFiles(job.getDeletedFiles())
+                .attempts(job.getAttempts())
+                .lastError(job.getLastError())
+                .createdAt(job.getCreatedAt())
+                .completedAt(job.getCompletedAt())
+                .build();
+    }
+
+    /**
+     * 삭제가 커밋되고 start-delay가 지나면 정리 시작 (주기 실행을 기다리지 않음)
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onUserDeleted(UserDeletedEvent event) {
+        worker.schedule(this::runPendingJobs, startDelayMillis + 1000, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 대기 중이거나 중단된 작업 처리 (재시작 후 이어서 진행)
+     */
+    @Scheduled(initialDelayString = "${user-purge.poll-ms:30000}", fixedDelayString = "${user-purge.poll-ms:30000}")
+    public void pollPendingJobs() {
+        worker.execute(this::runPendingJobs);
+    }
+
+    private void runPendingJobs() {
+        try {
+            List<Long> jobIds = transactionTemplate.execute(status -> jobRepository.findRunnableIds(
+                    UserPurgeJob.Status.PENDING, UserPurgeJob.Status.RUNNING,
+                    LocalDateTime.now().minusNanos(startDelayMillis * 1_000_000), staleBefore(), nodeId));
+            for (Long jobId : jobIds) {
+                if (claim(jobId)) {
+                    run(jobId);
+                }
+            }
+        } catch (Exception e) {
+            log.error("회원 데이터 정리 작업 조회 실패", e);
+        }
+    }
+
+    private boolean claim(Long jobId) {
+        Integer claimed = transactionTemplate.execute(status -> jobRepository.claim(jobId,
+                UserPurgeJob.Status.PENDING, UserPurgeJob.Status.RUNNING, nodeId, LocalDateTime.now(), staleBefore()));
+        return claimed != null && claimed > 0;
+    }
+
+    private void run(Long jobId) {
+        long startedAt = System.currentTimeMillis();
+        try {
+            UserPurgeJob.Phase phase = currentPhase(jobId);
+            while (phase != UserPurgeJob.Phase.DONE) {
+                if (phase == UserPurgeJob.Phase.IMAGES) {
+                    purgeImages(jobId);
+                } else {
+                    purgeRows(jobId, phase);
+                }
+                phase = advance(jobId, phase);
+            }
+
+            UserPurgeJob job = transactionTemplate.execute(status -> {
+                UserPurgeJob loaded = jobRepository.findById(jobId).orElseThrow();
+                loaded.setStatus(UserPurgeJob.Status.COMPLETED);
+                loaded.setCompletedAt(LocalDateTime.now());
+                loaded.setLastError(null);
+                return loaded;
+            });
+            log.info("회원 데이터 정리 완료 - 작업 {}, 유저 {}, 식사 {}건, 학습 로그 {}건, 집계 {}건, 음식 통계 {}건, 파일 {}개, {}ms",
+                    jobId, job.getUserUniqueCode(), job.getDeletedMeals(), job.getDeletedTrainingLogs(),
+                    job.getDeletedDailySummaries(), job.getDeletedFoodStats(), job.getDeletedFiles(),
+                    System.currentTimeMillis() - startedAt);
+        } catch (Exception e) {
+            log.error("회원 데이터 정리 실패 - 작업 {}", jobId, e);
+            markFailedOrRetry(jobId, e);
+        }
+    }
+
+    /**
+     * 한 테이블의 유저 행을 LIMIT 단위로 삭제 (배치마다 커밋하고 진행 상황 저장)
+     */
+    private void purgeRows(Long jobId, UserPurgeJob.Phase phase) {
+        int deleted;
+        do {
+            List<TrainingImageRef> unlinkedImages = new ArrayList<>();
+            deleted = transactionTemplate.execute(status -> {
+                UserPurgeJob job = jobRepository.findById(jobId).orElseThrow();
+                String code = job.getUserUniqueCode();
+                int count = switch (phase) {
+                    case SEARCH_TOKENS -> mealSearchTokenRepository.deleteBatchByUserUniqueCode(code, batchSize);
+                    case MEALS -> mealRepository.deleteBatchByUserUniqueCode(code, batchSize);
+                    case TRAINING_LOGS -> deleteTrainingLogBatch(code, unlinkedImages);
+                    case DAILY_SUMMARIES -> dailyCalorieSummaryRepository.deleteBatchByUserUniqueCode(code, batchSize);
+                    case FOOD_STATS -> userFoodStatRepository.deleteBatchByUserUniqueCode(code, batchSize);
+                    default -> throw new IllegalStateException("행 삭제 단계가 아닙니다: " + phase);
+                };
+                switch (phase) {
+                    case SEARCH_TOKENS -> { } // 식사에 딸린 색인이라 따로 세지 않음
+                    case MEALS -> job.setDeletedMeals(job.getDeletedMeals() + count);
+                    case TRAINING_LOGS -> job.setDeletedTrainingLogs(job.getDeletedTrainingLogs() + count);
+                    case DAILY_SUMMARIES -> job.setDeletedDailySummaries(job.getDeletedDailySummaries() + count);
+                    default -> job.setDeletedFoodStats(job.getDeletedFoodStats() + count);
+                }
+                job.setHeartbeatAt(LocalDateTime.now());
+                return count;
+            });
+            releaseImages(jobId, unlinkedImages);
+        } while (deleted >= batchSize);
+    }
+
+    /**
+     * 학습 데이터 로그 한 배치 삭제 (참조하던 내용 주소 이미지는 커밋 후 정리하도록 모아 둠)
+     */
+    private int deleteTrainingLogBatch(String userUniqueCode, List<TrainingImageRef> unlinkedImages) {
+        List<TrainingImageRef> refs = trainingDataLogRepository.findImageRefsByUserUniqueCode(
+                userUniqueCode, PageRequest.of(0, batchSize));
+        if (refs.isEmpty()) {
+            return 0;
+        }
+        List<Long> logIds = new ArrayList<>(refs.size());
+        for (TrainingImageRef ref : refs) {
+            logIds.add(ref.getLogId());
+            if (ref.getImageSha256() != null) {
+                unlinkedImages.add(ref);
+            }
+        }
+        return trainingDataLogRepository.deleteByLogIdIn(logIds);
+    }
+
+    /**
+     * 다른 유저/로그가 더 이상 참조하지 않는 이미지 삭제
+     * (커밋과 삭제 사이에 중단되면 파일이 남을 수 있으나, 참조 중인 파일을 지우지는 않음)
+     */
+    private void releaseImages(Long jobId, List<TrainingImageRef> unlinkedImages) {
+        if (unlinkedImages.isEmpty()) {
+            return;
+        }
+        Set<String> released = new HashSet<>();
+        long deletedFiles = 0;
+        for (TrainingImageRef ref : unlinkedImages) {
+            if (released.add(ref.getImagePath())
+                    && imageStorageService.releaseIfUnreferenced(ref.getImageSha256(), ref.getImagePath())) {
+                deletedFiles++;
+            }
+        }
+        long count = deletedFiles;
+        transactionTemplate.executeWithoutResult(status -> {
+            UserPurgeJob job = jobRepository.findById(jobId).orElseThrow();
+            job.setDeletedFiles(job.getDeletedFiles() + count);
+        });
+    }
+
+    /**
+     * 유저 이미지 디렉토리를 병렬로 삭제 (없으면 건너뜀, 재실행해도 안전)
+     */
+    private void purgeImages(Long jobId) throws IOException {
+        String code = transactionTemplate.execute(status -> jobRepository.findById(jobId).orElseThrow().getUserUniqueCode());
+        Path userDirectory = storageBasePath.resolve(code).normalize();
+        if (!userDirectory.startsWith(storageBasePath) || userDirectory.equals(storageBasePath)) {
+            throw new IllegalStateException("잘못된 이미지 경로입니다: " + userDirectory);
+        }
+        if (!Files.isDirectory(userDirectory)) {
+            return;
+        }
+
+        long deletedFiles;
+        try {
+            deletedFiles = fileDeletionPool.invoke(new DirectoryDeletion(userDirectory));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            UserPurgeJob job = jobRepository.findById(jobId).orElseThrow();
+            job.setDeletedFiles(job.getDeletedFiles() + deletedFiles);
+            job.setHeartbeatAt(LocalDateTime.now());
+        });
+    }
+
+    private UserPurgeJob.Phase currentPhase(Long jobId) {
+        return transactionTemplate.execute(status -> jobRepository.findById(jobId).orElseThrow().getPhase());
+    }
+
+    private UserPurgeJob.Phase advance(Long jobId, UserPurgeJob.Phase phase) {
+        return transactionTemplate.execute(status -> {
+            UserPurgeJob job = jobRepository.findById(jobId).orElseThrow();
+            job.setPhase(phase.next());
+            job.setHeartbeatAt(LocalDateTime.now());
+            return job.getPhase();
+        });
+    }
+
+    private void markFailedOrRetry(Long jobId, Exception error) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                UserPurgeJob job = jobRepository.findById(jobId).orElseThrow();
+                String message = String.valueOf(error.getMessage());
+                job.setLastError(message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message);
+                // 시도 횟수가 남았으면 다음 주기에 현재 단계부터 다시 시도
+                job.setStatus(job.getAttempts() >= maxAttempts ? UserPurgeJob.Status.FAILED : UserPurgeJob.Status.PENDING);
+            });
+        } catch (Exception e) {
+            log.error("회원 데이터 정리 작업 상태 저장 실패 - 작업 {}", jobId, e);
+        }
+    }
+
+    private LocalDateTime staleBefore() {
+        return LocalDateTime.now().minusSeconds(leaseSeconds);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdownNow();
+        fileDeletionPool.shutdownNow();
+    }
+
+    /**
+     * 디렉토리 삭제 작업 (하위 디렉토리는 fork하여 병렬 처리, 삭제한 파일 수 반환)
+     */
+    private static final class DirectoryDeletion extends RecursiveTask<Long> {
+
+        private final Path directory;
+
+        private DirectoryDeletion(Path directory) {
+            this.directory = directory;
+        }
+
+        @Override
+        protected Long compute() {
+            long deleted = 0;
+            List<DirectoryDeletion> subtasks = new ArrayList<>();
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+                for (Path entry : entries) {
+                    if (Files.isDirectory(entry, LinkOption.NOFOLLOW_LINKS)) {
+                        DirectoryDeletion subtask = new DirectoryDeletion(entry);
+                        subtask.fork();
+                        subtasks.add(subtask);
+                    } else if (Files.deleteIfExists(entry)) {
+                        deleted++;
+                    }
+                }
+            } catch (NoSuchFileException e) {
+                return 0L;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            for (DirectoryDeletion subtask : subtasks) {
+                deleted += subtask.join();
+            }
+            try {
+                Files.deleteIfExists(directory);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return deleted;
+        }
+    }
+}
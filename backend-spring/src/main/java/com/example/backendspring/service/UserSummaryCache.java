@@ -0,0 +1,133 @@
+package com.example.backendspring.service;
+
+import com.example.backendspring.dto.auth.UserSummary;
+import com.example.backendspring.event.UserGoalChangedEvent;
+import com.example.backendspring.repository.UserRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 유저 요약 near-cache (고유 코드 → id, 이름, 목표 칼로리, 목표 버전)
+ *
+ * 이 서버의 목표 변경/비밀번호 재설정/삭제는 커밋 후 바로 무효화합니다.
+ * 다른 서버의 변경은 revalidate 주기가 지난 항목을 쓸 때 users.goal_version만 조회해 확인하고,
+ * 버전이 올라갔으면 다시 읽고 행이 없으면(삭제) 제거합니다.
+ */
+@Service
+public class UserSummaryCache {
+
+    private final UserRepository userRepository;
+    private final Map<String, CachedSummary> cache;
+    private final long revalidateMillis;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder revalidations = new LongAdder();
+
+    public UserSummaryCache(UserRepository userRepository,
+                            ObjectProvider<MeterRegistry> meterRegistryProvider,
+                            @Value("${user-cache.max-entries:100000}") int maxEntries,
+                            @Value("${user-cache.revalidate-ms:5000}") long revalidateMillis) {
+        this.userRepository = userRepository;
+        this.revalidateMillis = revalidateMillis;
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedSummary> eldest) {
+                return size() > maxEntries;
+            }
+        });
+
+        meterRegistryProvider.ifAvailable(registry -> {
+            FunctionCounter.builder("user.summary.cache.requests", hits, LongAdder::sum)
+                    .tag("result", "hit").register(registry);
+            FunctionCounter.builder("user.summary.cache.requests", misses, LongAdder::sum)
+                    .tag("result", "miss").register(registry);
+            FunctionCounter.builder("user.summary.cache.revalidations", revalidations, LongAdder::sum)
+                    .register(registry);
+            Gauge.builder("user.summary.cache.hit.ratio", this, UserSummaryCache::hitRatio).register(registry);
+            Gauge.builder("user.summary.cache.size", cache, Map::size).register(registry);
+        });
+    }
+
+    /**
+     * 유저 요약 조회 (없으면 empty)
+     */
+    public Optional<UserSummary> get(String userUniqueCode) {
+        CachedSummary cached = cache.get(userUniqueCode);
+        long now = System.currentTimeMillis();
+        if (cached != null) {
+            if (now - cached.checkedAt() <= revalidateMillis) {
+                hits.increment();
+                return Optional.of(cached.summary());
+            }
+
+            // 다른 서버에서 바뀌었는지 버전만 확인
+            revalidations.increment();
+            Optional<Long> version = userRepository.findGoalVersionByUniqueCode(userUniqueCode);
+            if (version.isEmpty()) {
+                cache.remove(userUniqueCode);
+                misses.increment();
+                return Optional.empty();
+            }
+            // replica 지연으로 더 낮은 버전이 보일 수 있으므로 높아진 경우만 다시 읽음
+            if (version.get() <= cached.summary().getGoalVersion()) {
+                cache.put(userUniqueCode, new CachedSummary(cached.summary(), now));
+                hits.increment();
+                return Optional.of(cached.summary());
+            }
+        }
+
+        misses.increment();
+        Optional<UserSummary> loaded = userRepository.findSummaryByUniqueCode(userUniqueCode);
+        loaded.ifPresentOrElse(
+                summary -> cache.merge(userUniqueCode, new CachedSummary(summary, now),
+                        (current, updated) -> current.summary().getGoalVersion() > updated.summary().getGoalVersion()
+                                ? current : updated),
+                () -> cache.remove(userUniqueCode));
+        return loaded;
+    }
+
+    /**
+     * 현재 트랜잭션 커밋 후 무효화 (트랜잭션 밖이면 즉시)
+     */
+    public void invalidateAfterCommit(String userUniqueCode) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            cache.remove(userUniqueCode);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cache.remove(userUniqueCode);
+            }
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onGoalChanged(UserGoalChangedEvent event) {
+        cache.remove(event.getUserUniqueCode());
+    }
+
+    private double hitRatio() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    private record CachedSummary(UserSummary summary, long checkedAt) {
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.backendspring.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 블룸 필터 (집합 소속 여부를 거짓 음성 없이 근사)
+ *
+ * mightContain이 false면 확실히 추가된 적 없는 항목이고, true면 추가되었거나 오탐(false positive)입니다.
+ * 비트 배열은 AtomicLongArray라 여러 스레드가 잠금 없이 추가/조회할 수 있습니다.
+ * 항목 삭제는 지원하지 않습니다.
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    /**
+     * @param expectedInsertions 예상 항목 수
+     * @param falsePositiveRate 목표 오탐률 (예: 0.01)
+     */
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("expectedInsertions는 1 이상이어야 합니다");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("falsePositiveRate는 0과 1 사이여야 합니다");
+        }
+        // m = -n ln p / (ln 2)^2, k = m / n * ln 2
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, (bits + 63) / 64);
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+    }
+
+    public void put(String item) {
+        long hash1 = hash64(item, 0x9e3779b97f4a7c15L);
+        long hash2 = hash64(item, 0xc2b2ae3d27d4eb4fL);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = bits.get(word);
+            while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+                current = bits.get(word);
+            }
+        }
+    }
+
+    public boolean mightContain(String item) {
+        long hash1 = hash64(item, 0x9e3779b97f4a7c15L);
+        long hash2 = hash64(item, 0xc2b2ae3d27d4eb4fL);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(hash1 + i * hash2, bitCount);
+            if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long sizeInBytes() {
+        return bitCount / 8;
+    }
+
+    /**
+     * 시드별 64비트 해시 (FNV-1a 후 MurmurHash3 fmix64로 비트 확산)
+     */
+    private static long hash64(String item, long seed) {
+        long hash = 0xcbf29ce484222325L ^ seed;
+        for (byte b : item.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
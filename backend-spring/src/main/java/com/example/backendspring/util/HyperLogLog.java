@@ -0,0 +1,124 @@
+package com.example.backendspring.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * HyperLogLog 고유 개수 추정 스케치
+ *
+ * 2^precision개의 1바이트 레지스터만으로 고유 항목 수를 추정합니다 (표준 오차 약 1.04 / sqrt(2^precision)).
+ * 레지스터별 최댓값을 취하면 병합되므로 서버별·날짜별 스케치를 임의 구간으로 합칠 수 있습니다.
+ * (스레드 안전하지 않음)
+ */
+public class HyperLogLog {
+
+    private final int precision;
+    private final byte[] registers;
+
+    public HyperLogLog(int precision) {
+        if (precision < 4 || precision > 18) {
+            throw new IllegalArgumentException("precision은 4 이상 18 이하여야 합니다");
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    public void offer(String item) {
+        long hash = hash64(item);
+        int index = (int) (hash >>> (64 - precision));
+        // 인덱스로 쓴 상위 비트를 제외한 나머지에서 첫 1비트 위치 (경계 비트로 최대값 제한)
+        long remaining = (hash << precision) | (1L << (precision - 1));
+        byte rank = (byte) (Long.numberOfLeadingZeros(remaining) + 1);
+        if (rank > registers[index]) {
+            registers[index] = rank;
+        }
+    }
+
+    public void merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("precision이 다른 스케치는 병합할 수 없습니다");
+        }
+        for (int i = 0; i < registers.length; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    public long estimate() {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = alpha(m) * m * m / sum;
+        // 작은 범위 보정 (linear counting)
+        if (estimate <= 2.5 * m && zeros > 0) {
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    public HyperLogLog copy() {
+        HyperLogLog copy = new HyperLogLog(precision);
+        System.arraycopy(registers, 0, copy.registers, 0, registers.length);
+        return copy;
+    }
+
+    public boolean isEmpty() {
+        for (byte register : registers) {
+            if (register != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public String toBase64() {
+        return Base64.getEncoder().encodeToString(registers);
+    }
+
+    public static HyperLogLog fromBase64(int precision, String encoded) {
+        byte[] decoded = Base64.getDecoder().decode(encoded);
+        HyperLogLog sketch = new HyperLogLog(precision);
+        if (decoded.length != sketch.registers.length) {
+            throw new IllegalArgumentException("레지스터 크기가 precision과 맞지 않습니다");
+        }
+        System.arraycopy(decoded, 0, sketch.registers, 0, decoded.length);
+        return sketch;
+    }
+
+    public int sizeInBytes() {
+        return registers.length;
+    }
+
+    private static double alpha(int m) {
+        return switch (m) {
+            case 16 -> 0.673;
+            case 32 -> 0.697;
+            case 64 -> 0.709;
+            default -> 0.7213 / (1 + 1.079 / m);
+        };
+    }
+
+    /**
+     * 64비트 해시 (FNV-1a 후 MurmurHash3 fmix64로 비트 확산)
+     */
+    private static long hash64(String item) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : item.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
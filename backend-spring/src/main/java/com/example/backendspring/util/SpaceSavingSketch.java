@@ -0,0 +1,243 @@
+package com.example.backendspring.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving 빈도 스케치 (상위 K개 항목 추적)
+ *
+ * 최대 capacity개의 카운터만 유지하며, 가득 찬 상태에서 새 항목이 들어오면
+ * 가장 작은 카운터를 새 항목에 넘겨주고 그 값을 오차(error)로 기록합니다.
+ * 실제 빈도는 count - error 이상 count 이하이며, 빈도가 전체의 1/capacity를 넘는 항목은 반드시 남습니다.
+ * 메모리는 항목 수와 무관하게 capacity에 비례합니다. (스레드 안전하지 않음)
+ *
+ * 카운터는 같은 count끼리 버킷에 묶고 버킷을 count 오름차순 연결 리스트로 유지하므로(Stream-Summary),
+ * offer는 최솟값 탐색 없이 O(1)입니다 (첫 버킷이 최솟값, 증가는 다음 버킷으로 이동).
+ */
+public class SpaceSavingSketch {
+
+    private final int capacity;
+    private final Map<String, Counter> counters;
+    private Bucket smallest; // count가 가장 작은 버킷 (비어 있으면 null)
+
+    public SpaceSavingSketch(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity는 1 이상이어야 합니다");
+        }
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+
+    public void offer(String item) {
+        Counter counter = counters.get(item);
+        if (counter == null) {
+            if (counters.size() < capacity) {
+                counter = new Counter(item, 0);
+                counters.put(item, counter);
+                Bucket first = smallest != null && smallest.count == 1 ? smallest : insertBefore(smallest, 1);
+                first.add(counter);
+                return;
+            }
+            // 가장 작은 카운터를 새 항목에 넘겨줌
+            counter = smallest.first;
+            counters.remove(counter.item);
+            counter.item = item;
+            counter.error = counter.bucket.count;
+            counters.put(item, counter);
+        }
+        increment(counter);
+    }
+
+    /**
+     * 다른 스케치를 합침 (다른 서버/다른 기간의 스케치 병합)
+     * 한쪽에만 있는 항목은 다른 쪽이 가득 찬 경우 그 최솟값만큼 빈도/오차를 더한 뒤 상위 capacity개만 남깁니다.
+     */
+    public void merge(SpaceSavingSketch other) {
+        long thisMin = minCount();
+        long otherMin = other.minCount();
+        List<Entry> combined = new ArrayList<>(counters.size() + other.counters.size());
+        counters.forEach((item, counter) -> {
+            Counter match = other.counters.get(item);
+            combined.add(match != null
+                    ? new Entry(item, counter.count() + match.count(), counter.error + match.error)
+                    : new Entry(item, counter.count() + otherMin, counter.error + otherMin));
+        });
+        other.counters.forEach((item, counter) -> {
+            if (!counters.containsKey(item)) {
+                combined.add(new Entry(item, counter.count() + thisMin, counter.error + thisMin));
+            }
+        });
+        rebuild(combined);
+    }
+
+    /**
+     * 빈도 상위 limit개 (count 내림차순)
+     */
+    public List<Entry> top(int limit) {
+        return entries().stream()
+                .sorted(Comparator.comparingLong(Entry::count).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * 체크포인트 저장용 전체 카운터
+     */
+    public List<Entry> entries() {
+        List<Entry> entries = new ArrayList<>(counters.size());
+        counters.forEach((item, counter) -> entries.add(new Entry(item, counter.count(), counter.error)));
+        return entries;
+    }
+
+    /**
+     * 체크포인트에서 복원
+     */
+    public static SpaceSavingSketch of(int capacity, List<Entry> entries) {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(capacity);
+        sketch.rebuild(new ArrayList<>(entries));
+        return sketch;
+    }
+
+    public int size() {
+        return counters.size();
+    }
+
+    /**
+     * 가득 찬 경우 가장 작은 count, 아니면 0 (여기 없는 항목의 빈도 상한)
+     */
+    private long minCount() {
+        return counters.size() < capacity ? 0 : smallest.count;
+    }
+
+    private void increment(Counter counter) {
+        Bucket from = counter.bucket;
+        Bucket to = from.next != null && from.next.count == from.count + 1
+                ? from.next
+                : insertAfter(from, from.count + 1);
+        from.remove(counter);
+        to.add(counter);
+        if (from.first == null) {
+            unlink(from);
+        }
+    }
+
+    /**
+     * count 상위 capacity개로 다시 구성 (병합/복원용, 정렬 한 번)
+     */
+    private void rebuild(List<Entry> entries) {
+        entries.sort(Comparator.comparingLong(Entry::count).reversed());
+        List<Entry> kept = entries.subList(0, Math.min(capacity, entries.size()));
+        counters.clear();
+        smallest = null;
+        Bucket tail = null;
+        for (int i = kept.size() - 1; i >= 0; i--) {
+            Entry entry = kept.get(i);
+            if (entry.count() <= 0) {
+                continue;
+            }
+            if (tail == null || tail.count != entry.count()) {
+                tail = tail == null ? insertBefore(null, entry.count()) : insertAfter(tail, entry.count());
+            }
+            Counter counter = new Counter(entry.item(), entry.error());
+            counters.put(entry.item(), counter);
+            tail.add(counter);
+        }
+    }
+
+    private Bucket insertAfter(Bucket bucket, long count) {
+        Bucket inserted = new Bucket(count);
+        inserted.prev = bucket;
+        inserted.next = bucket.next;
+        if (bucket.next != null) {
+            bucket.next.prev = inserted;
+        }
+        bucket.next = inserted;
+        return inserted;
+    }
+
+    /**
+     * 맨 앞(smallest 앞)에 버킷 추가 (bucket은 smallest여야 함)
+     */
+    private Bucket insertBefore(Bucket bucket, long count) {
+        Bucket inserted = new Bucket(count);
+        inserted.next = bucket;
+        if (bucket != null) {
+            bucket.prev = inserted;
+        }
+        smallest = inserted;
+        return inserted;
+    }
+
+    private void unlink(Bucket bucket) {
+        if (bucket.prev != null) {
+            bucket.prev.next = bucket.next;
+        } else {
+            smallest = bucket.next;
+        }
+        if (bucket.next != null) {
+            bucket.next.prev = bucket.prev;
+        }
+    }
+
+    public record Entry(String item, long count, long error) {
+    }
+
+    /**
+     * 같은 count의 카운터 묶음 (카운터는 이중 연결 리스트)
+     */
+    private static final class Bucket {
+
+        private final long count;
+        private Bucket prev;
+        private Bucket next;
+        private Counter first;
+
+        private Bucket(long count) {
+            this.count = count;
+        }
+
+        private void add(Counter counter) {
+            counter.bucket = this;
+            counter.prev = null;
+            counter.next = first;
+            if (first != null) {
+                first.prev = counter;
+            }
+            first = counter;
+        }
+
+        private void remove(Counter counter) {
+            if (counter.prev != null) {
+                counter.prev.next = counter.next;
+            } else {
+                first = counter.next;
+            }
+            if (counter.next != null) {
+                counter.next.prev = counter.prev;
+            }
+            counter.prev = null;
+            counter.next = null;
+        }
+    }
+
+    private static final class Counter {
+
+        private String item;
+        private long error;
+        private Bucket bucket;
+        private Counter prev;
+        private Counter next;
+
+        private Counter(String item, long error) {
+            this.item = item;
+            this.error = error;
+        }
+
+        private long count() {
+            return bucket.count;
+        }
+    }
+}
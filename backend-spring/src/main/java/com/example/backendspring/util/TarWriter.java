@@ -0,0 +1,144 @@
+package com.example.backendspring.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * ustar 형식 tar 스트림 작성기 (WebDataset 샤드용)
+ *
+ * 항목마다 512바이트 헤더 + 본문 + 512바이트 경계까지 0 패딩을 쓰고, close 시 빈 블록 두 개로 끝냅니다.
+ * 파일 본문은 FileChannel.transferTo로 복사하므로 대상이 파일/소켓 채널이면 커널 안에서 복사됩니다.
+ * 이름은 100바이트 이하 ASCII만 지원합니다 (샤드 안의 이름은 "{key}.{확장자}" 형태로 짧음).
+ */
+public class TarWriter implements Closeable {
+
+    private static final int BLOCK_SIZE = 512;
+    private static final int MAX_NAME_LENGTH = 100;
+    private static final long MAX_ENTRY_SIZE = 077777777777L; // 11자리 8진수 (8GiB - 1)
+
+    private final WritableByteChannel out;
+    private final ByteBuffer header = ByteBuffer.allocate(BLOCK_SIZE);
+    private long bytesWritten;
+
+    public TarWriter(WritableByteChannel out) {
+        this.out = out;
+    }
+
+    /**
+     * 메모리의 내용을 항목으로 추가
+     */
+    public void addEntry(String name, byte[] content, long modifiedSeconds) throws IOException {
+        writeHeader(name, content.length, modifiedSeconds);
+        writeFully(ByteBuffer.wrap(content));
+        pad(content.length);
+    }
+
+    /**
+     * 파일 내용을 항목으로 추가 (크기는 열린 채널 기준)
+     */
+    public void addEntry(String name, FileChannel file, long modifiedSeconds) throws IOException {
+        long size = file.size();
+        writeHeader(name, size, modifiedSeconds);
+        long position = 0;
+        while (position < size) {
+            long transferred = file.transferTo(position, size - position, out);
+            if (transferred <= 0) {
+                throw new IOException("파일이 쓰는 도중 줄어들었습니다: " + name);
+            }
+            position += transferred;
+        }
+        bytesWritten += size;
+        pad(size);
+    }
+
+    /**
+     * 지금까지 쓴 바이트 수 (헤더/패딩 포함)
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * 항목 하나가 차지할 바이트 수 (샤드 크기 계산용)
+     */
+    public static long entrySize(long contentSize) {
+        return BLOCK_SIZE + (contentSize + BLOCK_SIZE - 1) / BLOCK_SIZE * BLOCK_SIZE;
+    }
+
+    /**
+     * 끝 표시(빈 블록 두 개)를 쓰고 종료 (대상 채널은 닫지 않음)
+     */
+    @Override
+    public void close() throws IOException {
+        writeFully(ByteBuffer.allocate(BLOCK_SIZE * 2));
+    }
+
+    private void writeHeader(String name, long size, long modifiedSeconds) throws IOException {
+        byte[] nameBytes = name.getBytes(StandardCharsets.US_ASCII);
+        if (nameBytes.length > MAX_NAME_LENGTH) {
+            throw new IllegalArgumentException("tar 항목 이름이 너무 깁니다: " + name);
+        }
+        if (size > MAX_ENTRY_SIZE) {
+            throw new IllegalArgumentException("tar 항목이 너무 큽니다: " + name);
+        }
+
+        header.clear();
+        byte[] block = header.array();
+        Arrays.fill(block, (byte) 0);
+        System.arraycopy(nameBytes, 0, block, 0, nameBytes.length);
+        putOctal(block, 100, 8, 0644);                  // mode
+        putOctal(block, 108, 8, 0);                     // uid
+        putOctal(block, 116, 8, 0);                     // gid
+        putOctal(block, 124, 12, size);                 // size
+        putOctal(block, 136, 12, modifiedSeconds);      // mtime
+        Arrays.fill(block, 148, 156, (byte) ' ');       // checksum 계산 시 공백으로 간주
+        block[156] = '0';                               // 일반 파일
+        putAscii(block, 257, "ustar\0");
+        putAscii(block, 263, "00");
+
+        long checksum = 0;
+        for (byte b : block) {
+            checksum += b & 0xff;
+        }
+        putOctal(block, 148, 7, checksum);
+        block[155] = ' ';
+
+        writeFully(header);
+    }
+
+    private void pad(long contentSize) throws IOException {
+        int remainder = (int) (contentSize % BLOCK_SIZE);
+        if (remainder != 0) {
+            writeFully(ByteBuffer.allocate(BLOCK_SIZE - remainder));
+        }
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        bytesWritten += buffer.remaining();
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+
+    /**
+     * 0으로 채운 8진수 + NUL (length - 1자리)
+     */
+    private static void putOctal(byte[] block, int offset, int length, long value) {
+        String octal = Long.toOctalString(value);
+        int digits = length - 1;
+        int start = offset + digits - octal.length();
+        Arrays.fill(block, offset, start, (byte) '0');
+        putAscii(block, start, octal);
+        block[offset + digits] = 0;
+    }
+
+    private static void putAscii(byte[] block, int offset, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(bytes, 0, block, offset, bytes.length);
+    }
+}
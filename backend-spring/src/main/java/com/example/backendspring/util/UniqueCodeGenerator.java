@@ -1,28 +1,168 @@
 package com.example.backendspring.util;
 
-import java.security.SecureRandom;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
 
 /**
  * 유저 고유 코드 생성기
- * a-z, A-Z, 0-9 조합으로 10자리 랜덤 코드 생성
+ * a-z, A-Z, 0-9 조합으로 10자리 코드 생성
+ *
+ * 서버 번호(10비트) + 초 단위 시각(32비트) + 초당 순번(17비트)으로 만든 59비트 값은 서버마다 겹치지 않으므로,
+ * 이를 키 기반 Feistel 치환(전단사)으로 섞어 62^10 범위 안의 값으로 바꾸면 중복 확인 쿼리 없이도 유일합니다.
+ * 치환 결과가 62^10 이상이면 다시 치환합니다 (cycle walking, 평균 1.4회).
+ *
+ * 입력(서버 번호, 시각, 순번)은 추측하기 쉬우므로 코드를 예측할 수 없게 하는 것은 키뿐입니다.
+ * 라운드 함수는 HMAC-SHA256(키, 라운드 번호 + 오른쪽 절반)이고, 키는 기본값 없이 unique-code.key로 반드시 지정해야 합니다.
+ *
+ * 주의: 키를 바꾸면 이전에 발급한 코드와 겹칠 수 있으므로 운영 중에는 변경하지 말 것
  */
+@Slf4j
+@Component
 public class UniqueCodeGenerator {
-    
+
     private static final String CHARACTERS = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
     private static final int CODE_LENGTH = 10;
-    private static final SecureRandom random = new SecureRandom();
-    
+    private static final long CODE_SPACE = pow(CHARACTERS.length(), CODE_LENGTH); // 62^10 ≈ 2^59.5
+
+    private static final int NODE_BITS = 10;
+    private static final int COUNTER_BITS = 17;
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long EPOCH_SECONDS = 1704067200L; // 2024-01-01T00:00:00Z
+
+    private static final int HALF_BITS = 30; // Feistel 한쪽 절반 (전체 2^60 범위)
+    private static final long HALF_MASK = (1L << HALF_BITS) - 1;
+    private static final int ROUNDS = 6;
+    private static final int MIN_KEY_LENGTH = 32;
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final long nodeId;
+    private final LongSupplier epochSeconds;
+    private final ThreadLocal<Mac> macs;
+    private final ThreadLocal<ByteBuffer> roundInputs = ThreadLocal.withInitial(() -> ByteBuffer.allocate(Integer.BYTES + Long.BYTES));
+    // 상위: 마지막으로 사용한 초, 하위 COUNTER_BITS: 그 초의 순번
+    private final AtomicLong state = new AtomicLong();
+
+    public UniqueCodeGenerator(@Value("${unique-code.node-id:-1}") long nodeId,
+                               @Value("${app.node-id:local}") String nodeName,
+                               @Value("${unique-code.key:}") String key) {
+        this(resolveNodeId(nodeId, nodeName), key, () -> System.currentTimeMillis() / 1000);
+    }
+
+    UniqueCodeGenerator(long nodeId, String key, LongSupplier epochSeconds) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("unique-code.node-id는 0 이상 " + MAX_NODE_ID + " 이하여야 합니다");
+        }
+        if (key == null || key.isBlank()) {
+            // 키가 공개되면 코드를 역산해 다른 유저의 코드를 알아낼 수 있으므로 기본값을 두지 않음
+            throw new IllegalStateException("unique-code.key(UNIQUE_CODE_KEY)가 설정되지 않았습니다");
+        }
+        if (key.length() < MIN_KEY_LENGTH) {
+            throw new IllegalStateException("unique-code.key는 " + MIN_KEY_LENGTH + "자 이상이어야 합니다");
+        }
+        this.nodeId = nodeId;
+        this.epochSeconds = epochSeconds;
+        SecretKeySpec keySpec = new SecretKeySpec(key.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+        this.macs = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+                mac.init(keySpec);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HMAC 초기화 실패", e);
+            }
+        });
+        // 재시작 직전 프로세스와 같은 초의 순번이 겹치지 않도록 시작한 다음 초부터 사용
+        this.state.set((epochSeconds.getAsLong() - EPOCH_SECONDS + 1) << COUNTER_BITS);
+    }
+
+    private static long resolveNodeId(long nodeId, String nodeName) {
+        if (nodeId < 0) {
+            // 서버 번호 미지정 시 서버 이름 해시 사용 (여러 대 운영 시에는 겹치지 않게 직접 지정해야 함)
+            nodeId = (nodeName.hashCode() & 0x7fffffff) % (MAX_NODE_ID + 1);
+            log.info("unique-code.node-id 미지정 - 서버 이름 '{}'으로 {}번 사용", nodeName, nodeId);
+        }
+        return nodeId;
+    }
+
     /**
      * 유저 고유 코드 생성
-     * @return 10자리 랜덤 코드 (예: "aB3xK9pQr2")
+     * @return 10자리 코드 (예: "aB3xK9pQr2")
+     */
+    public String generate() {
+        long sequence = (nodeId << (32 + COUNTER_BITS)) | nextTimeAndCounter();
+        long permuted = sequence;
+        do {
+            permuted = permute(permuted);
+        } while (permuted >= CODE_SPACE);
+        return encode(permuted);
+    }
+
+    /**
+     * (초 << COUNTER_BITS) | 순번
+     * 시계가 뒤로 가거나 한 초에 순번을 다 쓰면 다음 초를 미리 당겨 써서 단조 증가를 유지
      */
-    public static String generate() {
-        StringBuilder code = new StringBuilder(CODE_LENGTH);
-        for (int i = 0; i < CODE_LENGTH; i++) {
-            int index = random.nextInt(CHARACTERS.length());
-            code.append(CHARACTERS.charAt(index));
+    private long nextTimeAndCounter() {
+        long now = (epochSeconds.getAsLong() - EPOCH_SECONDS) << COUNTER_BITS;
+        while (true) {
+            long current = state.get();
+            long next = Math.max(now, current + 1);
+            if (state.compareAndSet(current, next)) {
+                if ((next >>> COUNTER_BITS) > 0xffffffffL) {
+                    throw new IllegalStateException("유저 고유 코드 시각 범위를 초과했습니다");
+                }
+                return next;
+            }
         }
-        return code.toString();
     }
-}
 
+    /**
+     * 60비트 범위의 평형 Feistel 치환 (전단사이므로 서로 다른 입력은 항상 서로 다른 출력)
+     */
+    private long permute(long value) {
+        long left = value >>> HALF_BITS;
+        long right = value & HALF_MASK;
+        for (int round = 0; round < ROUNDS; round++) {
+            long mixed = left ^ (roundFunction(round, right) & HALF_MASK);
+            left = right;
+            right = mixed;
+        }
+        return (left << HALF_BITS) | right;
+    }
+
+    private static String encode(long value) {
+        char[] code = new char[CODE_LENGTH];
+        for (int i = CODE_LENGTH - 1; i >= 0; i--) {
+            code[i] = CHARACTERS.charAt((int) (value % CHARACTERS.length()));
+            value /= CHARACTERS.length();
+        }
+        return new String(code);
+    }
+
+    /**
+     * 라운드 함수 HMAC-SHA256(키, 라운드 번호 || 오른쪽 절반)의 앞 8바이트
+     */
+    private long roundFunction(int round, long right) {
+        ByteBuffer input = roundInputs.get();
+        input.clear();
+        input.putInt(round).putLong(right);
+        byte[] digest = macs.get().doFinal(input.array());
+        return ByteBuffer.wrap(digest).getLong();
+    }
+
+    private static long pow(long base, int exponent) {
+        long result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result *= base;
+        }
+        return result;
+    }
+}
@@ -3,7 +3,7 @@ package com.example.backendspring;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "unique-code.key=test-unique-code-key-0123456789abcdef")
 class BackendSpringApplicationTests {
 
     @Test
@@ -0,0 +1,105 @@
+package com.example.backendspring.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class HyperLogLogTest {
+
+    private static final int PRECISION = 14;
+    // 표준 오차 1.04 / sqrt(2^14) ≈ 0.81%, 고정된 입력이므로 3배 여유로 검사
+    private static final double TOLERANCE = 3 * 1.04 / Math.sqrt(1 << PRECISION);
+
+    @Test
+    void estimatesWithinErrorBounds() {
+        for (int cardinality : new int[]{1_000, 10_000, 100_000, 1_000_000}) {
+            HyperLogLog sketch = new HyperLogLog(PRECISION);
+            for (int i = 0; i < cardinality; i++) {
+                sketch.offer("user-" + i);
+            }
+
+            assertThat((double) sketch.estimate())
+                    .as("cardinality %d", cardinality)
+                    .isCloseTo(cardinality, within(cardinality * TOLERANCE));
+        }
+    }
+
+    @Test
+    void smallCardinalitiesAreNearlyExact() {
+        HyperLogLog sketch = new HyperLogLog(PRECISION);
+        assertThat(sketch.isEmpty()).isTrue();
+        assertThat(sketch.estimate()).isZero();
+
+        for (int i = 0; i < 100; i++) {
+            sketch.offer("user-" + i);
+        }
+        assertThat(sketch.isEmpty()).isFalse();
+        assertThat(sketch.estimate()).isBetween(98L, 102L);
+    }
+
+    @Test
+    void duplicatesDoNotChangeEstimate() {
+        HyperLogLog sketch = new HyperLogLog(PRECISION);
+        for (int i = 0; i < 10_000; i++) {
+            sketch.offer("user-" + i);
+        }
+        long estimate = sketch.estimate();
+
+        for (int repeat = 0; repeat < 3; repeat++) {
+            for (int i = 0; i < 10_000; i++) {
+                sketch.offer("user-" + i);
+            }
+        }
+        assertThat(sketch.estimate()).isEqualTo(estimate);
+    }
+
+    @Test
+    void mergeEstimatesUnion() {
+        HyperLogLog monday = new HyperLogLog(PRECISION);
+        HyperLogLog tuesday = new HyperLogLog(PRECISION);
+        HyperLogLog union = new HyperLogLog(PRECISION);
+        // 50,000명씩, 20,000명 겹침 -> 합집합 80,000명
+        for (int i = 0; i < 50_000; i++) {
+            monday.offer("user-" + i);
+            union.offer("user-" + i);
+        }
+        for (int i = 30_000; i < 80_000; i++) {
+            tuesday.offer("user-" + i);
+            union.offer("user-" + i);
+        }
+
+        HyperLogLog merged = monday.copy();
+        merged.merge(tuesday);
+
+        // 레지스터별 최댓값이므로 한 스케치에 모두 넣은 것과 같음
+        assertThat(merged.toBase64()).isEqualTo(union.toBase64());
+        assertThat((double) merged.estimate()).isCloseTo(80_000, within(80_000 * TOLERANCE));
+        // copy는 원본에 영향을 주지 않음
+        assertThat((double) monday.estimate()).isCloseTo(50_000, within(50_000 * TOLERANCE));
+    }
+
+    @Test
+    void rejectsMergeAcrossPrecisions() {
+        HyperLogLog sketch = new HyperLogLog(PRECISION);
+
+        assertThatThrownBy(() -> sketch.merge(new HyperLogLog(PRECISION - 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void roundTripsThroughBase64() {
+        HyperLogLog sketch = new HyperLogLog(PRECISION);
+        for (int i = 0; i < 5_000; i++) {
+            sketch.offer("user-" + i);
+        }
+
+        HyperLogLog restored = HyperLogLog.fromBase64(PRECISION, sketch.toBase64());
+
+        assertThat(restored.estimate()).isEqualTo(sketch.estimate());
+        assertThat(restored.sizeInBytes()).isEqualTo(1 << PRECISION);
+        assertThatThrownBy(() -> HyperLogLog.fromBase64(PRECISION - 1, sketch.toBase64()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.backendspring.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SpaceSavingSketchTest {
+
+    @Test
+    void countsExactlyWhileUnderCapacity() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(10);
+        Map<String, Long> truth = new HashMap<>();
+
+        offer(sketch, truth, "김치찌개", 5);
+        offer(sketch, truth, "비빔밥", 3);
+        offer(sketch, truth, "라면", 1);
+
+        assertThat(sketch.size()).isEqualTo(3);
+        assertThat(sketch.top(3)).containsExactly(
+                new SpaceSavingSketch.Entry("김치찌개", 5, 0),
+                new SpaceSavingSketch.Entry("비빔밥", 3, 0),
+                new SpaceSavingSketch.Entry("라면", 1, 0));
+    }
+
+    @Test
+    void evictsSmallestCounterWhenFull() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(2);
+        for (int i = 0; i < 3; i++) {
+            sketch.offer("a");
+        }
+        sketch.offer("b");
+        sketch.offer("c"); // b(1)을 넘겨받아 count 2, error 1
+
+        assertThat(sketch.size()).isEqualTo(2);
+        assertThat(sketch.top(2)).containsExactly(
+                new SpaceSavingSketch.Entry("a", 3, 0),
+                new SpaceSavingSketch.Entry("c", 2, 1));
+    }
+
+    @Test
+    void keepsBoundsAndHeavyHittersOnSkewedStream() {
+        int capacity = 50;
+        SpaceSavingSketch sketch = new SpaceSavingSketch(capacity);
+        Map<String, Long> truth = new HashMap<>();
+        long total = skewedStream(sketch, truth, new Random(1), 100_000);
+
+        assertThat(sketch.size()).isEqualTo(capacity);
+        assertBounds(sketch, truth);
+        assertHeavyHittersKept(sketch, truth, total, capacity);
+    }
+
+    @Test
+    void mergeIsExactWhenCombinedItemsFit() {
+        SpaceSavingSketch left = new SpaceSavingSketch(10);
+        SpaceSavingSketch right = new SpaceSavingSketch(10);
+        Map<String, Long> truth = new HashMap<>();
+        offer(left, truth, "a", 4);
+        offer(left, truth, "b", 2);
+        offer(right, truth, "a", 1);
+        offer(right, truth, "c", 6);
+
+        left.merge(right);
+
+        assertThat(left.top(10)).containsExactly(
+                new SpaceSavingSketch.Entry("c", 6, 0),
+                new SpaceSavingSketch.Entry("a", 5, 0),
+                new SpaceSavingSketch.Entry("b", 2, 0));
+    }
+
+    @Test
+    void mergeOfFullSketchesKeepsBoundsAndHeavyHitters() {
+        int capacity = 40;
+        SpaceSavingSketch left = new SpaceSavingSketch(capacity);
+        SpaceSavingSketch right = new SpaceSavingSketch(capacity);
+        Map<String, Long> truth = new HashMap<>();
+        long total = skewedStream(left, truth, new Random(2), 50_000);
+        total += skewedStream(right, truth, new Random(3), 50_000);
+        // 한쪽에만 몰린 항목도 합친 뒤 남아야 함
+        offer(right, truth, "right-only", 5_000);
+        total += 5_000;
+
+        left.merge(right);
+
+        assertThat(left.size()).isEqualTo(capacity);
+        assertBounds(left, truth);
+        assertHeavyHittersKept(left, truth, total, capacity);
+    }
+
+    @Test
+    void mergedSketchKeepsCountingWithBuckets() {
+        SpaceSavingSketch left = new SpaceSavingSketch(3);
+        SpaceSavingSketch right = new SpaceSavingSketch(3);
+        Map<String, Long> truth = new HashMap<>();
+        offer(left, truth, "a", 2);
+        offer(right, truth, "b", 2);
+        left.merge(right);
+
+        offer(left, truth, "a", 1);
+        offer(left, truth, "c", 1);
+        offer(left, truth, "d", 1); // c(1)을 넘겨받음
+
+        assertThat(left.entries()).containsExactlyInAnyOrder(
+                new SpaceSavingSketch.Entry("a", 3, 0),
+                new SpaceSavingSketch.Entry("b", 2, 0),
+                new SpaceSavingSketch.Entry("d", 2, 1));
+    }
+
+    @Test
+    void restoresFromCheckpointEntries() {
+        SpaceSavingSketch sketch = new SpaceSavingSketch(20);
+        skewedStream(sketch, new HashMap<>(), new Random(4), 5_000);
+
+        SpaceSavingSketch restored = SpaceSavingSketch.of(20, sketch.entries());
+
+        assertThat(restored.entries()).containsExactlyInAnyOrderElementsOf(sketch.entries());
+        restored.offer("new-item");
+        assertThat(restored.size()).isEqualTo(20);
+    }
+
+    @Test
+    void rejectsNonPositiveCapacity() {
+        assertThatThrownBy(() -> new SpaceSavingSketch(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static void offer(SpaceSavingSketch sketch, Map<String, Long> truth, String item, int times) {
+        for (int i = 0; i < times; i++) {
+            sketch.offer(item);
+        }
+        truth.merge(item, (long) times, Long::sum);
+    }
+
+    /**
+     * 소수 인기 항목 + 긴 꼬리 (Zipf 비슷한 분포)
+     */
+    private static long skewedStream(SpaceSavingSketch sketch, Map<String, Long> truth, Random random, int size) {
+        for (int i = 0; i < size; i++) {
+            int rank = (int) Math.floor(Math.pow(random.nextDouble(), 3) * 2_000);
+            String item = "food-" + rank;
+            sketch.offer(item);
+            truth.merge(item, 1L, Long::sum);
+        }
+        return size;
+    }
+
+    private static void assertBounds(SpaceSavingSketch sketch, Map<String, Long> truth) {
+        for (SpaceSavingSketch.Entry entry : sketch.entries()) {
+            long actual = truth.getOrDefault(entry.item(), 0L);
+            assertThat(entry.count()).as(entry.item()).isGreaterThanOrEqualTo(actual);
+            assertThat(entry.count() - entry.error()).as(entry.item()).isLessThanOrEqualTo(actual);
+        }
+    }
+
+    private static void assertHeavyHittersKept(SpaceSavingSketch sketch, Map<String, Long> truth,
+                                               long total, int capacity) {
+        List<String> kept = sketch.entries().stream().map(SpaceSavingSketch.Entry::item).toList();
+        truth.forEach((item, count) -> {
+            if (count > total / capacity) {
+                assertThat(kept).contains(item);
+            }
+        });
+    }
+}
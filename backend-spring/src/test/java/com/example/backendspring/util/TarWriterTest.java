@@ -0,0 +1,139 @@
+package com.example.backendspring.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TarWriterTest {
+
+    private static final int BLOCK_SIZE = 512;
+    private static final long MTIME = 1760000000L;
+
+    @Test
+    void roundTripsMemoryAndFileEntries(@TempDir Path dir) throws IOException {
+        byte[] json = "{\"foodName\":\"김치찌개\",\"calories\":450}".getBytes(StandardCharsets.UTF_8);
+        byte[] image = new byte[BLOCK_SIZE * 3 + 17];
+        new Random(42).nextBytes(image);
+        Path imageFile = dir.resolve("image.jpg");
+        Files.write(imageFile, image);
+        byte[] aligned = new byte[BLOCK_SIZE];
+        Arrays.fill(aligned, (byte) 'x');
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        long written;
+        try (TarWriter tar = new TarWriter(Channels.newChannel(buffer));
+             FileChannel file = FileChannel.open(imageFile, StandardOpenOption.READ)) {
+            tar.addEntry("000000000001.jpg", file, MTIME);
+            tar.addEntry("000000000001.ai_prediction.json", json, MTIME);
+            tar.addEntry("000000000002.user_corrected.json", aligned, MTIME + 1);
+            tar.addEntry("empty.json", new byte[0], MTIME);
+            written = tar.getBytesWritten();
+        }
+        byte[] archive = buffer.toByteArray();
+
+        List<Entry> entries = read(archive);
+
+        assertThat(entries).extracting(Entry::name).containsExactly(
+                "000000000001.jpg", "000000000001.ai_prediction.json",
+                "000000000002.user_corrected.json", "empty.json");
+        assertThat(entries.get(0).content()).isEqualTo(image);
+        assertThat(entries.get(1).content()).isEqualTo(json);
+        assertThat(entries.get(2).content()).isEqualTo(aligned);
+        assertThat(entries.get(2).mtime()).isEqualTo(MTIME + 1);
+        assertThat(entries.get(3).content()).isEmpty();
+        // 항목 크기 계산은 실제로 쓴 바이트와 같아야 함 (샤드 크기 한도 계산용)
+        long expected = TarWriter.entrySize(image.length) + TarWriter.entrySize(json.length)
+                + TarWriter.entrySize(aligned.length) + TarWriter.entrySize(0);
+        assertThat(written).isEqualTo(expected);
+        // close 시 빈 블록 두 개로 끝남
+        assertThat(archive).hasSize((int) expected + BLOCK_SIZE * 2);
+    }
+
+    @Test
+    void rejectsNamesLongerThanHundredBytes() {
+        TarWriter tar = new TarWriter(Channels.newChannel(new ByteArrayOutputStream()));
+
+        assertThatThrownBy(() -> tar.addEntry("a".repeat(101), new byte[1], MTIME))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void entrySizeRoundsUpToBlocks() {
+        assertThat(TarWriter.entrySize(0)).isEqualTo(BLOCK_SIZE);
+        assertThat(TarWriter.entrySize(1)).isEqualTo(BLOCK_SIZE * 2);
+        assertThat(TarWriter.entrySize(BLOCK_SIZE)).isEqualTo(BLOCK_SIZE * 2);
+        assertThat(TarWriter.entrySize(BLOCK_SIZE + 1)).isEqualTo(BLOCK_SIZE * 3);
+    }
+
+    /**
+     * ustar 헤더를 검증하며 항목을 읽음 (빈 블록 두 개에서 끝)
+     */
+    private static List<Entry> read(byte[] archive) {
+        List<Entry> entries = new ArrayList<>();
+        int offset = 0;
+        while (true) {
+            byte[] header = Arrays.copyOfRange(archive, offset, offset + BLOCK_SIZE);
+            if (isZero(header)) {
+                assertThat(isZero(Arrays.copyOfRange(archive, offset + BLOCK_SIZE, offset + BLOCK_SIZE * 2))).isTrue();
+                assertThat(offset + BLOCK_SIZE * 2).isEqualTo(archive.length);
+                return entries;
+            }
+            assertThat(ascii(header, 257, 6)).isEqualTo("ustar\0");
+            assertThat(header[156]).isEqualTo((byte) '0');
+            assertThat(octal(header, 148, 8)).isEqualTo(checksum(header));
+
+            int size = (int) octal(header, 124, 12);
+            int start = offset + BLOCK_SIZE;
+            entries.add(new Entry(
+                    ascii(header, 0, 100).replace("\0", ""),
+                    octal(header, 136, 12),
+                    Arrays.copyOfRange(archive, start, start + size)));
+            int padded = (size + BLOCK_SIZE - 1) / BLOCK_SIZE * BLOCK_SIZE;
+            assertThat(isZero(Arrays.copyOfRange(archive, start + size, start + padded))).isTrue();
+            offset = start + padded;
+        }
+    }
+
+    private static long checksum(byte[] header) {
+        long sum = 0;
+        for (int i = 0; i < header.length; i++) {
+            sum += (i >= 148 && i < 156) ? ' ' : header[i] & 0xff;
+        }
+        return sum;
+    }
+
+    private static long octal(byte[] header, int offset, int length) {
+        return Long.parseLong(ascii(header, offset, length).replace("\0", "").trim(), 8);
+    }
+
+    private static String ascii(byte[] header, int offset, int length) {
+        return new String(header, offset, length, StandardCharsets.US_ASCII);
+    }
+
+    private static boolean isZero(byte[] bytes) {
+        for (byte b : bytes) {
+            if (b != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private record Entry(String name, long mtime, byte[] content) {
+    }
+}
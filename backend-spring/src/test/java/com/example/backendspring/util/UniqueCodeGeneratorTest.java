@@ -0,0 +1,90 @@
+package com.example.backendspring.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UniqueCodeGeneratorTest {
+
+    private static final String KEY = "test-key-0123456789-abcdefghijklmnopqrstuvwxyz";
+    private static final long NOW = 1760000000L;
+
+    @Test
+    void generatesTenCharacterAlphanumericCodes() {
+        UniqueCodeGenerator generator = new UniqueCodeGenerator(1, KEY, () -> NOW);
+
+        for (int i = 0; i < 1000; i++) {
+            assertThat(generator.generate()).matches("[a-zA-Z0-9]{10}");
+        }
+    }
+
+    @Test
+    void noCollisionsAcrossCounterRollover() {
+        // 시계가 멈춰 있으면 초당 순번(2^17)을 다 쓴 뒤 다음 초를 당겨 씀
+        UniqueCodeGenerator generator = new UniqueCodeGenerator(7, KEY, () -> NOW);
+        int count = 3 * (1 << 17) + 1000;
+        Set<String> codes = new HashSet<>(count * 2);
+
+        for (int i = 0; i < count; i++) {
+            codes.add(generator.generate());
+        }
+
+        assertThat(codes).hasSize(count);
+    }
+
+    @Test
+    void noCollisionsWhenClockStepsBack() {
+        long[] clock = {NOW};
+        UniqueCodeGenerator generator = new UniqueCodeGenerator(3, KEY, () -> clock[0]);
+        Set<String> codes = new HashSet<>();
+
+        for (int i = 0; i < 20000; i++) {
+            clock[0] = NOW - (i % 5);
+            codes.add(generator.generate());
+        }
+
+        assertThat(codes).hasSize(20000);
+    }
+
+    @Test
+    void noCollisionsBetweenNodesAtSameInstant() {
+        UniqueCodeGenerator first = new UniqueCodeGenerator(1, KEY, () -> NOW);
+        UniqueCodeGenerator second = new UniqueCodeGenerator(2, KEY, () -> NOW);
+        Set<String> codes = new HashSet<>();
+
+        for (int i = 0; i < 50000; i++) {
+            codes.add(first.generate());
+            codes.add(second.generate());
+        }
+
+        assertThat(codes).hasSize(100000);
+    }
+
+    @Test
+    void differentKeysProduceDifferentCodes() {
+        UniqueCodeGenerator first = new UniqueCodeGenerator(1, KEY, () -> NOW);
+        UniqueCodeGenerator second = new UniqueCodeGenerator(1, KEY + "-other", () -> NOW);
+
+        assertThat(first.generate()).isNotEqualTo(second.generate());
+    }
+
+    @Test
+    void rejectsMissingOrShortKey() {
+        assertThatThrownBy(() -> new UniqueCodeGenerator(1, "", () -> NOW))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> new UniqueCodeGenerator(1, null, () -> NOW))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> new UniqueCodeGenerator(1, "short", () -> NOW))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void rejectsNodeIdOutOfRange() {
+        assertThatThrownBy(() -> new UniqueCodeGenerator(1024, KEY, () -> NOW))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -11,10 +11,13 @@ CREATE TABLE IF NOT EXISTS users (
     email VARCHAR(255) NOT NULL UNIQUE,
     password VARCHAR(255) NOT NULL,
     daily_calorie_goal INT DEFAULT 2000,
+    data_version BIGINT NOT NULL DEFAULT 0 COMMENT '식사/목표 변경 시 증가 (ETag)',
+    goal_version BIGINT NOT NULL DEFAULT 0 COMMENT '목표 칼로리 변경 시 증가 (세션 토큰 검증)',
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     INDEX idx_unique_code (unique_code),
-    INDEX idx_email (email)
+    INDEX idx_email (email),
+    INDEX idx_name (name)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
 -- Meals Table (음식1~3 컬럼 구조)
@@ -37,6 +40,52 @@ CREATE TABLE IF NOT EXISTS meals (
     INDEX idx_user_code_date (user_unique_code, meal_date)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
+-- Meal Search Tokens Table (유저별 음식명 2글자 토큰 역색인, 식사 쓰기와 같은 트랜잭션에서 갱신)
+CREATE TABLE IF NOT EXISTS meal_search_tokens (
+    user_unique_code VARCHAR(10) NOT NULL COMMENT '유저 고유 코드',
+    token VARCHAR(8) NOT NULL COMMENT '음식명 2글자 토큰 (소문자)',
+    meal_id BIGINT NOT NULL COMMENT '식사 ID',
+    PRIMARY KEY (user_unique_code, token, meal_id),
+    INDEX idx_meal_search_user_token (user_unique_code, token),
+    INDEX idx_meal_search_meal (meal_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Daily Calorie Summary Table (유저별 일일 칼로리 집계, 식사 쓰기와 같은 트랜잭션에서 갱신)
+CREATE TABLE IF NOT EXISTS daily_calorie_summary (
+    user_unique_code VARCHAR(10) NOT NULL COMMENT '유저 고유 코드',
+    summary_date DATE NOT NULL COMMENT '집계 날짜',
+    total_calories INT NOT NULL DEFAULT 0 COMMENT '총 칼로리',
+    meal_count INT NOT NULL DEFAULT 0 COMMENT '식사 수',
+    breakfast_calories INT NOT NULL DEFAULT 0 COMMENT '아침 칼로리',
+    lunch_calories INT NOT NULL DEFAULT 0 COMMENT '점심 칼로리',
+    dinner_calories INT NOT NULL DEFAULT 0 COMMENT '저녁 칼로리',
+    snack_calories INT NOT NULL DEFAULT 0 COMMENT '간식 칼로리',
+    PRIMARY KEY (user_unique_code, summary_date)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Sketch Checkpoints Table (서버별 메모리 스케치 체크포인트, 재시작 복구 및 서버 간 병합)
+CREATE TABLE IF NOT EXISTS sketch_checkpoints (
+    sketch_name VARCHAR(50) NOT NULL COMMENT '스케치 종류 (top-foods 등)',
+    node_id VARCHAR(64) NOT NULL COMMENT '서버 인스턴스 ID',
+    window_key VARCHAR(20) NOT NULL COMMENT '집계 구간 (yyyy-MM-dd 또는 all)',
+    payload MEDIUMTEXT NOT NULL COMMENT '직렬화된 스케치',
+    updated_at DATETIME NOT NULL COMMENT '저장 시각',
+    PRIMARY KEY (sketch_name, node_id, window_key)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- User Food Stats Table (최근/즐겨찾기 음식)
+CREATE TABLE IF NOT EXISTS user_food_stats (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_unique_code VARCHAR(10) NOT NULL COMMENT '유저 고유 코드',
+    food_name VARCHAR(255) NOT NULL COMMENT '음식명',
+    calories INT COMMENT '마지막으로 기록한 칼로리',
+    use_count INT NOT NULL DEFAULT 0 COMMENT '기록 횟수',
+    favorite BOOLEAN NOT NULL DEFAULT FALSE COMMENT '즐겨찾기 여부',
+    last_used_at DATETIME COMMENT '마지막 기록 시각',
+    UNIQUE KEY uk_user_food (user_unique_code, food_name),
+    INDEX idx_user_food_last_used (user_unique_code, last_used_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
 -- Admins Table (관리자 계정)
 CREATE TABLE IF NOT EXISTS admins (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
@@ -49,18 +98,44 @@ CREATE TABLE IF NOT EXISTS admins (
 -- Training Data Log Table (AI 모델 재학습용 데이터 수집)
 CREATE TABLE IF NOT EXISTS training_data_log (
     log_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    capture_id VARCHAR(36) COMMENT '수집 파이프라인 캡처 ID (재처리 시 중복 방지)',
     user_unique_code VARCHAR(10) NOT NULL COMMENT '유저 고유 코드',
     meal_id BIGINT COMMENT '연관된 meal ID (외래키)',
     image_path VARCHAR(512) NOT NULL COMMENT '저장된 이미지 파일 경로',
+    image_sha256 CHAR(64) COMMENT '이미지 SHA-256 (내용 주소 저장소 키, 같은 사진은 한 파일을 공유)',
     ai_prediction JSON COMMENT 'AI 모델의 원본 예측 결과 (음식명, 칼로리)',
     user_corrected_json JSON COMMENT '사용자가 수정한 최종 정보 (Ground Truth)',
-    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT '수집 시각',
+    inserted_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP COMMENT '실제 INSERT 시각 (데이터셋 내보내기 안전 구간 기준)',
     INDEX idx_user_code (user_unique_code),
     INDEX idx_meal_id (meal_id),
     INDEX idx_created_at (created_at),
+    INDEX idx_image_sha256 (image_sha256),
+    UNIQUE KEY uk_capture_id (capture_id),
     FOREIGN KEY (meal_id) REFERENCES meals(id) ON DELETE SET NULL
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
+-- User Purge Jobs Table (회원 삭제 후 백그라운드 데이터 정리 작업, 배치마다 진행 상황 저장)
+CREATE TABLE IF NOT EXISTS user_purge_jobs (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL COMMENT '삭제된 유저 ID',
+    user_unique_code VARCHAR(10) NOT NULL COMMENT '삭제된 유저 고유 코드',
+    status VARCHAR(20) NOT NULL COMMENT 'PENDING/RUNNING/COMPLETED/FAILED',
+    phase VARCHAR(20) NOT NULL COMMENT 'TRAINING_LOGS/SEARCH_TOKENS/MEALS/DAILY_SUMMARIES/FOOD_STATS/IMAGES/DONE',
+    deleted_meals BIGINT NOT NULL DEFAULT 0,
+    deleted_training_logs BIGINT NOT NULL DEFAULT 0,
+    deleted_daily_summaries BIGINT NOT NULL DEFAULT 0,
+    deleted_food_stats BIGINT NOT NULL DEFAULT 0,
+    deleted_files BIGINT NOT NULL DEFAULT 0,
+    attempts INT NOT NULL DEFAULT 0,
+    last_error VARCHAR(1000),
+    owner_node VARCHAR(100) COMMENT '작업 중인 서버',
+    heartbeat_at DATETIME(6),
+    created_at DATETIME(6) NOT NULL,
+    completed_at DATETIME(6),
+    INDEX idx_purge_status (status)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
 -- Insert default admin account
 -- 관리자 계정은 AdminInitializer에서 자동 생성됩니다
 -- 환경변수 ADMIN_USERNAME, ADMIN_PASSWORD로 설정 가능